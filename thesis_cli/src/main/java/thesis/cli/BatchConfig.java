@@ -0,0 +1,87 @@
+package thesis.cli;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes the parameter sweep to execute across every loaded world.
+ *
+ * Each world is simulated once for every combination of random seed, comms
+ * range, and comms relay probability.
+ */
+public class BatchConfig
+{
+   /**
+    * The number of simulations to execute concurrently.
+    */
+   private int numThreads;
+
+   private List<Integer> seeds;
+
+   /**
+    * Comms ranges expressed as a percentage [0,1] of the max world distance.
+    */
+   private List<Double> commsRngPercents;
+
+   private List<Double> commsRelayProbs;
+
+   public BatchConfig()
+   {
+      numThreads = 1;
+      seeds = new ArrayList<Integer>();
+      commsRngPercents = new ArrayList<Double>();
+      commsRelayProbs = new ArrayList<Double>();
+   }
+
+   public int getNumThreads()
+   {
+      return numThreads;
+   }
+
+   public void setNumThreads(int numThreads)
+   {
+      if (numThreads < 1)
+      {
+         throw new IllegalArgumentException("Number of threads must be at least 1.");
+      }
+      this.numThreads = numThreads;
+   }
+
+   public List<Integer> getSeeds()
+   {
+      return seeds;
+   }
+
+   public List<Double> getCommsRngPercents()
+   {
+      return commsRngPercents;
+   }
+
+   public List<Double> getCommsRelayProbs()
+   {
+      return commsRelayProbs;
+   }
+
+   /**
+    * @return The number of simulations that will be executed per world.
+    */
+   public int getRunsPerWorld()
+   {
+      return seeds.size() * commsRngPercents.size() * commsRelayProbs.size();
+   }
+
+   @Override
+   public String toString()
+   {
+      StringBuilder sb = new StringBuilder();
+      sb.append("Threads: ");
+      sb.append(numThreads);
+      sb.append("\nSeeds: ");
+      sb.append(seeds);
+      sb.append("\nCommsRng: ");
+      sb.append(commsRngPercents);
+      sb.append("\nCommsRelayProb: ");
+      sb.append(commsRelayProbs);
+      return sb.toString();
+   }
+}
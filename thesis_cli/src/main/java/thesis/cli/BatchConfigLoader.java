@@ -0,0 +1,140 @@
+package thesis.cli;
+
+import java.io.File;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import thesis.core.utilities.LoggerIDs;
+import thesis.core.utilities.PropertiesLoader;
+import thesis.core.utilities.SimModelConfig;
+
+/**
+ * Parses the optional batch parameters from a simulation configuration file.
+ *
+ * Every batch parameter is a comma separated list. Parameters that are not
+ * present default to the single value already parsed into the
+ * {@link SimModelConfig}.
+ *
+ * <ul>
+ * <li>sim.batch.threads - Number of concurrent simulations. Defaults to the
+ * number of available processors.</li>
+ * <li>sim.batch.seeds - Random seeds.</li>
+ * <li>sim.batch.commsRngPercent - Comms ranges in the range [0,100].</li>
+ * <li>sim.batch.commsRelayProb - Comms relay probabilities in the range
+ * [0,1].</li>
+ * </ul>
+ */
+public class BatchConfigLoader
+{
+   /**
+    * Parsed configuration data is stored here.
+    */
+   private BatchConfig cfg;
+
+   public BatchConfigLoader()
+   {
+      cfg = new BatchConfig();
+   }
+
+   /**
+    * Load the batch parameters from a simulation configuration file.
+    *
+    * @param propFile
+    *           The properties file on disk to load.
+    * @param simCfg
+    *           Default values are taken from this configuration.
+    * @return True if the file was loaded successfully, false otherwise.
+    */
+   public boolean loadFile(File propFile, SimModelConfig simCfg)
+   {
+      Logger logger = LoggerFactory.getLogger(LoggerIDs.MAIN);
+
+      PropertiesLoader propsLdr = new PropertiesLoader();
+      boolean success = propsLdr.loadFile(propFile);
+
+      if (success)
+      {
+         try
+         {
+            cfg.setNumThreads(propsLdr.getInt("sim.batch.threads", Runtime.getRuntime().availableProcessors()));
+
+            for (String val : splitList(propsLdr.getString("sim.batch.seeds", null)))
+            {
+               cfg.getSeeds().add(Integer.parseInt(val));
+            }
+            if (cfg.getSeeds().isEmpty())
+            {
+               cfg.getSeeds().add(simCfg.getRandomSeed());
+            }
+
+            for (String val : splitList(propsLdr.getString("sim.batch.commsRngPercent", null)))
+            {
+               cfg.getCommsRngPercents().add(Integer.parseInt(val) / 100.0);
+            }
+            if (cfg.getCommsRngPercents().isEmpty())
+            {
+               cfg.getCommsRngPercents().add(simCfg.getCommsRngPercent());
+            }
+
+            for (String val : splitList(propsLdr.getString("sim.batch.commsRelayProb", null)))
+            {
+               cfg.getCommsRelayProbs().add(Double.parseDouble(val));
+            }
+            if (cfg.getCommsRelayProbs().isEmpty())
+            {
+               cfg.getCommsRelayProbs().add(simCfg.getCommsRelayProbability());
+            }
+         }
+         catch (Exception e)
+         {
+            logger.debug(e.getMessage());
+            success = false;
+         }
+      }
+
+      if (!success)
+      {
+         logger.error("Failed to load batch configuration from {}.", propFile);
+      }
+
+      return success;
+   }
+
+   /**
+    * Split a comma separated list into its trimmed values.
+    *
+    * @param list
+    *           The list to split. May be null.
+    * @return The values in the list or an empty array if the list is null or
+    *         empty.
+    */
+   private String[] splitList(String list)
+   {
+      String[] vals;
+      if (list == null || list.trim().isEmpty())
+      {
+         vals = new String[0];
+      }
+      else
+      {
+         vals = list.split(",");
+         for (int i = 0; i < vals.length; ++i)
+         {
+            vals[i] = vals[i].trim();
+         }
+      }
+      return vals;
+   }
+
+   /**
+    * Get the configuration data. Only useful after parsing a configuration
+    * file via {@link #loadFile(File, SimModelConfig)}.
+    *
+    * @return The configuration data.
+    */
+   public BatchConfig getConfigData()
+   {
+      return cfg;
+   }
+}
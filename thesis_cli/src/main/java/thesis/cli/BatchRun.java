@@ -0,0 +1,106 @@
+package thesis.cli;
+
+import thesis.core.StatResults;
+import thesis.core.serialization.world.WorldConfig;
+import thesis.core.utilities.SimModelConfig;
+
+/**
+ * A single simulation of one world with one set of parameters within a batch.
+ */
+public class BatchRun
+{
+   /**
+    * Unique name of this run within the batch. Used to name result files.
+    */
+   private final String name;
+   private final String worldName;
+   private final WorldConfig worldCfg;
+   private final SimModelConfig simCfg;
+
+   private boolean completed;
+   private long timeAllTgtsFound;
+   private long timeAllTgtsDestroyed;
+   private long timeAllWorldKnown;
+
+   public BatchRun(String name, String worldName, WorldConfig worldCfg, SimModelConfig simCfg)
+   {
+      if (worldCfg == null)
+      {
+         throw new NullPointerException("World config cannot be null.");
+      }
+
+      if (simCfg == null)
+      {
+         throw new NullPointerException("Sim config cannot be null.");
+      }
+
+      this.name = name;
+      this.worldName = worldName;
+      this.worldCfg = worldCfg;
+      this.simCfg = simCfg;
+
+      completed = false;
+      timeAllTgtsFound = -1;
+      timeAllTgtsDestroyed = -1;
+      timeAllWorldKnown = -1;
+   }
+
+   public String getName()
+   {
+      return name;
+   }
+
+   public String getWorldName()
+   {
+      return worldName;
+   }
+
+   public WorldConfig getWorldConfig()
+   {
+      return worldCfg;
+   }
+
+   public SimModelConfig getSimConfig()
+   {
+      return simCfg;
+   }
+
+   /**
+    * Record the summary statistics of the completed simulation. Only the
+    * summary values are retained so that the simulation model can be garbage
+    * collected while the rest of the batch executes.
+    *
+    * @param results
+    *           The final results of the simulation.
+    */
+   public void setResults(StatResults results)
+   {
+      timeAllTgtsFound = results.getTimeAllTargetsFound();
+      timeAllTgtsDestroyed = results.getTimeAllTargetsDestroyed();
+      timeAllWorldKnown = results.getTimeAllWorldKnown();
+      completed = true;
+   }
+
+   /**
+    * @return True if the simulation ran to completion.
+    */
+   public boolean isCompleted()
+   {
+      return completed;
+   }
+
+   public long getTimeAllTargetsFound()
+   {
+      return timeAllTgtsFound;
+   }
+
+   public long getTimeAllTargetsDestroyed()
+   {
+      return timeAllTgtsDestroyed;
+   }
+
+   public long getTimeAllWorldKnown()
+   {
+      return timeAllWorldKnown;
+   }
+}
@@ -0,0 +1,263 @@
+package thesis.cli;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import thesis.core.EntityTypeCfgs;
+import thesis.core.StatResults;
+import thesis.core.serialization.world.WorldConfig;
+import thesis.core.utilities.LoggerIDs;
+import thesis.core.utilities.SimModelConfig;
+
+/**
+ * Executes a queue of independent simulations on a fixed size thread pool.
+ *
+ * Every run owns its own simulation model. Per-run target data is written by
+ * the worker that executed the run into its own file. The aggregate world data
+ * file is written once all runs are complete in the order the runs were
+ * queued so the output is independent of thread scheduling.
+ */
+public class BatchRunner
+{
+   private static final Logger logger = LoggerFactory.getLogger(LoggerIDs.MAIN);
+
+   private final EntityTypeCfgs entityTypes;
+   private final File resultsDir;
+   private final List<BatchRun> runs;
+
+   /**
+    * @param entityTypes
+    *           The entity types shared (read only) by every simulation.
+    * @param resultsDir
+    *           Result files will be written into this directory.
+    */
+   public BatchRunner(EntityTypeCfgs entityTypes, File resultsDir)
+   {
+      if (entityTypes == null)
+      {
+         throw new NullPointerException("Entity types cannot be null.");
+      }
+
+      if (resultsDir == null)
+      {
+         throw new NullPointerException("Results directory cannot be null.");
+      }
+
+      this.entityTypes = entityTypes;
+      this.resultsDir = resultsDir;
+      runs = new ArrayList<BatchRun>();
+   }
+
+   /**
+    * Queue one run of the given world for every combination of parameters in
+    * the batch configuration.
+    *
+    * @param worldName
+    *           The name of the world.
+    * @param worldCfg
+    *           The world to simulate.
+    * @param baseCfg
+    *           Parameters not varied by the batch are taken from here.
+    * @param batchCfg
+    *           The parameters to sweep.
+    */
+   public void queueWorld(String worldName, WorldConfig worldCfg, SimModelConfig baseCfg, BatchConfig batchCfg)
+   {
+      final boolean nameSeed = batchCfg.getSeeds().size() > 1;
+      final boolean nameRng = batchCfg.getCommsRngPercents().size() > 1;
+      final boolean nameRelay = batchCfg.getCommsRelayProbs().size() > 1;
+
+      for (double commsRng : batchCfg.getCommsRngPercents())
+      {
+         for (double relayProb : batchCfg.getCommsRelayProbs())
+         {
+            for (int seed : batchCfg.getSeeds())
+            {
+               SimModelConfig runCfg = new SimModelConfig(baseCfg);
+               runCfg.setRandomSeed(seed);
+               runCfg.setCommsRngPercent(commsRng);
+               runCfg.setCommsRelayProbability(relayProb);
+
+               // Only decorate the name with the parameters that are varied so
+               // that a batch of one produces the classic file names.
+               StringBuilder name = new StringBuilder(worldName);
+               if (nameRng)
+               {
+                  name.append("_comm");
+                  name.append(Math.round(commsRng * 100));
+               }
+               if (nameRelay)
+               {
+                  name.append("_relay");
+                  name.append(relayProb);
+               }
+               if (nameSeed)
+               {
+                  name.append("_seed");
+                  name.append(seed);
+               }
+
+               runs.add(new BatchRun(name.toString(), worldName, worldCfg, runCfg));
+            }
+         }
+      }
+   }
+
+   public List<BatchRun> getRuns()
+   {
+      return runs;
+   }
+
+   /**
+    * Execute all queued runs and save their results.
+    *
+    * @param numThreads
+    *           The number of simulations to execute concurrently.
+    * @return True if every run completed and all results were saved.
+    */
+   public boolean execute(int numThreads)
+   {
+      if (!resultsDir.isDirectory())
+      {
+         resultsDir.mkdirs();
+      }
+
+      logger.info("Executing {} simulations on {} threads.", runs.size(), numThreads);
+
+      ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+      List<Future<?>> futures = new ArrayList<Future<?>>(runs.size());
+      for (final BatchRun run : runs)
+      {
+         futures.add(executor.submit(new Runnable()
+         {
+            @Override
+            public void run()
+            {
+               executeRun(run);
+            }
+         }));
+      }
+      executor.shutdown();
+
+      boolean success = true;
+      for (int i = 0; i < futures.size(); ++i)
+      {
+         try
+         {
+            futures.get(i).get();
+         }
+         catch (InterruptedException e)
+         {
+            logger.error("Interrupted while waiting for simulation {}.", runs.get(i).getName());
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            success = false;
+            break;
+         }
+         catch (ExecutionException e)
+         {
+            logger.error("Simulation {} failed.", runs.get(i).getName(), e.getCause());
+            success = false;
+         }
+      }
+
+      return saveWorldData() && success;
+   }
+
+   private void executeRun(BatchRun run)
+   {
+      StringBuilder sb = new StringBuilder();
+      sb.append("\n*****************************************************************\n");
+      sb.append("*****************************************************************\n");
+      sb.append("*****************************************************************\n");
+      sb.append("-----Start simulation of world {}");
+      logger.info(sb.toString(), run.getName());
+
+      ThesisCLI simRunner = new ThesisCLI();
+      try
+      {
+         simRunner.resetNewSim(run.getSimConfig(), run.getWorldConfig(), entityTypes);
+         StatResults results = simRunner.runSim();
+         run.setResults(results);
+         saveTargetData(run, results);
+      }
+      finally
+      {
+         simRunner.shutdown();
+      }
+
+      logger.info("-----Finished simulation of world {}", run.getName());
+   }
+
+   private void saveTargetData(BatchRun run, StatResults results)
+   {
+      File tgtFile = new File(resultsDir, run.getName() + "TgtData.txt");
+
+      try
+      {
+         PrintWriter tgtWriter = new PrintWriter(tgtFile);
+         results.saveTargetResults(tgtWriter);
+         tgtWriter.close();
+      }
+      catch (FileNotFoundException e)
+      {
+         logger.error("Failed to write target data to {}.", tgtFile.getAbsolutePath());
+      }
+   }
+
+   private boolean saveWorldData()
+   {
+      boolean success = true;
+      File worldFile = new File(resultsDir, "worldData.txt");
+      try
+      {
+         PrintWriter worldWriter = new PrintWriter(worldFile);
+         worldWriter.println(
+               "World, Time all detected (ms), Time all destroyed (ms), Time world known (ms), Seed, Comms range (%), Comms relay prob");
+
+         for (BatchRun run : runs)
+         {
+            if (!run.isCompleted())
+            {
+               continue;
+            }
+
+            SimModelConfig cfg = run.getSimConfig();
+
+            StringBuilder sb = new StringBuilder();
+            sb.append(run.getWorldName());
+            sb.append(",");
+            sb.append(run.getTimeAllTargetsFound());
+            sb.append(",");
+            sb.append(run.getTimeAllTargetsDestroyed());
+            sb.append(",");
+            sb.append(run.getTimeAllWorldKnown());
+            sb.append(",");
+            sb.append(cfg.getRandomSeed());
+            sb.append(",");
+            sb.append(Math.round(cfg.getCommsRngPercent() * 100));
+            sb.append(",");
+            sb.append(cfg.getCommsRelayProbability());
+            worldWriter.println(sb.toString());
+         }
+
+         worldWriter.close();
+      }
+      catch (FileNotFoundException e)
+      {
+         logger.error("Failed to write world data to {}.", worldFile.getAbsolutePath());
+         success = false;
+      }
+      return success;
+   }
+}
@@ -0,0 +1,132 @@
+package thesis.cli;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import thesis.core.EntityTypeCfgs;
+import thesis.core.serialization.DBConnections;
+import thesis.core.serialization.EntityTypeCSVCodec;
+import thesis.core.serialization.WorldConfigCSVCodec;
+import thesis.core.serialization.world.WorldConfig;
+import thesis.core.utilities.LoggerIDs;
+
+/**
+ * Times loading the entity types and worlds by staging the csv files in the H2
+ * databases against parsing them directly. The worlds are also converted to
+ * binary world files to time loading them.
+ *
+ * Usage: LoadBenchmark entityTypeDir worldsRootDir [repetitions]
+ */
+public class LoadBenchmark
+{
+   public static void main(String[] args) throws IOException
+   {
+      Logger logger = LoggerFactory.getLogger(LoggerIDs.MAIN);
+
+      if (args.length < 2)
+      {
+         logger.error("Usage: LoadBenchmark entityTypeDir worldsRootDir [repetitions]");
+         return;
+      }
+
+      File entityTypeDir = new File(args[0]);
+      File[] worldDirs = new File(args[1]).listFiles(File::isDirectory);
+      int reps = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+      DBConnections dbConns = new DBConnections();
+      if (!(dbConns.openConfigDB() && dbConns.openWorldsDB()))
+      {
+         logger.error("Failed to open the databases.");
+         return;
+      }
+
+      WorldConfigCSVCodec worldCfgCodec = new WorldConfigCSVCodec();
+      File[] binFiles = new File[worldDirs.length];
+      for (int i = 0; i < worldDirs.length; ++i)
+      {
+         WorldConfig worldCfg = new WorldConfig();
+         binFiles[i] = File.createTempFile("world", ".bin");
+         binFiles[i].deleteOnExit();
+         if (!worldCfgCodec.loadCSV(worldDirs[i], worldCfg) || !worldCfgCodec.writeBinary(binFiles[i], worldCfg))
+         {
+            logger.error("Failed to convert {}", worldDirs[i].getAbsolutePath());
+            return;
+         }
+      }
+
+      // Warm up every path before timing them
+      loadAll(null, entityTypeDir, worldDirs);
+      loadAll(dbConns, entityTypeDir, worldDirs);
+      loadBinaries(binFiles);
+
+      long dbNanos = 0;
+      long directNanos = 0;
+      long binaryNanos = 0;
+      for (int i = 0; i < reps; ++i)
+      {
+         long start = System.nanoTime();
+         loadAll(dbConns, entityTypeDir, worldDirs);
+         dbNanos += System.nanoTime() - start;
+
+         start = System.nanoTime();
+         loadAll(null, entityTypeDir, worldDirs);
+         directNanos += System.nanoTime() - start;
+
+         start = System.nanoTime();
+         loadBinaries(binFiles);
+         binaryNanos += System.nanoTime() - start;
+      }
+
+      dbConns.closeConfigDB();
+      dbConns.closeWorldsDB();
+
+      logger.info("Loaded entity types and {} worlds {} times.", worldDirs.length, reps);
+      logger.info("Through database: {} ms per load", String.format("%.1f", dbNanos / 1e6 / reps));
+      logger.info("Direct:           {} ms per load", String.format("%.1f", directNanos / 1e6 / reps));
+      logger.info("Binary worlds:    {} ms per load", String.format("%.1f", binaryNanos / 1e6 / reps));
+   }
+
+   /**
+    * @param dbConns
+    *           The csv files are staged in these databases or parsed directly
+    *           if null.
+    */
+   private static void loadAll(DBConnections dbConns, File entityTypeDir, File[] worldDirs)
+   {
+      EntityTypeCSVCodec entTypesCfgCodec = new EntityTypeCSVCodec();
+      EntityTypeCfgs entityTypes = new EntityTypeCfgs();
+      boolean loaded = dbConns != null ? entTypesCfgCodec.loadCSV(dbConns, entityTypeDir, entityTypes)
+            : entTypesCfgCodec.loadCSV(entityTypeDir, entityTypes);
+      if (!loaded)
+      {
+         throw new IllegalStateException("Failed to load " + entityTypeDir.getAbsolutePath());
+      }
+
+      WorldConfigCSVCodec worldCfgCodec = new WorldConfigCSVCodec();
+      for (File worldDir : worldDirs)
+      {
+         WorldConfig worldCfg = new WorldConfig();
+         loaded = dbConns != null ? worldCfgCodec.loadCSV(dbConns, worldDir, worldCfg)
+               : worldCfgCodec.loadCSV(worldDir, worldCfg);
+         if (!loaded)
+         {
+            throw new IllegalStateException("Failed to load " + worldDir.getAbsolutePath());
+         }
+      }
+   }
+
+   private static void loadBinaries(File[] binFiles)
+   {
+      WorldConfigCSVCodec worldCfgCodec = new WorldConfigCSVCodec();
+      for (File binFile : binFiles)
+      {
+         if (!worldCfgCodec.loadBinary(binFile, new WorldConfig()))
+         {
+            throw new IllegalStateException("Failed to load " + binFile.getAbsolutePath());
+         }
+      }
+   }
+}
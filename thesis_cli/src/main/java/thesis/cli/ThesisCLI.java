@@ -20,6 +20,10 @@ public class ThesisCLI
       sim = new SimModel();
       sim.reset(simCfg.getRandomSeed(), worldCfg, entityTypes, simCfg.getCommsRngPercent(),
             simCfg.getCommsRelayProbability(), simCfg.getBeliefDecayRate(), simCfg.getMinWorldClearUncert());
+      sim.setUAVStepThreads(simCfg.getUAVStepThreads());
+      sim.setExactSensorProbabilities(simCfg.isExactSensorProbabilities());
+      sim.setPathCacheSize(simCfg.getPathCacheSize());
+      sim.setFlightTrailsEnabled(simCfg.isFlightTrailsEnabled());
    }
 
    public StatResults runSim()
@@ -30,4 +34,15 @@ public class ThesisCLI
       }
       return sim.getResults();
    }
+
+   /**
+    * Release the threads of the simulation once it is no longer needed.
+    */
+   public void shutdown()
+   {
+      if (sim != null)
+      {
+         sim.shutdown();
+      }
+   }
 }
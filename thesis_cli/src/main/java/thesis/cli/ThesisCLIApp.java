@@ -1,8 +1,6 @@
 package thesis.cli;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
@@ -11,7 +9,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import thesis.core.EntityTypeCfgs;
-import thesis.core.StatResults;
 import thesis.core.serialization.DBConnections;
 import thesis.core.serialization.EntityTypeCSVCodec;
 import thesis.core.serialization.WorldConfigCSVCodec;
@@ -65,12 +62,56 @@ public class ThesisCLIApp
       return cfg;
    }
 
+   /**
+    * Parse the optional batch parameters from the simulation configuration
+    * file.
+    *
+    * @param logger
+    *           Issues encountered while loading configuration data will be
+    *           logged here.
+    * @param simCfg
+    *           Default batch values are taken from here.
+    * @return The parsed batch parameters or null if the data failed to load
+    *         for any reason.
+    */
+   private static BatchConfig loadBatchConfig(Logger logger, SimModelConfig simCfg)
+   {
+      BatchConfig cfg = null;
+
+      BatchConfigLoader cfgLdr = new BatchConfigLoader();
+      if (!cfgLdr.loadFile(new File("sim.properties"), simCfg))
+      {
+         logger.error("Failed to parse batch configuration data.");
+      }
+      else
+      {
+         cfg = cfgLdr.getConfigData();
+      }
+
+      return cfg;
+   }
+
+   /**
+    * @param dbConns
+    *           The csv files are staged in these databases or parsed directly
+    *           if null.
+    */
    private static boolean loadData(Logger logger, DBConnections dbConns, EntityTypeCfgs entityTypes,
          SimModelConfig simCfg)
    {
       boolean success = true;
       EntityTypeCSVCodec entTypesCfgCodec = new EntityTypeCSVCodec();
-      if (!entTypesCfgCodec.loadCSV(dbConns, simCfg.getEntityTypeDir(), entityTypes))
+      boolean loaded = false;
+      if (dbConns != null)
+      {
+         loaded = entTypesCfgCodec.loadCSV(dbConns, simCfg.getEntityTypeDir(), entityTypes);
+      }
+      else
+      {
+         loaded = entTypesCfgCodec.loadCSV(simCfg.getEntityTypeDir(), entityTypes);
+      }
+
+      if (!loaded)
       {
          logger.error("Failed to load entity types configuration data: {}",
                simCfg.getEntityTypeDir().getAbsolutePath());
@@ -80,7 +121,8 @@ public class ThesisCLIApp
       return success;
    }
 
-   private static List<WorldAndName> loadWorlds(Logger logger, DBConnections dbConns, String worldsRootDir)
+   private static List<WorldAndName> loadWorlds(Logger logger, DBConnections dbConns, String worldsRootDir,
+         boolean loadBinary)
    {
       List<WorldAndName> worlds = new ArrayList<WorldAndName>();
 
@@ -90,7 +132,7 @@ public class ThesisCLIApp
          WorldConfig worldCfg = new WorldConfig();
 
          logger.debug("Loading world in {}", worldDir);
-         loadWorld(logger, dbConns, worldCfg, worldDir);
+         loadWorld(logger, dbConns, worldCfg, worldDir, loadBinary);
 
          WorldAndName retVal = new WorldAndName();
          retVal.worldName = worldDir;
@@ -100,75 +142,33 @@ public class ThesisCLIApp
       return worlds;
    }
 
-   private static boolean loadWorld(Logger logger, DBConnections dbConns, WorldConfig worldCfg, File worldDir)
+   private static boolean loadWorld(Logger logger, DBConnections dbConns, WorldConfig worldCfg, File worldDir,
+         boolean loadBinary)
    {
       boolean success = true;
       WorldConfigCSVCodec worldCfgCodec = new WorldConfigCSVCodec();
-      if (!worldCfgCodec.loadCSV(dbConns, worldDir, worldCfg))
+      File binFile = new File(worldDir, WorldConfigCSVCodec.BINARY_FILE);
+      boolean loaded = false;
+      if (loadBinary && worldCfgCodec.isBinaryCurrent(worldDir))
       {
-         logger.error("Failed to load world configuration data: {}", worldDir.getAbsolutePath());
-         success = false;
+         logger.debug("Loading binary world file {}", binFile);
+         loaded = worldCfgCodec.loadBinary(binFile, worldCfg);
       }
-      return success;
-   }
-
-   private static boolean saveResults(List<WorldAndName> results)
-   {
-      File resultsDir = new File("results");
-      if (!resultsDir.isDirectory())
+      else if (dbConns != null)
       {
-         resultsDir.mkdirs();
+         loaded = worldCfgCodec.loadCSV(dbConns, worldDir, worldCfg);
       }
-
-
-      try
-      {
-         File worldFile = new File(resultsDir, "worldData.txt");
-         PrintWriter worldWriter = new PrintWriter(worldFile);
-         worldWriter.println("World, Time all detected (ms), Time all destroyed (ms), Time world known (ms)");
-         
-         for (WorldAndName worldAndName : results)
-         {
-            saveTargetData(resultsDir, worldAndName);
-            
-            
-            StringBuilder sb = new StringBuilder();
-            sb.append(worldAndName.worldName.getName());
-            sb.append(",");
-            sb.append(worldAndName.results.getTimeAllTargetsFound());
-            sb.append(",");
-            sb.append(worldAndName.results.getTimeAllTargetsDestroyed());
-            sb.append(",");
-            sb.append(worldAndName.results.getTimeAllWorldKnown());
-            worldWriter.println(sb.toString());
-            
-         }         
-         
-         worldWriter.close();
-      }
-      catch (Exception e)
+      else
       {
-         e.printStackTrace();
+         loaded = worldCfgCodec.loadCSV(worldDir, worldCfg);
       }
 
-      return false;
-   }
-
-   private static void saveTargetData(File resultsDir, WorldAndName results)
-   {
-      File tgtFile = new File(resultsDir, results.worldName.getName() + "TgtData.txt");
-
-      try
-      {
-         PrintWriter tgtWriter = new PrintWriter(tgtFile);
-         results.results.saveTargetResults(tgtWriter);
-         tgtWriter.close();
-      }
-      catch (FileNotFoundException e)
+      if (!loaded)
       {
-         // TODO Auto-generated catch block
-         e.printStackTrace();
+         logger.error("Failed to load world configuration data: {}", worldDir.getAbsolutePath());
+         success = false;
       }
+      return success;
    }
 
    public static void main(String[] args)
@@ -178,15 +178,21 @@ public class ThesisCLIApp
 
       boolean abort = false;
 
-      DBConnections dbConns = new DBConnections();
+      DBConnections dbConns = null;
       EntityTypeCfgs entityTypes = new EntityTypeCfgs();
 
       SimModelConfig simCfg = loadSimConfig(logger);
+      BatchConfig batchCfg = null;
 
       if (simCfg == null)
       {
          abort = true;
       }
+      else
+      {
+         batchCfg = loadBatchConfig(logger, simCfg);
+         abort = batchCfg == null;
+      }
 
       if (args.length < 1)
       {
@@ -194,8 +200,9 @@ public class ThesisCLIApp
          logger.error("No world directory path given.");
       }
 
-      if (!abort)
+      if (!abort && simCfg.isLoadThroughDB())
       {
+         dbConns = new DBConnections();
          abort = !(dbConns.openConfigDB() && dbConns.openWorldsDB());
       }
 
@@ -207,8 +214,9 @@ public class ThesisCLIApp
       if (!abort)
       {
          logger.debug("Sim model initialized with:\n{}", simCfg);
+         logger.debug("Batch initialized with:\n{}", batchCfg);
 
-         List<WorldAndName> worlds = loadWorlds(logger, dbConns, args[0]);
+         List<WorldAndName> worlds = loadWorlds(logger, dbConns, args[0], simCfg.isLoadBinaryWorld());
          worlds.sort(new Comparator<WorldAndName>()
          {
 
@@ -219,26 +227,17 @@ public class ThesisCLIApp
             }
          });
 
+         BatchRunner batch = new BatchRunner(entityTypes, new File("results"));
          for (WorldAndName worldAndName : worlds)
          {
-            StringBuilder sb = new StringBuilder();
-            sb.append("\n*****************************************************************\n");
-            sb.append("*****************************************************************\n");
-            sb.append("*****************************************************************\n");
-            sb.append("-----Start simulation of world {}");
-            logger.info(sb.toString(), worldAndName.worldName.getName());
-            ThesisCLI simRunner = new ThesisCLI();
-            simRunner.resetNewSim(simCfg, worldAndName.worldCfg, entityTypes);
-            worldAndName.results = simRunner.runSim();
+            batch.queueWorld(worldAndName.worldName.getName(), worldAndName.worldCfg, simCfg, batchCfg);
          }
 
-         StringBuilder sb = new StringBuilder();
-         sb.append("\n*****************************************************************\n");
-         sb.append("*****************************************************************\n");
-         sb.append("*****************************************************************\n");
-         sb.append("-----Saving sim data to log files");
-         logger.info(sb.toString());
-         saveResults(worlds);
+         if (!batch.execute(batchCfg.getNumThreads()))
+         {
+            logger.error("One or more simulations failed to complete.");
+         }
+         logger.info("-----Saved sim data to {}", new File("results").getAbsolutePath());
       }
 
       if (abort)
@@ -251,6 +250,5 @@ public class ThesisCLIApp
    {
       public File worldName;
       public WorldConfig worldCfg;
-      public StatResults results;
    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package thesis.cli;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+
+import thesis.core.EntityTypeCfgs;
+import thesis.core.serialization.world.WorldConfig;
+import thesis.core.utilities.SimModelConfig;
+
+public class BatchRunnerTests
+{
+   @Test
+   public void singleRunKeepsWorldName()
+   {
+      BatchConfig batchCfg = new BatchConfig();
+      batchCfg.getSeeds().add(42);
+      batchCfg.getCommsRngPercents().add(0.2);
+      batchCfg.getCommsRelayProbs().add(0.3);
+
+      BatchRunner testMe = new BatchRunner(new EntityTypeCfgs(), new File("results"));
+      testMe.queueWorld("world00", new WorldConfig(), new SimModelConfig(), batchCfg);
+
+      List<BatchRun> runs = testMe.getRuns();
+      assertEquals("Wrong number of runs.", 1, runs.size());
+      assertEquals("Wrong run name.", "world00", runs.get(0).getName());
+      assertEquals("Wrong world name.", "world00", runs.get(0).getWorldName());
+   }
+
+   @Test
+   public void expandsEveryCombination()
+   {
+      BatchConfig batchCfg = new BatchConfig();
+      batchCfg.getSeeds().add(1);
+      batchCfg.getSeeds().add(2);
+      batchCfg.getCommsRngPercents().add(0.02);
+      batchCfg.getCommsRngPercents().add(0.05);
+      batchCfg.getCommsRngPercents().add(0.2);
+      batchCfg.getCommsRelayProbs().add(0.3);
+
+      SimModelConfig baseCfg = new SimModelConfig();
+      baseCfg.setBeliefDecayRate(0.0005);
+
+      WorldConfig world0 = new WorldConfig();
+      WorldConfig world1 = new WorldConfig();
+      BatchRunner testMe = new BatchRunner(new EntityTypeCfgs(), new File("results"));
+      testMe.queueWorld("world00", world0, baseCfg, batchCfg);
+      testMe.queueWorld("world01", world1, baseCfg, batchCfg);
+
+      List<BatchRun> runs = testMe.getRuns();
+      assertEquals("Wrong number of runs.", 2 * batchCfg.getRunsPerWorld(), runs.size());
+
+      // Only the varied parameters decorate the names, seeds vary fastest
+      final String[] names = { "world00_comm2_seed1", "world00_comm2_seed2", "world00_comm5_seed1",
+            "world00_comm5_seed2", "world00_comm20_seed1", "world00_comm20_seed2", "world01_comm2_seed1",
+            "world01_comm2_seed2", "world01_comm5_seed1", "world01_comm5_seed2", "world01_comm20_seed1",
+            "world01_comm20_seed2" };
+      for (int i = 0; i < runs.size(); ++i)
+      {
+         BatchRun run = runs.get(i);
+         SimModelConfig runCfg = run.getSimConfig();
+         assertEquals("Wrong run name.", names[i], run.getName());
+         assertSame("Wrong world.", i < 6 ? world0 : world1, run.getWorldConfig());
+         assertEquals("Wrong seed.", i % 2 + 1, runCfg.getRandomSeed());
+         assertEquals("Wrong comms range.", batchCfg.getCommsRngPercents().get((i / 2) % 3),
+               runCfg.getCommsRngPercent(), 1e-9);
+         assertEquals("Wrong relay probability.", 0.3, runCfg.getCommsRelayProbability(), 1e-9);
+         assertEquals("Base parameter not copied.", 0.0005, runCfg.getBeliefDecayRate(), 1e-9);
+      }
+   }
+}
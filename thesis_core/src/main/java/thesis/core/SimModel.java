@@ -1,15 +1,15 @@
 package thesis.core;
 
-import java.util.Random;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import thesis.core.belief.WorldBelief;
 import thesis.core.belief.WorldBelief.WorldKnownStrategy;
 import thesis.core.common.HavenRouting;
-import thesis.core.common.SimTime;
+import thesis.core.common.RandomStreams;
+import thesis.core.common.SimClock;
 import thesis.core.common.SimTimeState;
+import thesis.core.sensors.SensorProbTables;
 import thesis.core.serialization.world.WorldConfig;
 import thesis.core.targets.TargetMgr;
 import thesis.core.uav.UAVMgr;
@@ -30,12 +30,28 @@ public class SimModel
    private EntityTypeCfgs entTypes;
 
    private StatResults results;
+
+   /**
+    * Tracks the elapsed simulation time of this model.
+    */
+   private SimClock clock;
    
    /**
-    * A shared random number generator that is initialized with a known seed
-    * value for reproducible experiments.
+    * The root of all random number streams within the simulation. Initialized
+    * with a known seed value for reproducible experiments.
+    */
+   private RandomStreams randStreams;
+
+   /**
+    * Angle dependent sensor probabilities shared by all UAVs.
+    */
+   private SensorProbTables snsrProbTables;
+
+   /**
+    * If true then sensor probabilities are computed exactly instead of being
+    * read from precomputed tables.
     */
-   private Random randGen;
+   private boolean exactSensorProbs;
 
    /**
     * Create an uninitialized world.
@@ -50,6 +66,7 @@ public class SimModel
       tgtMgr = new TargetMgr();
       uavMgr = new UAVMgr();
       world = new World();
+      clock = new SimClock();
       
       results = new StatResults(logger);
       
@@ -69,26 +86,32 @@ public class SimModel
    public void reset(int randomSeed, WorldConfig worldCfg, EntityTypeCfgs entTypes, double commsRngPercent,
          double commsRelayProb, double beliefDecayRate, double minWorldUncertClear)
    {
-      SimTime.resetSimulation();
+      clock.reset();
 
-      randGen = new Random(randomSeed);
+      randStreams = new RandomStreams(randomSeed);
+      // Split the branches in a fixed order so each is only dependent on the
+      // seed
+      RandomStreams tgtStreams = randStreams.split();
+      RandomStreams uavStreams = randStreams.split();
 
       this.entTypes = entTypes;
+      snsrProbTables = new SensorProbTables(entTypes.getSnsrProbs(), entTypes.getTgtTypeCfgs(), exactSensorProbs);
 
       logger.debug("EntityTypes initialized with:\n{}", entTypes);
       logger.debug("World model intiliazed with:\n{}", worldCfg);
 
       world.copy(worldCfg.getWorld());
 
-      HavenRouting havenRouting = new HavenRouting(world, randGen);
-      tgtMgr.reset(entTypes.getTgtTypeCfgs(), worldCfg.getTargetCfgs(), havenRouting, world.getWorldGIS());
+      HavenRouting havenRouting = new HavenRouting(world, worldCfg.getHavenRouteTrees());
+      tgtMgr.reset(entTypes.getTgtTypeCfgs(), worldCfg.getTargetCfgs(), havenRouting, world.getWorldGIS(),
+            clock, tgtStreams);
 
-      resetUAVs(worldCfg, commsRngPercent, commsRelayProb, beliefDecayRate, minWorldUncertClear);
+      resetUAVs(worldCfg, commsRngPercent, commsRelayProb, beliefDecayRate, minWorldUncertClear, uavStreams);
       
-      results.reset(world, tgtMgr, uavMgr);
+      results.reset(world, tgtMgr, uavMgr, clock);
    }
 
-   private void resetUAVs(WorldConfig worldCfg, double commsRngPercent, double commsRelayProb, double beliefDecayRate, double minWorldUncertClear)
+   private void resetUAVs(WorldConfig worldCfg, double commsRngPercent, double commsRelayProb, double beliefDecayRate, double minWorldUncertClear, RandomStreams uavStreams)
    {
       final double maxComsRng = world.getWorldGIS().getMaxWorldDistance() * commsRngPercent;
 
@@ -98,7 +121,7 @@ public class SimModel
       // FIXME Load/Derive the number of hops?
       commsCfg.setMaxRelayHops(5);
 
-      uavMgr.reset(entTypes, worldCfg.getUAVCfgs(), tgtMgr, randGen, commsCfg, worldCfg.getWorld().getWorldGIS(), beliefDecayRate, minWorldUncertClear);
+      uavMgr.reset(entTypes, worldCfg.getUAVCfgs(), tgtMgr, snsrProbTables, uavStreams, commsCfg, world.getWorldGIS(), beliefDecayRate, minWorldUncertClear, clock);
    }
 
    public World getWorld()
@@ -122,13 +145,13 @@ public class SimModel
    }
 
    /**
-    * Get the shared random number generator.
+    * Get the root of the simulation's random number streams.
     *
-    * @return The simulation's random number generator.
+    * @return The simulation's random number streams.
     */
-   public Random getRandomGenerator()
+   public RandomStreams getRandomStreams()
    {
-      return randGen;
+      return randStreams;
    }
 
    /**
@@ -142,7 +165,7 @@ public class SimModel
    public boolean stepSimulation()
    {
       logger.trace("-------------------Simulation stepping.-----------------");
-      SimTime.stepSimulation();
+      clock.stepSimulation();
       final long start = System.nanoTime() / 1000000;
 
       tgtMgr.stepSimulation();
@@ -154,14 +177,79 @@ public class SimModel
       if(simFinished)
       {
          logger.info("Simulation complete.");
+         uavMgr.logPathCacheStats();
       }
       
       final long end = System.nanoTime() / 1000000;
-      SimTime.incrementWallTime(end - start);
+      clock.incrementWallTime(end - start);
       
       return simFinished;
    }
 
+   /**
+    * Set the number of threads used to step the UAVs each frame. Results are
+    * identical regardless of the number of threads.
+    *
+    * @param numThreads
+    *           The number of threads, must be at least 1.
+    */
+   public void setUAVStepThreads(int numThreads)
+   {
+      uavMgr.setParallelism(numThreads);
+   }
+
+   /**
+    * Stop the threads used to step the UAVs. Call once the simulation is no
+    * longer needed. Later steps run on the calling thread.
+    */
+   public void shutdown()
+   {
+      uavMgr.shutdown();
+   }
+
+   /**
+    * Choose between precomputed and exactly computed sensor probabilities.
+    * Precomputed probabilities quantize the relative heading between sensors
+    * and targets to a tenth of a degree. Exact computation is intended for
+    * validation runs.
+    *
+    * @param exact
+    *           True to compute sensor probabilities exactly.
+    */
+   public void setExactSensorProbabilities(boolean exact)
+   {
+      exactSensorProbs = exact;
+      if (snsrProbTables != null)
+      {
+         snsrProbTables.setExact(exact);
+      }
+   }
+
+   /**
+    * Cache the flight paths generated by each UAV. Cached paths are reused for
+    * requests whose relative end pose rounds to the same meter and degree so
+    * trajectories may differ slightly from uncached runs.
+    *
+    * @param size
+    *           Maximum number of cached paths per UAV. Zero disables caching.
+    */
+   public void setPathCacheSize(int size)
+   {
+      uavMgr.setPathCacheSize(size);
+   }
+
+   /**
+    * Choose whether UAVs record their flight history trails. Trails are only
+    * rendered so headless runs may disable them.
+    *
+    * @param enabled
+    *           False to stop recording trails.
+    */
+   public void setFlightTrailsEnabled(boolean enabled)
+   {
+      uavMgr.setFlightTrailsEnabled(enabled);
+   }
+
    public EntityTypeCfgs getEntityTypeCfgs()
    {
       return entTypes;
@@ -169,7 +257,17 @@ public class SimModel
 
    public SimTimeState getSimTimeState()
    {
-      return SimTime.getTimeState();
+      return clock.getTimeState();
+   }
+
+   /**
+    * Get the clock tracking the elapsed time of this simulation.
+    *
+    * @return The simulation's clock.
+    */
+   public SimClock getSimClock()
+   {
+      return clock;
    }
    
    public StatResults getResults()
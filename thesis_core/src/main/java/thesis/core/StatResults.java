@@ -5,7 +5,7 @@ import java.io.PrintWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import thesis.core.common.SimTime;
+import thesis.core.common.SimClock;
 import thesis.core.targets.Target;
 import thesis.core.targets.TargetMgr;
 import thesis.core.uav.UAV;
@@ -27,6 +27,8 @@ public class StatResults
    private TargetMgr tgtMgr;
 
    private UAVMgr uavMgr;
+
+   private SimClock clock;
    
    private boolean allTgtsFound;
    private long timeAllTgtsFound;
@@ -45,7 +47,7 @@ public class StatResults
       this.logger = logger;
    }
 
-   public void reset(World world, TargetMgr tgtMgr, UAVMgr uavMgr)
+   public void reset(World world, TargetMgr tgtMgr, UAVMgr uavMgr, SimClock clock)
    {
       simFinished = false;
 
@@ -64,6 +66,7 @@ public class StatResults
       this.world = world;
       this.tgtMgr = tgtMgr;
       this.uavMgr = uavMgr;
+      this.clock = clock;
    }
 
    public void stepSimulation()
@@ -87,7 +90,7 @@ public class StatResults
          if (allDestroyed)
          {
             allTgtsDestroyed = true;
-            timeAllTgtsDestroyed = SimTime.getCurrentSimTimeMS();
+            timeAllTgtsDestroyed = clock.getCurrentSimTimeMS();
          }
       }
 
@@ -106,7 +109,7 @@ public class StatResults
          if(allOut)
          {
             outOfAmmo = true;
-            timeOutOfAmmo = SimTime.getCurrentSimTimeMS();
+            timeOutOfAmmo = clock.getCurrentSimTimeMS();
          }
       }
       
@@ -124,7 +127,7 @@ public class StatResults
          if (allTgtsDetected)
          {
             allTgtsFound = true;
-            timeAllTgtsFound = SimTime.getCurrentSimTimeMS();
+            timeAllTgtsFound = clock.getCurrentSimTimeMS();
          }
       }
 
@@ -158,11 +161,11 @@ public class StatResults
          if(allWorldKnownLocal)
          {
             allWorldKnown = true;
-            timeAllWorldKnown = SimTime.getCurrentSimTimeMS();
+            timeAllWorldKnown = clock.getCurrentSimTimeMS();
          }
       }
       
-      if(SimTime.getCurrentSimTimeMS() > MAX_SIM_TIME_MS)
+      if(clock.getCurrentSimTimeMS() > MAX_SIM_TIME_MS)
       {
          simFinished = true;
          logger.error("Exceeded allowable mission time.");
@@ -0,0 +1,718 @@
+package thesis.core.belief;
+
+import java.util.Arrays;
+
+import thesis.core.common.SimTime;
+
+/**
+ * Primitive backed storage for the cell beliefs of a world belief.
+ *
+ * Cells are stored in row major order in parallel arrays so that merging a
+ * belief is a sequential sweep over memory instead of a walk over one object
+ * per cell. Individual cells are accessed through {@link CellBelief} views.
+ *
+ * Decay is lazy. Stepping the grid only counts the number of decay steps that
+ * have elapsed. Each cell stores its probability as of the decay step in which
+ * it was last written and the decayed value is computed in closed form when
+ * the cell is read. Cells are only rewritten when they are updated or merged
+ * so an idle cell costs nothing per frame.
+ *
+ * The grid also tracks the total uncertainty of its cells and the number of
+ * cells whose uncertainty exceeds a threshold. Both are maintained when cells
+ * are written. Decay only ever increases the uncertainty of a cell so between
+ * writes the tracked values are lower bounds of the true values, exact in the
+ * decay step they were recounted in. The same values are also tracked as of a
+ * horizon decay step a fixed number of steps after the last recount, which
+ * bounds the true values from above until the horizon passes. They are only
+ * recomputed from every cell when the bounds straddle a query's threshold, at
+ * most once per decay step.
+ *
+ * Cells that are written are recorded as dirty so that a belief broadcast only
+ * needs to carry the cells that changed since the previous broadcast.
+ *
+ * Sums of uncertainty over rectangular regions are answered from a summed-area
+ * table. The table is rebuilt from every cell on the first query after the
+ * grid is written or decayed so all queries between writes share one pass.
+ *
+ * The most uncertain cell of a region is found through an
+ * {@link UncertaintyPyramid} that is updated whenever a cell is written.
+ */
+class BeliefGrid
+{
+   /**
+    * If the probability of the cell being empty is less than this value then
+    * the Shannon uncertainty will be assumed to be zero. Prevents NaNs.
+    */
+   private static final double SHANNON_ZERO_THRESHOLD = 0.000001;
+
+   /**
+    * Tolerance used when comparing the running uncertainty sum against a
+    * threshold.
+    */
+   private static final double TRACKING_TOLERANCE = 0.000000001;
+
+   /**
+    * Number of decay steps between a recount of the tracked uncertainty and
+    * the horizon step whose values bound it from above.
+    */
+   private static final long HORIZON_STEPS = 60;
+
+   private final int numRows;
+   private final int numCols;
+
+   /**
+    * Probability of each cell being empty as of the decay step stored in
+    * {@link #decayAnchor}.
+    */
+   private final double[] probCellEmpty;
+
+   /**
+    * The value of {@link #numDecaySteps} when each cell was last written.
+    */
+   private final long[] decayAnchor;
+
+   /**
+    * This is the time of the probability update if the data was updated by
+    * direct sensor readings or it is a time approximated from merging belief
+    * data to maintain synchronicity when propagating beliefs through more than
+    * 2 agents.
+    */
+   private final long[] pseudoTimestamp;
+
+   /**
+    * Rate in % / second in which certainty decays.
+    */
+   private final double beliefDecayRatePerFrame;
+
+   /**
+    * Number of decay steps the grid has been stepped through.
+    */
+   private long numDecaySteps;
+
+   /**
+    * Cells with an uncertainty above this value are counted as uncertain.
+    */
+   private final double uncertThresh;
+
+   /**
+    * Lower bound of the sum of the uncertainty of every cell.
+    */
+   private double uncertSum;
+
+   /**
+    * True if the cell was above the uncertainty threshold when it was last
+    * written or counted.
+    */
+   private final boolean[] overThresh;
+
+   /**
+    * Number of true values in {@link #overThresh}. A lower bound of the number
+    * of cells above the uncertainty threshold.
+    */
+   private int numOverThresh;
+
+   /**
+    * The decay step in which {@link #uncertSum} and {@link #numOverThresh} are
+    * exact or -1 if they are only lower bounds.
+    */
+   private long exactStep;
+
+   /**
+    * The decay step the horizon values are computed for.
+    */
+   private long horizonStep;
+
+   /**
+    * Sum of the uncertainty every cell will have at {@link #horizonStep} if it
+    * is not written again. An upper bound of the sum until the horizon.
+    */
+   private double horizonSum;
+
+   /**
+    * Number of cells that will be above the uncertainty threshold at
+    * {@link #horizonStep} if they are not written again. An upper bound of the
+    * number of cells above the threshold until the horizon.
+    */
+   private int horizonOverThresh;
+
+   /**
+    * True if the cell has been written since the dirty cells were last
+    * cleared.
+    */
+   private final boolean[] dirty;
+
+   /**
+    * Indices of the dirty cells in the order they were first written.
+    */
+   private final int[] dirtyCells;
+
+   private int numDirtyCells;
+
+   /**
+    * Summed-area table of cell uncertainty. Entry [r][c] of the
+    * (numRows+1)x(numCols+1) table holds the sum of the uncertainty of every
+    * cell in rows [0,r) and columns [0,c).
+    */
+   private final double[] uncertSAT;
+
+   /**
+    * True if cells have been written or decayed since {@link #uncertSAT} was
+    * built.
+    */
+   private boolean uncertSATStale;
+
+   private final UncertaintyPyramid pyramid;
+
+   /**
+    * @param numRows
+    *           Number of rows of cells.
+    * @param numCols
+    *           Number of columns of cells.
+    * @param beliefDecayRateS
+    *           Rate in % / second in which certainty decays.
+    * @param uncertThresh
+    *           Cells with an uncertainty above this value are counted by
+    *           {@link #isAnyCellUncertain()}.
+    */
+   public BeliefGrid(int numRows, int numCols, double beliefDecayRateS, double uncertThresh)
+   {
+      this.uncertThresh = uncertThresh;
+      this.numRows = numRows;
+      this.numCols = numCols;
+      this.beliefDecayRatePerFrame = (beliefDecayRateS / 1000) * SimTime.SIM_STEP_RATE_MS;
+
+      probCellEmpty = new double[numRows * numCols];
+      pseudoTimestamp = new long[numRows * numCols];
+      decayAnchor = new long[numRows * numCols];
+      overThresh = new boolean[numRows * numCols];
+      dirty = new boolean[numRows * numCols];
+      dirtyCells = new int[numRows * numCols];
+      uncertSAT = new double[(numRows + 1) * (numCols + 1)];
+      pyramid = new UncertaintyPyramid(numRows, numCols);
+
+      reset();
+   }
+
+   public void reset()
+   {
+      Arrays.fill(probCellEmpty, 0.5);
+      Arrays.fill(pseudoTimestamp, 0);
+      Arrays.fill(decayAnchor, 0);
+      numDecaySteps = 0;
+      recountUncertainty();
+      clearDirtyCells();
+      uncertSATStale = true;
+
+      for (int i = 0; i < probCellEmpty.length; ++i)
+      {
+         pyramid.setCell(i, decayKey(i), decayFloor(i));
+      }
+      pyramid.rebuild();
+   }
+
+   public void reset(int index)
+   {
+      trackWrite(index, 0.5);
+      probCellEmpty[index] = 0.5;
+      pseudoTimestamp[index] = 0;
+      decayAnchor[index] = numDecaySteps;
+      updatePyramid(index);
+   }
+
+   public int getNumRows()
+   {
+      return numRows;
+   }
+
+   public int getNumCols()
+   {
+      return numCols;
+   }
+
+   public int getNumCells()
+   {
+      return probCellEmpty.length;
+   }
+
+   public int indexOf(int row, int col)
+   {
+      return row * numCols + col;
+   }
+
+   /**
+    * Decay every cell towards complete uncertainty by one frame. Cells are not
+    * touched, the decay is applied when they are next read.
+    */
+   public void stepSimulation()
+   {
+      ++numDecaySteps;
+      uncertSATStale = true;
+   }
+
+   /**
+    * Decay a single cell towards complete uncertainty by one frame.
+    *
+    * @param index
+    *           The index of the cell.
+    */
+   public void stepSimulation(int index)
+   {
+      // Rewrite the cell as of now and then move its anchor back by one step
+      // so that reads see one more step of decay than the rest of the grid.
+      final double oldHorizonUncert = getHorizonUncertainty(index);
+      probCellEmpty[index] = getProbabilityEmptyCell(index);
+      decayAnchor[index] = numDecaySteps - 1;
+      trackHorizon(oldHorizonUncert, getHorizonUncertainty(index));
+
+      // The extra decay raises the cell above the tracked lower bounds
+      exactStep = -1;
+      uncertSATStale = true;
+      updatePyramid(index);
+   }
+
+   /**
+    * Compute the probability of a cell being empty after decaying it towards
+    * complete uncertainty for a number of frames. Equivalent to moving the
+    * probability towards 0.5 by the per frame decay rate once per frame until
+    * it is within one frame's worth of decay from 0.5.
+    *
+    * @param prob
+    *           The probability of the cell being empty before decaying.
+    * @param numSteps
+    *           The number of frames to decay.
+    * @return The decayed probability.
+    */
+   private double decay(double prob, long numSteps)
+   {
+      final double dist = Math.abs(0.5d - prob);
+
+      // The distance check prevents screen flickers of probCellEmpty when
+      // rendered due to probCellEmpty oscillating around 0.5
+      if (numSteps <= 0 || beliefDecayRatePerFrame <= 0 || dist <= beliefDecayRatePerFrame)
+      {
+         return prob;
+      }
+
+      // A step is only applied while the cell is more than one step away
+      // from 0.5.
+      final double maxSteps = Math.ceil(dist / beliefDecayRatePerFrame - 1d);
+      final double delta = Math.min(numSteps, maxSteps) * beliefDecayRatePerFrame;
+
+      if (prob < 0.5d)
+      {
+         return prob + delta;
+      }
+      else
+      {
+         return prob - delta;
+      }
+   }
+
+   public double getProbabilityEmptyCell(int index)
+   {
+      return decay(probCellEmpty[index], numDecaySteps - decayAnchor[index]);
+   }
+
+   public long getPseudoTimestamp(int index)
+   {
+      return pseudoTimestamp[index];
+   }
+
+   /**
+    * @param index
+    *           The index of the cell.
+    * @return The Shannon uncertainty value of the existance of a target.
+    */
+   public double getUncertainty(int index)
+   {
+      return computeUncertainty(getProbabilityEmptyCell(index));
+   }
+
+   public void updateEmptyBelief(int index, long simTime, double probEmpty)
+   {
+      trackWrite(index, probEmpty);
+      pseudoTimestamp[index] = simTime;
+      probCellEmpty[index] = probEmpty;
+      decayAnchor[index] = numDecaySteps;
+      updatePyramid(index);
+   }
+
+   /**
+    * Merge every cell of another grid of the same dimensions into this grid.
+    *
+    * @param other
+    *           The grid to merge.
+    */
+   public void mergeBelief(BeliefGrid other)
+   {
+      for (int i = 0; i < probCellEmpty.length; ++i)
+      {
+         mergeBelief(i, other, i);
+      }
+   }
+
+   /**
+    * Merge a single cell of another grid into a cell of this grid.
+    *
+    * @param index
+    *           The index of the cell in this grid.
+    * @param other
+    *           The grid containing the cell to merge.
+    * @param otherIndex
+    *           The index of the cell in the other grid.
+    */
+   public void mergeBelief(int index, BeliefGrid other, int otherIndex)
+   {
+      if (other.pseudoTimestamp[otherIndex] > pseudoTimestamp[index])
+      {
+         mergeBelief(index, other.getProbabilityEmptyCell(otherIndex), other.pseudoTimestamp[otherIndex]);
+      }
+   }
+
+   /**
+    * Merge the belief of a cell received from another agent into a cell of
+    * this grid.
+    *
+    * @param index
+    *           The index of the cell in this grid.
+    * @param otherProbEmpty
+    *           The other agent's probability that the cell is empty.
+    * @param otherTimestamp
+    *           The pseudo timestamp of the other agent's belief.
+    */
+   public void mergeBelief(int index, double otherProbEmpty, long otherTimestamp)
+   {
+      if (otherTimestamp > pseudoTimestamp[index])
+      {
+         final double alpha = CellBelief.NEWER_TGT_ALPHA;
+         final double INVERSE_NEWER_ALPHA = 1d - alpha;
+
+         // TODO How/Could/Should merging handle expertise in sensing
+         // different target types? Currently if a weak sensor scans 'now' it
+         // will trump a strong sensor that scanned a second ago.
+
+         // If the other belief has newer data then merge it in with an alpha
+         // filter.
+         final double merged = (alpha * otherProbEmpty)
+               + (INVERSE_NEWER_ALPHA * getProbabilityEmptyCell(index));
+         trackWrite(index, merged);
+         probCellEmpty[index] = merged;
+         decayAnchor[index] = numDecaySteps;
+         updatePyramid(index);
+
+         // Move this belief's timestamp forward towards the other belief's
+         // time. This is an artifact of the merging process and why time is
+         // called 'pseudoTime' instead of just 'time.' The time must be
+         // adjusted so that transitively merging this data with a 3rd belief
+         // doesn't cause oscillations in the probabilities due to the order
+         // of merging.
+         pseudoTimestamp[index] = otherTimestamp;
+      }
+      // else: My data is newer so ignore the other belief's data
+   }
+
+   /**
+    * @return True if the uncertainty of at least one cell is above the
+    *         threshold given at construction.
+    */
+   public boolean isAnyCellUncertain()
+   {
+      // Decay may have pushed cells over the threshold since they were last
+      // written. Only recount if the bounds cannot rule that in or out.
+      if (numOverThresh == 0 && exactStep != numDecaySteps
+            && (numDecaySteps > horizonStep || horizonOverThresh > 0))
+      {
+         recountUncertainty();
+      }
+      return numOverThresh > 0;
+   }
+
+   /**
+    * @param thresh
+    *           The average uncertainty threshold.
+    * @return True if the average uncertainty of all cells is above the given
+    *         threshold.
+    */
+   public boolean isAverageUncertaintyAbove(double thresh)
+   {
+      final double numCells = probCellEmpty.length * 1.0;
+
+      // The small tolerance guards against the running sum drifting above
+      // the true sum through round off.
+      if (uncertSum / numCells > thresh + TRACKING_TOLERANCE)
+      {
+         return true;
+      }
+
+      if (exactStep != numDecaySteps)
+      {
+         if (numDecaySteps <= horizonStep && horizonSum / numCells < thresh - TRACKING_TOLERANCE)
+         {
+            return false;
+         }
+         recountUncertainty();
+      }
+      return uncertSum / numCells > thresh;
+   }
+
+   /**
+    * Update the tracked uncertainty and mark a cell dirty before it is
+    * written.
+    *
+    * @param index
+    *           The index of the cell.
+    * @param newProbEmpty
+    *           The probability about to be stored in the cell.
+    */
+   private void trackWrite(int index, double newProbEmpty)
+   {
+      final double newUncert = computeUncertainty(newProbEmpty);
+
+      // The current decayed uncertainty is at least as large as the value
+      // that was added to the sum for this cell so subtracting it keeps the
+      // sum a lower bound.
+      uncertSum += newUncert - getUncertainty(index);
+
+      if (overThresh[index])
+      {
+         --numOverThresh;
+      }
+      overThresh[index] = newUncert > uncertThresh;
+      if (overThresh[index])
+      {
+         ++numOverThresh;
+      }
+
+      // The cell is written as of the current decay step
+      trackHorizon(getHorizonUncertainty(index),
+            computeUncertainty(decay(newProbEmpty, horizonStep - numDecaySteps)));
+
+      if (!dirty[index])
+      {
+         dirty[index] = true;
+         dirtyCells[numDirtyCells++] = index;
+      }
+
+      uncertSATStale = true;
+   }
+
+   /**
+    * @return The number of cells written since the dirty cells were last
+    *         cleared.
+    */
+   public int getNumDirtyCells()
+   {
+      return numDirtyCells;
+   }
+
+   /**
+    * @param i
+    *           Position in the list of dirty cells.
+    * @return The index of the dirty cell.
+    */
+   public int getDirtyCell(int i)
+   {
+      return dirtyCells[i];
+   }
+
+   public void clearDirtyCells()
+   {
+      for (int i = 0; i < numDirtyCells; ++i)
+      {
+         dirty[dirtyCells[i]] = false;
+      }
+      numDirtyCells = 0;
+   }
+
+   /**
+    * @return The uncertainty a cell will have at the horizon step if it is not
+    *         written again.
+    */
+   private double getHorizonUncertainty(int index)
+   {
+      return computeUncertainty(decay(probCellEmpty[index], horizonStep - decayAnchor[index]));
+   }
+
+   /**
+    * Replace the horizon uncertainty of a cell in the horizon values.
+    */
+   private void trackHorizon(double oldHorizonUncert, double newHorizonUncert)
+   {
+      horizonSum += newHorizonUncert - oldHorizonUncert;
+      if (oldHorizonUncert > uncertThresh)
+      {
+         --horizonOverThresh;
+      }
+      if (newHorizonUncert > uncertThresh)
+      {
+         ++horizonOverThresh;
+      }
+   }
+
+   /**
+    * Recompute the tracked uncertainty values from every cell and move the
+    * horizon forward.
+    */
+   private void recountUncertainty()
+   {
+      uncertSum = 0;
+      numOverThresh = 0;
+      horizonStep = numDecaySteps + HORIZON_STEPS;
+      horizonSum = 0;
+      horizonOverThresh = 0;
+      for (int i = 0; i < probCellEmpty.length; ++i)
+      {
+         final double uncert = getUncertainty(i);
+         uncertSum += uncert;
+         overThresh[i] = uncert > uncertThresh;
+         if (overThresh[i])
+         {
+            ++numOverThresh;
+         }
+
+         final double horizonUncert = getHorizonUncertainty(i);
+         horizonSum += horizonUncert;
+         if (horizonUncert > uncertThresh)
+         {
+            ++horizonOverThresh;
+         }
+      }
+      exactStep = numDecaySteps;
+   }
+
+   /**
+    * Find the most uncertain cell within a rectangular region. Ties are
+    * resolved in favor of the cell with the lowest index.
+    *
+    * @param firstRow
+    *           The first row of the region.
+    * @param firstCol
+    *           The first column of the region.
+    * @param endRow
+    *           One past the last row of the region.
+    * @param endCol
+    *           One past the last column of the region.
+    * @return The index of the most uncertain cell.
+    */
+   public int findMostUncertainCell(int firstRow, int firstCol, int endRow, int endCol)
+   {
+      return pyramid.findMostUncertain(this, decayDistance(numDecaySteps), firstRow, firstCol, endRow, endCol);
+   }
+
+   /**
+    * @return The distance towards 0.5 a cell moves over the given number of
+    *         decay steps ignoring the limit at 0.5.
+    */
+   private double decayDistance(long numSteps)
+   {
+      return beliefDecayRatePerFrame > 0 ? numSteps * beliefDecayRatePerFrame : 0;
+   }
+
+   /**
+    * @return The distance of a cell's stored probability from 0.5 plus the
+    *         decay applied to the rest of the grid when it was stored. The
+    *         difference between the key and {@link #decayDistance(long)} of
+    *         the current step is the current distance from 0.5 until the cell
+    *         reaches {@link #decayFloor(int)}.
+    */
+   private double decayKey(int index)
+   {
+      return Math.abs(0.5d - probCellEmpty[index]) + decayDistance(decayAnchor[index]);
+   }
+
+   /**
+    * @return The distance from 0.5 at which a cell stops decaying, see
+    *         {@link #decay(double, long)}.
+    */
+   private double decayFloor(int index)
+   {
+      final double dist = Math.abs(0.5d - probCellEmpty[index]);
+      if (beliefDecayRatePerFrame <= 0 || dist <= beliefDecayRatePerFrame)
+      {
+         return dist;
+      }
+      return dist - Math.ceil(dist / beliefDecayRatePerFrame - 1d) * beliefDecayRatePerFrame;
+   }
+
+   private void updatePyramid(int index)
+   {
+      pyramid.updateCell(index, decayKey(index), decayFloor(index));
+   }
+
+   /**
+    * Sum the uncertainty of every cell within a rectangular region.
+    *
+    * @param firstRow
+    *           The first row of the region.
+    * @param firstCol
+    *           The first column of the region.
+    * @param endRow
+    *           One past the last row of the region.
+    * @param endCol
+    *           One past the last column of the region.
+    * @return The total uncertainty of the region.
+    */
+   public double getUncertaintySum(int firstRow, int firstCol, int endRow, int endCol)
+   {
+      if (uncertSATStale)
+      {
+         buildUncertaintySAT();
+      }
+
+      final int stride = numCols + 1;
+      return uncertSAT[endRow * stride + endCol] - uncertSAT[firstRow * stride + endCol]
+            - uncertSAT[endRow * stride + firstCol] + uncertSAT[firstRow * stride + firstCol];
+   }
+
+   /**
+    * Rebuild the summed-area table of uncertainty. The uncertainty of every
+    * cell is computed along the way so the tracked uncertainty values are
+    * refreshed as well.
+    */
+   private void buildUncertaintySAT()
+   {
+      final int stride = numCols + 1;
+
+      uncertSum = 0;
+      numOverThresh = 0;
+      for (int row = 0; row < numRows; ++row)
+      {
+         double rowSum = 0;
+         for (int col = 0; col < numCols; ++col)
+         {
+            final int index = row * numCols + col;
+            final double uncert = getUncertainty(index);
+            overThresh[index] = uncert > uncertThresh;
+            if (overThresh[index])
+            {
+               ++numOverThresh;
+            }
+            uncertSum += uncert;
+
+            rowSum += uncert;
+            uncertSAT[(row + 1) * stride + col + 1] = uncertSAT[row * stride + col + 1] + rowSum;
+         }
+      }
+
+      uncertSATStale = false;
+   }
+
+   /**
+    * Compute the Shannon uncertainty of a cell.
+    *
+    * @param probEmpty
+    *           The probability that the cell is empty.
+    * @return The uncertainty scaled to the range [0,1].
+    */
+   public static double computeUncertainty(double probEmpty)
+   {
+      double shannonUncert = 0;
+      if (probEmpty > SHANNON_ZERO_THRESHOLD)
+      {
+         shannonUncert = (-probEmpty * Math.log10(probEmpty)) - ((1 - probEmpty) * Math.log10(1 - probEmpty));
+         //0.301 ~= to max uncertainty when p(empty) = 50%.  Scales return values to [0,1] instead of [0,0.301].
+         shannonUncert /= 0.301;
+      }
+      return shannonUncert;
+   }
+}
@@ -0,0 +1,293 @@
+package thesis.core.belief;
+
+/**
+ * A multi-resolution pyramid over a belief grid used to find the most
+ * uncertain cell within a region without reading every cell.
+ *
+ * The uncertainty of a cell only depends on the distance of its probability
+ * from 0.5. Every cell decays towards 0.5 at the same rate so the distance of
+ * a cell at decay step t is max(key - rate * t, floor) where the key and floor
+ * only change when the cell is written. Each level of the pyramid halves the
+ * resolution of the level below it and each node stores the minimum key and
+ * minimum floor of the cells beneath it, giving a lower bound of the distance
+ * (an upper bound of the uncertainty) of every cell in the node at any time.
+ * Queries descend the pyramid and skip nodes whose bound cannot beat the best
+ * cell found so far.
+ */
+class UncertaintyPyramid
+{
+   /**
+    * Added to node bounds to absorb round off between the bound and the
+    * uncertainty computed from a cell.
+    */
+   private static final double BOUND_TOLERANCE = 0.000000000001;
+
+   /**
+    * The highest probability whose uncertainty is computed without special
+    * cases. Bounds of nodes beyond this probability use it instead.
+    */
+   private static final double MAX_BOUND_PROB = 0.999999;
+
+   /**
+    * The uncertainty of a cell whose probability is 0.5. No cell can be more
+    * uncertain.
+    */
+   private static final double MAX_UNCERT = BeliefGrid.computeUncertainty(0.5);
+
+   private final int numRows;
+   private final int numCols;
+   private final int numLevels;
+   private final int[] levelRows;
+   private final int[] levelCols;
+
+   /**
+    * Minimum key of each node by level then row major node index. Level zero
+    * holds the cells.
+    */
+   private final double[][] minKey;
+
+   /**
+    * Minimum floor of each node by level then row major node index.
+    */
+   private final double[][] minFloor;
+
+   /**
+    * State of the query in progress.
+    */
+   private BeliefGrid queryGrid;
+   private double queryDecay;
+   private int queryFirstRow;
+   private int queryFirstCol;
+   private int queryEndRow;
+   private int queryEndCol;
+   private double bestUncert;
+   private int bestIndex;
+
+   /**
+    * @param numRows
+    *           Number of rows of cells.
+    * @param numCols
+    *           Number of columns of cells.
+    */
+   public UncertaintyPyramid(int numRows, int numCols)
+   {
+      this.numRows = numRows;
+      this.numCols = numCols;
+
+      int levels = 1;
+      int rows = numRows;
+      int cols = numCols;
+      while (rows > 1 || cols > 1)
+      {
+         rows = (rows + 1) / 2;
+         cols = (cols + 1) / 2;
+         ++levels;
+      }
+      numLevels = levels;
+
+      levelRows = new int[numLevels];
+      levelCols = new int[numLevels];
+      minKey = new double[numLevels][];
+      minFloor = new double[numLevels][];
+
+      rows = numRows;
+      cols = numCols;
+      for (int level = 0; level < numLevels; ++level)
+      {
+         levelRows[level] = rows;
+         levelCols[level] = cols;
+         minKey[level] = new double[rows * cols];
+         minFloor[level] = new double[rows * cols];
+         rows = (rows + 1) / 2;
+         cols = (cols + 1) / 2;
+      }
+   }
+
+   /**
+    * Set the decay state of a cell without updating the levels above it. Call
+    * {@link #rebuild()} after setting every cell.
+    *
+    * @param index
+    *           Row major index of the cell.
+    * @param key
+    *           Distance of the cell from 0.5 plus the decay applied to the
+    *           rest of the grid when the cell was written.
+    * @param floor
+    *           The distance from 0.5 at which the cell stops decaying.
+    */
+   public void setCell(int index, double key, double floor)
+   {
+      minKey[0][index] = key;
+      minFloor[0][index] = floor;
+   }
+
+   /**
+    * Recompute every level above the cells.
+    */
+   public void rebuild()
+   {
+      for (int level = 1; level < numLevels; ++level)
+      {
+         for (int row = 0; row < levelRows[level]; ++row)
+         {
+            for (int col = 0; col < levelCols[level]; ++col)
+            {
+               updateNode(level, row, col);
+            }
+         }
+      }
+   }
+
+   /**
+    * Set the decay state of a cell and update the levels above it.
+    *
+    * @param index
+    *           Row major index of the cell.
+    * @param key
+    *           See {@link #setCell(int, double, double)}.
+    * @param floor
+    *           See {@link #setCell(int, double, double)}.
+    */
+   public void updateCell(int index, double key, double floor)
+   {
+      setCell(index, key, floor);
+
+      int row = index / numCols;
+      int col = index % numCols;
+      for (int level = 1; level < numLevels; ++level)
+      {
+         row /= 2;
+         col /= 2;
+         // Nothing above changes once a node keeps its minimums
+         if (!updateNode(level, row, col))
+         {
+            break;
+         }
+      }
+   }
+
+   /**
+    * Recompute a node from its children.
+    *
+    * @return True if the node changed.
+    */
+   private boolean updateNode(int level, int row, int col)
+   {
+      final int childLevel = level - 1;
+      final int childCols = levelCols[childLevel];
+      final int firstChildRow = row * 2;
+      final int firstChildCol = col * 2;
+      final int endChildRow = Math.min(firstChildRow + 2, levelRows[childLevel]);
+      final int endChildCol = Math.min(firstChildCol + 2, childCols);
+
+      double key = Double.POSITIVE_INFINITY;
+      double floor = Double.POSITIVE_INFINITY;
+      for (int childRow = firstChildRow; childRow < endChildRow; ++childRow)
+      {
+         for (int childCol = firstChildCol; childCol < endChildCol; ++childCol)
+         {
+            final int child = childRow * childCols + childCol;
+            key = Math.min(key, minKey[childLevel][child]);
+            floor = Math.min(floor, minFloor[childLevel][child]);
+         }
+      }
+
+      final int node = row * levelCols[level] + col;
+      final boolean changed = key != minKey[level][node] || floor != minFloor[level][node];
+      minKey[level][node] = key;
+      minFloor[level][node] = floor;
+      return changed;
+   }
+
+   /**
+    * Find the most uncertain cell within a region. Ties are resolved in favor
+    * of the cell with the lowest row major index.
+    *
+    * @param grid
+    *           The grid the pyramid describes. Used to read the exact
+    *           uncertainty of candidate cells.
+    * @param decay
+    *           The decay applied to the grid since it was created, the decay
+    *           rate per step times the number of steps.
+    * @param firstRow
+    *           The first row of the region.
+    * @param firstCol
+    *           The first column of the region.
+    * @param endRow
+    *           One past the last row of the region.
+    * @param endCol
+    *           One past the last column of the region.
+    * @return The row major index of the most uncertain cell.
+    */
+   public int findMostUncertain(BeliefGrid grid, double decay, int firstRow, int firstCol, int endRow, int endCol)
+   {
+      queryGrid = grid;
+      queryDecay = decay;
+      queryFirstRow = firstRow;
+      queryFirstCol = firstCol;
+      queryEndRow = endRow;
+      queryEndCol = endCol;
+
+      // Seed the search with the first cell of the region. A cell whose
+      // uncertainty is undefined is never replaced by a linear scan so it is
+      // never replaced here either. Nothing can replace a maximally uncertain
+      // first cell, which is the state of every cell at startup.
+      bestIndex = firstRow * numCols + firstCol;
+      bestUncert = grid.getUncertainty(bestIndex);
+      if (!Double.isNaN(bestUncert) && bestUncert < MAX_UNCERT)
+      {
+         search(numLevels - 1, 0, 0);
+      }
+
+      queryGrid = null;
+      return bestIndex;
+   }
+
+   private void search(int level, int row, int col)
+   {
+      // Clip the cells beneath the node to the query region
+      final int firstRow = Math.max(row << level, queryFirstRow);
+      final int firstCol = Math.max(col << level, queryFirstCol);
+      final int endRow = Math.min((row + 1) << level, queryEndRow);
+      final int endCol = Math.min((col + 1) << level, queryEndCol);
+      if (firstRow >= endRow || firstCol >= endCol)
+      {
+         return;
+      }
+
+      if (level == 0)
+      {
+         final int index = row * numCols + col;
+         final double uncert = queryGrid.getUncertainty(index);
+         if (uncert > bestUncert || (uncert == bestUncert && index < bestIndex))
+         {
+            bestUncert = uncert;
+            bestIndex = index;
+         }
+         return;
+      }
+
+      // The clipped first cell has the lowest index beneath the node. If it is
+      // not below the best index then its cells can only win by being strictly
+      // more uncertain so ties with the bound are pruned as well.
+      final int node = row * levelCols[level] + col;
+      final double minDist = Math.max(minKey[level][node] - queryDecay, minFloor[level][node]);
+      final double maxUncert = BeliefGrid.computeUncertainty(Math.min(0.5 + minDist, MAX_BOUND_PROB));
+      if (maxUncert + BOUND_TOLERANCE < bestUncert
+            || (maxUncert <= bestUncert && firstRow * numCols + firstCol >= bestIndex))
+      {
+         return;
+      }
+
+      final int childLevel = level - 1;
+      final int endChildRow = Math.min(row * 2 + 2, levelRows[childLevel]);
+      final int endChildCol = Math.min(col * 2 + 2, levelCols[childLevel]);
+      for (int childRow = row * 2; childRow < endChildRow; ++childRow)
+      {
+         for (int childCol = col * 2; childCol < endChildCol; ++childCol)
+         {
+            search(childLevel, childRow, childCol);
+         }
+      }
+   }
+}
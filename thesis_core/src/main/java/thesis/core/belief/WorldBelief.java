@@ -1,12 +1,12 @@
 package thesis.core.belief;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 
 import thesis.core.common.CellCoordinate;
+import thesis.core.common.SimClock;
 import thesis.core.common.SimTime;
 import thesis.core.uav.comms.IMsgTransmitter;
 import thesis.core.uav.comms.Message;
@@ -19,6 +19,12 @@ public class WorldBelief
     */
    private static double BELIEF_BROADCAST_RATE_MS = 1000;// Broadcast at 1hz
 
+   /**
+    * Every Nth belief broadcast contains every cell instead of only the cells
+    * that changed since the previous broadcast.
+    */
+   private static int BELIEF_KEYFRAME_INTERVAL = 10;
+
    /**
     * Coefficient to use in the alpha filter for merging target probability data
     * between two world beliefs.
@@ -34,9 +40,26 @@ public class WorldBelief
 
    private double lastBeliefBroadcastTimeAccumulator;
 
-   private CellBelief cells[][];
+   /**
+    * Number of delta broadcasts remaining until the next keyframe broadcast.
+    */
+   private int broadcastsUntilKeyframe;
+
+   private BeliefGrid cells;
+
+   /**
+    * Target beliefs indexed by the true ID of the target. Null entries are
+    * targets that have not been detected.
+    */
+   private TargetBelief[] tgtBeliefs;
 
-   private List<TargetBelief> tgtBeliefs;
+   private int numTgtBeliefs;
+
+   /**
+    * Detected target beliefs sorted by target ID. Rebuilt on demand after the
+    * set of detected targets changes, null when out of date.
+    */
+   private List<TargetBelief> sortedTgtBeliefs;
 
    private int numTgtTypes;
 
@@ -44,46 +67,35 @@ public class WorldBelief
    private long firstWorldClearTime;
    private boolean thinksWorldClear;
 
+   private SimClock clock;
+
    public WorldBelief(int numRows, int numCols, int numTgtTypes, double beliefDecayRate,
-         double believeWorldUncertThresh)
+         double believeWorldUncertThresh, SimClock clock)
    {
+      this.clock = clock;
       this.numTgtTypes = numTgtTypes;
       this.minKnownWorldUncert = believeWorldUncertThresh;
 
-      tgtBeliefs = new ArrayList<TargetBelief>();
+      tgtBeliefs = new TargetBelief[0];
+      numTgtBeliefs = 0;
+      sortedTgtBeliefs = null;
 
-      cells = new CellBelief[numRows][numCols];
-      for (int i = 0; i < numRows; ++i)
-      {
-         for (int j = 0; j < numCols; ++j)
-         {
-            cells[i][j] = new CellBelief(i, j, numTgtTypes, beliefDecayRate);
-         }
-      }
+      cells = new BeliefGrid(numRows, numCols, beliefDecayRate, believeWorldUncertThresh);
 
       thinksWorldClear = false;
       firstWorldClearTime = -1;
+      broadcastsUntilKeyframe = 0;
    }
 
    public void stepSimulation(IMsgTransmitter comms)
    {
-      final int numRows = cells.length;
-      final int numCols = cells[0].length;
-
-      for (int i = 0; i < numRows; ++i)
-      {
-         for (int j = 0; j < numCols; ++j)
-         {
-            cells[i][j].stepSimulation();
-         }
-      }
+      cells.stepSimulation();
 
       lastBeliefBroadcastTimeAccumulator += SimTime.SIM_STEP_RATE_MS;
       if (lastBeliefBroadcastTimeAccumulator > BELIEF_BROADCAST_RATE_MS)
       {
          lastBeliefBroadcastTimeAccumulator = 0;
-         WorldBeliefMsg msg = new WorldBeliefMsg(this);
-         comms.transmit(msg, Message.BROADCAST_ID);
+         comms.transmit(createBroadcastMsg(), Message.BROADCAST_ID);
       }
 
       believesAllWorldKnown();
@@ -91,18 +103,66 @@ public class WorldBelief
 
    public void mergeBelief(final WorldBelief other)
    {
-      final int numRows = cells.length;
-      final int numCols = cells[0].length;
+      cells.mergeBelief(other.cells);
 
-      for (int i = 0; i < numRows; ++i)
+      mergeTargetBeliefs(Arrays.asList(other.tgtBeliefs));
+   }
+
+   /**
+    * Merge the cells and targets contained in a belief broadcast into this
+    * belief. Only the cells carried by the message are visited.
+    *
+    * @param msg
+    *           The received broadcast.
+    */
+   public void mergeBelief(final WorldBeliefMsg msg)
+   {
+      final int numCells = msg.getNumCells();
+      for (int i = 0; i < numCells; ++i)
       {
-         for (int j = 0; j < numCols; ++j)
-         {
-            cells[i][j].mergeBelief(other.cells[i][j]);
-         }
+         cells.mergeBelief(msg.getCellIndex(i), msg.getCellProbEmpty(i), msg.getCellTimestamp(i));
+      }
+
+      mergeTargetBeliefs(msg.getTargetBeliefs());
+   }
+
+   /**
+    * Create a snapshot of this belief to broadcast to other UAVs. Keyframes
+    * contain every cell, otherwise only the cells written since the previous
+    * broadcast are included.
+    *
+    * @return The message to broadcast.
+    */
+   private WorldBeliefMsg createBroadcastMsg()
+   {
+      final boolean keyframe = broadcastsUntilKeyframe <= 0;
+      final int numCells = keyframe ? cells.getNumCells() : cells.getNumDirtyCells();
+
+      int[] indices = new int[numCells];
+      double[] probs = new double[numCells];
+      long[] timestamps = new long[numCells];
+      for (int i = 0; i < numCells; ++i)
+      {
+         final int index = keyframe ? i : cells.getDirtyCell(i);
+         indices[i] = index;
+         probs[i] = cells.getProbabilityEmptyCell(index);
+         timestamps[i] = cells.getPseudoTimestamp(index);
       }
+      cells.clearDirtyCells();
 
-      mergeTargetBeliefs(other);
+      if (keyframe)
+      {
+         broadcastsUntilKeyframe = BELIEF_KEYFRAME_INTERVAL;
+      }
+      --broadcastsUntilKeyframe;
+
+      List<TargetBelief> tgtCopies = new ArrayList<TargetBelief>(numTgtBeliefs);
+      for (TargetBelief tgtBelief : getTargetBeliefs())
+      {
+         tgtCopies.add(new TargetBelief(tgtBelief));
+      }
+
+      return new WorldBeliefMsg(keyframe, indices, probs, timestamps, Collections.unmodifiableList(tgtCopies));
    }
 
    public CellBelief getCellBelief(CellCoordinate cell)
@@ -110,121 +170,253 @@ public class WorldBelief
       return getCellBelief(cell.getRow(), cell.getColumn());
    }
 
+   /**
+    * Get a view of the belief of a single cell. The view reads and writes
+    * through to this world belief.
+    *
+    * @param row
+    *           The row of the cell.
+    * @param col
+    *           The column of the cell.
+    * @return A view of the cell's belief.
+    */
    public CellBelief getCellBelief(int row, int col)
    {
-      return cells[row][col];
+      if (row < 0 || row >= cells.getNumRows() || col < 0 || col >= cells.getNumCols())
+      {
+         throw new ArrayIndexOutOfBoundsException("Cell [" + row + "," + col + "] is out of bounds.");
+      }
+      return new CellBelief(cells, cells.indexOf(row, col), row, col);
+   }
+
+   /**
+    * Read the uncertainty of a single cell without creating a view.
+    *
+    * @param row
+    *           The row of the cell.
+    * @param col
+    *           The column of the cell.
+    * @return The Shannon uncertainty of the cell.
+    */
+   public double getUncertainty(int row, int col)
+   {
+      if (row < 0 || row >= cells.getNumRows() || col < 0 || col >= cells.getNumCols())
+      {
+         throw new ArrayIndexOutOfBoundsException("Cell [" + row + "," + col + "] is out of bounds.");
+      }
+      return cells.getUncertainty(cells.indexOf(row, col));
+   }
+
+   /**
+    * Copy the uncertainty of every cell without creating views.
+    *
+    * @param result
+    *           The uncertainty of each cell is copied here by row major index.
+    *           It must hold at least getNumRows() * getNumCols() values.
+    */
+   public void getUncertainties(double[] result)
+   {
+      final int numCells = cells.getNumCells();
+      for (int i = 0; i < numCells; ++i)
+      {
+         result[i] = cells.getUncertainty(i);
+      }
    }
 
    public int getNumRows()
    {
-      return cells.length;
+      return cells.getNumRows();
    }
 
    public int getNumCols()
    {
-      return cells[0].length;
+      return cells.getNumCols();
    }
 
-   public TargetBelief getTargetBelief(int tgtID)
+   /**
+    * Find the most uncertain cell in the world. Ties are resolved in favor of
+    * the first cell in row major order.
+    *
+    * @return A view of the most uncertain cell.
+    */
+   public CellBelief getMostUncertainCell()
    {
-      TargetBelief tgtBelief = null;
-      boolean tgtFound = false;
+      return getMostUncertainCell(0, 0, cells.getNumRows(), cells.getNumCols());
+   }
+
+   /**
+    * Find the most uncertain cell in the world without creating a view. Ties
+    * are resolved in favor of the first cell in row major order.
+    *
+    * @return The row major index of the most uncertain cell.
+    */
+   public int getMostUncertainCellIndex()
+   {
+      return cells.findMostUncertainCell(0, 0, cells.getNumRows(), cells.getNumCols());
+   }
 
-      Iterator<TargetBelief> itr = tgtBeliefs.iterator();
-      while (itr.hasNext() && !tgtFound)
+   /**
+    * Find the most uncertain cell within a rectangular region. Parts of the
+    * region outside of the world are ignored. Ties are resolved in favor of
+    * the first cell in row major order.
+    *
+    * @param firstRow
+    *           The first row of the region.
+    * @param firstCol
+    *           The first column of the region.
+    * @param numRows
+    *           The height of the region in cells.
+    * @param numCols
+    *           The width of the region in cells.
+    * @return A view of the most uncertain cell or null if the region does not
+    *         overlap the world.
+    */
+   public CellBelief getMostUncertainCell(int firstRow, int firstCol, int numRows, int numCols)
+   {
+      final int startRow = Math.max(0, firstRow);
+      final int startCol = Math.max(0, firstCol);
+      final int endRow = Math.min(cells.getNumRows(), firstRow + numRows);
+      final int endCol = Math.min(cells.getNumCols(), firstCol + numCols);
+
+      if (startRow >= endRow || startCol >= endCol)
       {
-         tgtBelief = itr.next();
-         if (tgtBelief.getTrueTargetID() == tgtID)
-         {
-            tgtFound = true;
-         }
+         return null;
       }
 
-      if (!tgtFound)
-      {
-         tgtBelief = new TargetBelief(numTgtTypes, tgtID);
-         tgtBeliefs.add(tgtBelief);
-         tgtBeliefs.sort(new Comparator<TargetBelief>(){
+      final int index = cells.findMostUncertainCell(startRow, startCol, endRow, endCol);
+      return getCellBelief(index / cells.getNumCols(), index % cells.getNumCols());
+   }
 
-            @Override
-            public int compare(TargetBelief lhs, TargetBelief rhs)
-            {
-               if(lhs.getTrueTargetID() < rhs.getTrueTargetID())
-               {
-                  return -1;
-               }
-               else if(lhs.getTrueTargetID() > rhs.getTrueTargetID())
-               {
-                  return 1;
-               }
-               else
-               {
-                  return 0;
-               }
-            }});
+   /**
+    * Compute the average uncertainty of the cells within a rectangular region.
+    * Parts of the region outside of the world are ignored.
+    *
+    * @param firstRow
+    *           The first row of the region.
+    * @param firstCol
+    *           The first column of the region.
+    * @param numRows
+    *           The height of the region in cells.
+    * @param numCols
+    *           The width of the region in cells.
+    * @return The average uncertainty of the cells or NaN if the region does
+    *         not overlap the world.
+    */
+   public double getAverageUncertainty(int firstRow, int firstCol, int numRows, int numCols)
+   {
+      final int startRow = Math.max(0, firstRow);
+      final int startCol = Math.max(0, firstCol);
+      final int endRow = Math.min(cells.getNumRows(), firstRow + numRows);
+      final int endCol = Math.min(cells.getNumCols(), firstCol + numCols);
+
+      if (startRow >= endRow || startCol >= endCol)
+      {
+         return Double.NaN;
       }
-      return tgtBelief;
+
+      final double numCells = (endRow - startRow) * (endCol - startCol);
+      return cells.getUncertaintySum(startRow, startCol, endRow, endCol) / numCells;
    }
 
-   public List<TargetBelief> getTargetBeliefs()
+   /**
+    * Get the belief of a target, creating a new belief if the target has not
+    * been detected yet.
+    *
+    * @param tgtID
+    *           The true ID of the target.
+    * @return The belief of the target.
+    */
+   public TargetBelief getTargetBelief(int tgtID)
    {
-      return Collections.unmodifiableList(tgtBeliefs);
+      TargetBelief tgtBelief = null;
+      if (hasDetectedTarget(tgtID))
+      {
+         tgtBelief = tgtBeliefs[tgtID];
+      }
+      else
+      {
+         tgtBelief = new TargetBelief(numTgtTypes, tgtID);
+         addTargetBelief(tgtBelief);
+      }
+      return tgtBelief;
    }
 
-   public boolean hasDetectedTarget(int tgtID)
+   /**
+    * @return All detected target beliefs sorted by target ID.
+    */
+   public List<TargetBelief> getTargetBeliefs()
    {
-      boolean tgtFound = false;
-      Iterator<TargetBelief> itr = tgtBeliefs.iterator();
-
-      while (itr.hasNext() && !tgtFound)
+      if (sortedTgtBeliefs == null)
       {
-         if (itr.next().getTrueTargetID() == tgtID)
+         List<TargetBelief> sorted = new ArrayList<TargetBelief>(numTgtBeliefs);
+         for (TargetBelief tgtBelief : tgtBeliefs)
          {
-            tgtFound = true;
+            if (tgtBelief != null)
+            {
+               sorted.add(tgtBelief);
+            }
          }
+         sortedTgtBeliefs = Collections.unmodifiableList(sorted);
       }
-      return tgtFound;
+      return sortedTgtBeliefs;
    }
 
-   public void removeTarget(int tgtID)
+   public boolean hasDetectedTarget(int tgtID)
    {
-      boolean tgtFound = false;
-      Iterator<TargetBelief> itr = tgtBeliefs.iterator();
-      TargetBelief tgtBelief = null;
+      return tgtID >= 0 && tgtID < tgtBeliefs.length && tgtBeliefs[tgtID] != null;
+   }
 
-      while (itr.hasNext() && !tgtFound)
+   public void removeTarget(int tgtID)
+   {
+      if (hasDetectedTarget(tgtID))
       {
-         tgtBelief = itr.next();
-         if (tgtBelief.getTrueTargetID() == tgtID)
-         {
-            itr.remove();
-            tgtFound = true;
-         }
+         tgtBeliefs[tgtID] = null;
+         --numTgtBeliefs;
+         sortedTgtBeliefs = null;
       }
    }
 
    public int getNumTargetBeliefs()
    {
-      return tgtBeliefs.size();
+      return numTgtBeliefs;
    }
 
-   private void mergeTargetBeliefs(WorldBelief other)
+   private void addTargetBelief(TargetBelief tgtBelief)
    {
-      List<TargetBelief> otherBeliefs = new ArrayList<TargetBelief>(other.tgtBeliefs);
-      Iterator<TargetBelief> itr = otherBeliefs.iterator();
+      final int tgtID = tgtBelief.getTrueTargetID();
+      if (tgtID < 0)
+      {
+         throw new IllegalArgumentException("Target ID must be non-negative.");
+      }
+
+      if (tgtID >= tgtBeliefs.length)
+      {
+         tgtBeliefs = Arrays.copyOf(tgtBeliefs, Math.max(tgtID + 1, tgtBeliefs.length * 2));
+      }
+
+      tgtBeliefs[tgtID] = tgtBelief;
+      ++numTgtBeliefs;
+      sortedTgtBeliefs = null;
+   }
 
-      while (itr.hasNext())
+   private void mergeTargetBeliefs(List<TargetBelief> otherBeliefs)
+   {
+      for (TargetBelief otherBelief : otherBeliefs)
       {
-         TargetBelief otherBelief = itr.next();
+         if (otherBelief == null)
+         {
+            continue;
+         }
+
          if (hasDetectedTarget(otherBelief.getTrueTargetID()))
          {
-            TargetBelief myBelief = getTargetBelief(otherBelief.getTrueTargetID());
+            TargetBelief myBelief = tgtBeliefs[otherBelief.getTrueTargetID()];
             myBelief.merge(otherBelief, NEWER_TGT_ALPHA);
          }
          else
          {
             // Other belief has information on new targets
-            tgtBeliefs.add(new TargetBelief(otherBelief));
+            addTargetBelief(new TargetBelief(otherBelief));
          }
       }
    }
@@ -239,50 +431,21 @@ public class WorldBelief
       if (!thinksWorldClear)
       {
          boolean worldKnown = true;
-         final int numRows = cells.length;
-         final int numCols = cells[0].length;
 
          switch (worldKnownStrat)
          {
          case Absolute:
-         {
-            for (int i = 0; i < numRows; ++i)
-            {
-               for (int j = 0; j < numCols; ++j)
-               {
-                  if (cells[i][j].getUncertainty() > minKnownWorldUncert)
-                  {
-                     worldKnown = false;
-                     break;
-                  }
-               }
-            }
-         }
+            worldKnown = !cells.isAnyCellUncertain();
             break;
          case Average:
-         {
-            double sum = 0;
-            for (int i = 0; i < numRows; ++i)
-            {
-               for (int j = 0; j < numCols; ++j)
-               {
-                  sum += cells[i][j].getUncertainty();
-               }
-            }
-            
-            double avg = sum / (numCols * numRows * 1.0);
-            if(avg > minKnownWorldUncert)
-            {
-               worldKnown = false;
-            }
-         }
+            worldKnown = !cells.isAverageUncertaintyAbove(minKnownWorldUncert);
             break;
          }
 
          if (worldKnown)
          {
             thinksWorldClear = true;
-            firstWorldClearTime = SimTime.getCurrentSimTimeMS();
+            firstWorldClearTime = clock.getCurrentSimTimeMS();
          }
       }
 
@@ -294,7 +457,7 @@ public class WorldBelief
       boolean allDestroyed = true;
       for (TargetBelief tgt : tgtBeliefs)
       {
-         if (!tgt.getTaskStatus().isDestroyed())
+         if (tgt != null && !tgt.getTaskStatus().isDestroyed())
          {
             allDestroyed = false;
             break;
@@ -1,28 +1,101 @@
 package thesis.core.belief;
 
+import java.util.List;
+
 import thesis.core.uav.comms.Message;
 
+/**
+ * A snapshot of the parts of a world belief that changed since the sender's
+ * previous broadcast.
+ *
+ * Delta messages only carry the cells written since the previous broadcast.
+ * Periodic keyframes carry every cell so that UAVs that were out of range of
+ * earlier broadcasts eventually receive the whole belief. Every message
+ * carries all target beliefs since task negotiation relies on receiving them
+ * repeatedly.
+ */
 public class WorldBeliefMsg extends Message
 {
-   private WorldBelief belief;
+   private final boolean keyframe;
+
+   /**
+    * Indices of the cells in the message in row major order.
+    */
+   private final int[] cellIndices;
+   private final double[] cellProbEmpty;
+   private final long[] cellTimestamps;
+
+   private final List<TargetBelief> tgtBeliefs;
 
-   public WorldBeliefMsg(WorldBelief belief)
+   /**
+    * @param keyframe
+    *           True if the message contains every cell of the belief.
+    * @param cellIndices
+    *           Row major indices of the cells in the message.
+    * @param cellProbEmpty
+    *           The probability that each cell is empty.
+    * @param cellTimestamps
+    *           The pseudo timestamp of each cell.
+    * @param tgtBeliefs
+    *           Copies of the sender's target beliefs.
+    */
+   WorldBeliefMsg(boolean keyframe, int[] cellIndices, double[] cellProbEmpty, long[] cellTimestamps,
+         List<TargetBelief> tgtBeliefs)
    {
       super(MsgType.WorldBelief);
-      this.belief = belief;
+
+      if (cellIndices.length != cellProbEmpty.length || cellIndices.length != cellTimestamps.length)
+      {
+         throw new IllegalArgumentException("Cell data arrays must be the same length.");
+      }
+
+      this.keyframe = keyframe;
+      this.cellIndices = cellIndices;
+      this.cellProbEmpty = cellProbEmpty;
+      this.cellTimestamps = cellTimestamps;
+      this.tgtBeliefs = tgtBeliefs;
+   }
+
+   /**
+    * @return True if the message contains every cell of the sender's belief.
+    */
+   public boolean isKeyframe()
+   {
+      return keyframe;
+   }
+
+   public int getNumCells()
+   {
+      return cellIndices.length;
+   }
+
+   int getCellIndex(int i)
+   {
+      return cellIndices[i];
+   }
+
+   double getCellProbEmpty(int i)
+   {
+      return cellProbEmpty[i];
+   }
+
+   long getCellTimestamp(int i)
+   {
+      return cellTimestamps[i];
    }
 
-   public WorldBelief getBelief()
+   List<TargetBelief> getTargetBeliefs()
    {
-      return belief;
+      return tgtBeliefs;
    }
 
    @Override
    protected Message cloneMsgSpecificData()
    {
-      //No need for a deep-copy/clone since receivers of this message will
-      //use this data in a read-only fashion within the same process
-      WorldBeliefMsg clone = new WorldBeliefMsg(belief);
+      //No need for a deep-copy/clone since the snapshot is never modified
+      //and receivers use it in a read-only fashion within the same process
+      WorldBeliefMsg clone = new WorldBeliefMsg(keyframe, cellIndices, cellProbEmpty, cellTimestamps,
+            tgtBeliefs);
       return clone;
    }
 }
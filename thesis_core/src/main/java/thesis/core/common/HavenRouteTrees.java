@@ -0,0 +1,150 @@
+package thesis.core.common;
+
+import thesis.core.world.Havens;
+import thesis.core.world.World;
+import thesis.core.world.WorldGIS;
+
+/**
+ * The shortest road paths from each haven to every other haven stored as one
+ * breadth first search tree per haven.
+ *
+ * Each tree holds the parent of every road cell so memory grows with the
+ * number of havens times the number of road cells instead of with the length
+ * of every route between every pair of havens. Instances are never modified
+ * after construction so they may be shared by any number of simulations of the
+ * same world.
+ */
+public class HavenRouteTrees
+{
+   /**
+    * Parent of the root of a tree and of road cells the root cannot reach.
+    */
+   private static final int NO_PARENT = -1;
+
+   /**
+    * Row major cell index of each road cell.
+    */
+   private final int[] roadCells;
+
+   /**
+    * Position in {@link #roadCells} of the cell of each haven or -1 if the
+    * haven is not on a road.
+    */
+   private final int[] havenRoads;
+
+   /**
+    * Position in {@link #roadCells} of the parent of each road cell indexed by
+    * root haven then road cell. Null for havens that are not on a road.
+    */
+   private final int[][] trees;
+
+   /**
+    * Search the road network from every haven.
+    *
+    * @param world
+    *           The world containing the havens and roads. It is only read
+    *           during construction.
+    */
+   public HavenRouteTrees(World world)
+   {
+      final WorldGIS gis = world.getWorldGIS();
+      final RoadNetwork roadNet = world.getRoadNetwork();
+      final Havens havens = world.getHavens();
+      final int numRows = gis.getRowCount();
+      final int numCols = gis.getColumnCount();
+      final int numHavens = havens.getNumHavens();
+      // Worlds without havens may not have a road network
+      final int numCells = numHavens > 0 ? numRows * numCols : 0;
+
+      // Position of each cell in roadCells or -1 for cells without a road
+      final int[] roadIndex = new int[numCells];
+      int numRoads = 0;
+      for (int i = 0; i < numCells; ++i)
+      {
+         roadIndex[i] = roadNet.isTraversable(i / numCols, i % numCols) ? numRoads++ : NO_PARENT;
+      }
+
+      roadCells = new int[numRoads];
+      for (int i = 0; i < numCells; ++i)
+      {
+         if (roadIndex[i] != NO_PARENT)
+         {
+            roadCells[roadIndex[i]] = i;
+         }
+      }
+
+      havenRoads = new int[numHavens];
+      trees = new int[numHavens][];
+
+      final int[] parents = new int[numCells];
+      for (int i = 0; i < numHavens; ++i)
+      {
+         final CellCoordinate haven = havens.getHavenByIndx(i);
+         havenRoads[i] = roadIndex[haven.getRow() * numCols + haven.getColumn()];
+         if (havenRoads[i] != NO_PARENT)
+         {
+            roadNet.findPathTree(haven, parents);
+
+            final int[] tree = new int[numRoads];
+            for (int j = 0; j < numRoads; ++j)
+            {
+               final int parent = parents[roadCells[j]];
+               tree[j] = parent == NO_PARENT ? NO_PARENT : roadIndex[parent];
+            }
+            trees[i] = tree;
+         }
+      }
+   }
+
+   /**
+    * @return The number of havens in the world the trees were built from.
+    */
+   public int getNumHavens()
+   {
+      return havenRoads.length;
+   }
+
+   /**
+    * Look up the shortest road path between two havens. The path is identical
+    * to the breadth first path found by
+    * {@link RoadNetwork#findPaths(CellCoordinate, java.util.List)} from the
+    * start haven.
+    *
+    * @param startIndx
+    *           Index of the haven at the start of the path.
+    * @param endIndx
+    *           Index of the haven at the end of the path.
+    * @return The row major index of each cell to traverse in order from start
+    *         to end or null if there is no road path between the havens.
+    */
+   public int[] getPath(int startIndx, int endIndx)
+   {
+      final int root = havenRoads[startIndx];
+      final int end = havenRoads[endIndx];
+      if (root == NO_PARENT || end == NO_PARENT)
+      {
+         return null;
+      }
+
+      final int[] tree = trees[startIndx];
+      int numCells = 1;
+      for (int cell = end; cell != root; cell = tree[cell])
+      {
+         if (tree[cell] == NO_PARENT)
+         {
+            return null;
+         }
+         ++numCells;
+      }
+
+      // Walk back from the end again and fill the path from its last cell
+      final int[] path = new int[numCells];
+      int cell = end;
+      for (int i = numCells - 1; i >= 0; --i)
+      {
+         path[i] = roadCells[cell];
+         cell = tree[cell];
+      }
+      return path;
+   }
+}
@@ -1,6 +1,9 @@
 package thesis.core.common;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import thesis.core.world.Havens;
@@ -12,36 +15,152 @@ public class HavenRouting
    private RoadNetwork roadNet;
    private WorldGIS worldGIS;
    private Havens havens;
-   private Random randGen;
 
-   public HavenRouting(World world, Random randGen)
+   /**
+    * Shortest road paths between havens. Shared by every simulation of the
+    * world.
+    */
+   private HavenRouteTrees routeTrees;
+
+   /**
+    * Routes between havens that have already been requested keyed by start
+    * haven index times the number of havens plus end haven index. Routes are
+    * shared by every traveler.
+    */
+   private Map<Long, RoutePolyline> havenRoutes;
+
+   /**
+    * Search the road network from every haven of the world.
+    *
+    * @param world
+    *           The world the travelers move through.
+    */
+   public HavenRouting(World world)
    {
+      this(world, new HavenRouteTrees(world));
+   }
+
+   /**
+    * @param world
+    *           The world the travelers move through.
+    * @param routeTrees
+    *           The road paths between the havens of the world. They may be
+    *           shared with other simulations of the same world.
+    */
+   public HavenRouting(World world, HavenRouteTrees routeTrees)
+   {
+      if (routeTrees.getNumHavens() != world.getHavens().getNumHavens())
+      {
+         throw new IllegalArgumentException("Route trees were not built from the world's havens.");
+      }
+
       this.roadNet = world.getRoadNetwork();
       this.worldGIS = world.getWorldGIS();
       this.havens = world.getHavens();
-      this.randGen = randGen;
+      this.routeTrees = routeTrees;
+      this.havenRoutes = new HashMap<Long, RoutePolyline>();
    }
 
-   public void selectNewHavenDestination(WorldCoordinate curPos, WorldCoordinate destination,
-         List<WorldCoordinate> path)
+   /**
+    * Randomly select a new haven to travel to and look up the road route to it.
+    *
+    * @param curPos
+    *           The current location of the traveler.
+    * @param destination
+    *           The location of the selected haven will be copied here.
+    * @param randGen
+    *           The random stream of the traveler used to select the haven.
+    * @return The route to the selected haven. The route is shared and must not
+    *         be modified.
+    */
+   public RoutePolyline selectNewHavenDestination(WorldCoordinate curPos, WorldCoordinate destination,
+         Random randGen)
    {
       CellCoordinate start = worldGIS.convertWorldToCell(curPos);
       CellCoordinate end = null;
       int numHavens = havens.getNumHavens();
+      int endIndx = 0;
       do
       {
-         end = havens.getHavenByIndx(randGen.nextInt(numHavens));
+         endIndx = randGen.nextInt(numHavens);
+         end = havens.getHavenByIndx(endIndx);
       } while (end.equals(start));
 
       //Copy destination to passed in reference
       destination.setCoordinate(worldGIS.convertCellToWorld(end));
 
-      //Convert cell path to world coordinate path and copy to passed in reference
-      path.clear();
-      List<CellCoordinate> cellPath = roadNet.findPath(start, end);
-      for(CellCoordinate cell : cellPath)
+      RoutePolyline route = null;
+      final int startIndx = findHaven(start);
+      if (startIndx != -1)
+      {
+         route = getHavenRoute(startIndx, endIndx);
+      }
+      else
+      {
+         // Travelers that have not yet reached a haven are routed on demand
+         route = toRoute(roadNet.findPath(start, end), end);
+      }
+      return route;
+   }
+
+   /**
+    * Look up the road route between two havens. Each route is converted from
+    * the route trees the first time it is requested.
+    */
+   private RoutePolyline getHavenRoute(int startIndx, int endIndx)
+   {
+      final Long key = (long) startIndx * havens.getNumHavens() + endIndx;
+      RoutePolyline route = havenRoutes.get(key);
+      if (route == null)
+      {
+         final int[] cellIndices = routeTrees.getPath(startIndx, endIndx);
+         final List<CellCoordinate> cellPath = new ArrayList<CellCoordinate>();
+         if (cellIndices != null)
+         {
+            final int numCols = worldGIS.getColumnCount();
+            for (int cellIndx : cellIndices)
+            {
+               cellPath.add(new CellCoordinate(cellIndx / numCols, cellIndx % numCols));
+            }
+         }
+         route = toRoute(cellPath, havens.getHavenByIndx(endIndx));
+         havenRoutes.put(key, route);
+      }
+      return route;
+   }
+
+   /**
+    * @return The index of the first haven in the cell or -1 if there is no
+    *         haven in the cell.
+    */
+   private int findHaven(CellCoordinate cell)
+   {
+      final int numHavens = havens.getNumHavens();
+      for (int i = 0; i < numHavens; ++i)
+      {
+         if (havens.getHavenByIndx(i).equals(cell))
+         {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * Convert a cell path to a route through the centers of the cells. If there
+    * is no road path the route leads directly to the end cell.
+    */
+   private RoutePolyline toRoute(List<CellCoordinate> cellPath, CellCoordinate end)
+   {
+      final WorldCoordinate wc = new WorldCoordinate();
+      final int numCells = Math.max(cellPath.size(), 1);
+      final double[] coords = new double[numCells * 2];
+      for (int i = 0; i < numCells; ++i)
       {
-         path.add(worldGIS.convertCellToWorld(cell));
+         worldGIS.convertCellToWorld(cellPath.isEmpty() ? end : cellPath.get(i), wc);
+         coords[i * 2] = wc.getNorth();
+         coords[i * 2 + 1] = wc.getEast();
       }
+      return new RoutePolyline(coords);
    }
 }
@@ -0,0 +1,57 @@
+package thesis.core.common;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Derives independent, reproducible random number streams from a single seed.
+ *
+ * Streams form a hierarchy. The simulation model owns the root, each entity
+ * (UAV, target) is given its own branch via {@link #split()}, and each
+ * subsystem of an entity draws its own generator from that branch via
+ * {@link #nextStream()}. The values produced by a generator only depend on the
+ * seed and its position in the hierarchy so results do not depend on the order
+ * in which entities consume random numbers or the number of threads stepping
+ * the simulation.
+ */
+public class RandomStreams
+{
+   private final SplittableRandom source;
+
+   /**
+    * Create the root of a stream hierarchy.
+    *
+    * @param seed
+    *           All streams in the hierarchy are derived from this value.
+    */
+   public RandomStreams(long seed)
+   {
+      source = new SplittableRandom(seed);
+   }
+
+   private RandomStreams(SplittableRandom source)
+   {
+      this.source = source;
+   }
+
+   /**
+    * Create a new branch of the hierarchy, typically for a single entity.
+    *
+    * @return An independent branch of streams.
+    */
+   public RandomStreams split()
+   {
+      return new RandomStreams(source.split());
+   }
+
+   /**
+    * Create a new random number generator, typically for a single subsystem
+    * of an entity.
+    *
+    * @return An independently seeded generator.
+    */
+   public Random nextStream()
+   {
+      return new Random(source.nextLong());
+   }
+}
@@ -1,22 +1,57 @@
 package thesis.core.common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 
 public class RoadNetwork
 {
+   /**
+    * Parent of the first cell of a path.
+    */
+   private static final int NO_PARENT = -1;
+
    private boolean network[][];
+   private int numCols;
 
    private List<CellCoordinate> traversableCache;
    private boolean dirtyCache;
 
+   private boolean aStarEnabled;
+
+   /**
+    * Search state indexed by row major cell index. The state of a cell is only
+    * valid if its stamp matches the stamp of the current search so the buffers
+    * are reused between searches without being cleared.
+    */
+   private int[] searchStamp;
+   private int[] searchCost;
+   private int[] searchParent;
+   private int curStamp;
+
+   /**
+    * Breadth first search queue. Each cell is queued at most once.
+    */
+   private int[] searchQueue;
+
+   /**
+    * A* open set as a binary min heap of cells keyed by estimated path cost.
+    */
+   private int[] heapCells;
+   private int[] heapKeys;
+   private int heapSize;
+
+   private final int[] neighbors;
+
    public RoadNetwork()
    {
       dirtyCache = false;
       traversableCache = new ArrayList<CellCoordinate>();
+      aStarEnabled = false;
+      heapCells = new int[64];
+      heapKeys = new int[64];
+      neighbors = new int[4];
    }
 
    public void copy(RoadNetwork copy)
@@ -25,6 +60,7 @@ public class RoadNetwork
       int numCols = copy.network[0].length;
 
       this.reset(numRows, numCols);
+      this.aStarEnabled = copy.aStarEnabled;
 
       List<CellCoordinate> cells = copy.getTraversableCells();
       for(CellCoordinate cell : cells)
@@ -36,6 +72,7 @@ public class RoadNetwork
    public void reset(int numRows, int numCols)
    {
       network = new boolean[numRows][numCols];
+      this.numCols = numCols;
       for (int i = 0; i < numRows; ++i)
       {
          for (int j = 0; j < numCols; ++j)
@@ -101,164 +138,381 @@ public class RoadNetwork
    }
 
    /**
-    * Find a path from start to end using breadth first search.
+    * Find a path from start to end using breadth first search or A* if it is
+    * enabled. Both return a shortest path but may choose different paths when
+    * several are equally short.
+    *
     * @param start
     * @param end
     * @return The list of cells to traverse in order from start to end or an empty list of no such path exists.
+    *
+    * @see #setAStarEnabled(boolean)
     */
    public List<CellCoordinate> findPath(CellCoordinate startCoord, CellCoordinate endCoord)
    {
-      List<Vertex> vertices = new ArrayList<Vertex>();
-      for(int i=0; i<network.length; ++i)
+      List<CellCoordinate> path = new ArrayList<CellCoordinate>();
+
+      final int startRow = startCoord.getRow();
+      final int startCol = startCoord.getColumn();
+      final int endRow = endCoord.getRow();
+      final int endCol = endCoord.getColumn();
+      if (!network[startRow][startCol] || !network[endRow][endCol])
       {
-         for(int j=0; j<network[i].length; ++j)
+         return path;
+      }
+
+      prepareSearch();
+
+      final int startIndex = startRow * numCols + startCol;
+      final int endIndex = endRow * numCols + endCol;
+      final boolean found = aStarEnabled ? searchAStar(startIndex, endIndex) : searchBreadthFirst(startIndex,
+            endIndex);
+
+      if (found)
+      {
+         buildPath(endIndex, path);
+      }
+
+      return path;
+   }
+
+   /**
+    * Find paths from one start to several ends with a single breadth first
+    * search. Each path is identical to the breadth first path returned by
+    * {@link #findPath(CellCoordinate, CellCoordinate)} regardless of whether A*
+    * is enabled.
+    *
+    * @param startCoord
+    *           The first cell of every path.
+    * @param endCoords
+    *           The last cell of each path.
+    * @return The paths to each end in the same order as the ends. The path to
+    *         an unreachable end is empty.
+    */
+   public List<List<CellCoordinate>> findPaths(CellCoordinate startCoord, List<CellCoordinate> endCoords)
+   {
+      final int numEnds = endCoords.size();
+      List<List<CellCoordinate>> paths = new ArrayList<List<CellCoordinate>>(numEnds);
+
+      final int startRow = startCoord.getRow();
+      final int startCol = startCoord.getColumn();
+      final boolean searched = network[startRow][startCol];
+      if (searched)
+      {
+         // Without a reachable end the search visits every connected cell
+         prepareSearch();
+         searchBreadthFirst(startRow * numCols + startCol, NO_PARENT);
+      }
+
+      for (int i = 0; i < numEnds; ++i)
+      {
+         List<CellCoordinate> path = new ArrayList<CellCoordinate>();
+         final CellCoordinate endCoord = endCoords.get(i);
+         final int endIndex = endCoord.getRow() * numCols + endCoord.getColumn();
+         if (searched && network[endCoord.getRow()][endCoord.getColumn()] && searchStamp[endIndex] == curStamp)
          {
-            if(network[i][j])
-            {
-               Vertex vert = new Vertex();
-               vert.col = j;
-               vert.row = i;
-               vert.searchCost = Integer.MAX_VALUE;
-               vert.searchParent = null;
-               vertices.add(vert);
-            }
+            buildPath(endIndex, path);
          }
+         paths.add(path);
       }
 
-      Vertex startVertex = findMatchingVertex(startCoord.getRow(), startCoord.getColumn(), vertices);
-      Vertex endVertex = findMatchingVertex(endCoord.getRow(), endCoord.getColumn(), vertices);
+      return paths;
+   }
 
-      // Simple breadth-first-search algorithm
-      Queue<Vertex> searchQ = new LinkedList<Vertex>();
-      searchQ.add(startVertex);
-      startVertex.searchCost = 0;
-      boolean targetFound = false;
-      while (!searchQ.isEmpty() && !targetFound)
+   /**
+    * Find the shortest paths from one start to every connected cell with a
+    * single breadth first search. Following the parents from a cell back to
+    * the start gives the reverse of the path returned by
+    * {@link #findPaths(CellCoordinate, List)}.
+    *
+    * @param startCoord
+    *           The root of the tree.
+    * @param parents
+    *           Holds one value per cell in row major order. Receives the row
+    *           major index of the previous cell on the path to each cell. The
+    *           start and every cell that cannot be reached are set to -1.
+    */
+   public void findPathTree(CellCoordinate startCoord, int[] parents)
+   {
+      final int numCells = network.length * numCols;
+      if (parents.length != numCells)
       {
-         Vertex searchMe = searchQ.remove();
+         throw new IllegalArgumentException("parents must hold " + numCells + " cells.");
+      }
+
+      Arrays.fill(parents, NO_PARENT);
 
-         for (Vertex connected : getConnectedVertices(searchMe, vertices))
+      final int startRow = startCoord.getRow();
+      final int startCol = startCoord.getColumn();
+      if (network[startRow][startCol])
+      {
+         prepareSearch();
+         searchBreadthFirst(startRow * numCols + startCol, NO_PARENT);
+         for (int i = 0; i < numCells; ++i)
          {
-            if (connected.searchCost == Integer.MAX_VALUE)
+            if (searchStamp[i] == curStamp)
             {
-               connected.searchCost = searchMe.searchCost + 1;
-               connected.searchParent = searchMe;
-
-               if (connected.row == endVertex.row && connected.col == endVertex.col)
-               {
-                  targetFound = true;
-                  break;
-               }
-               else
-               {
-                  searchQ.add(connected);
-               }
+               parents[i] = searchParent[i];
             }
          }
       }
+   }
 
-      // Generate the path in reverse by vertex
-      List<Vertex> pathByVertex = new ArrayList<Vertex>();
-      pathByVertex.add(endVertex);
-      Vertex iterator = endVertex;
-      while (iterator.searchParent != null)
+   /**
+    * Follow the parents of the current search from a cell back to the start.
+    *
+    * @param endIndex
+    *           The last cell of the path.
+    * @param path
+    *           The cells from the start to the end are appended here.
+    */
+   private void buildPath(int endIndex, List<CellCoordinate> path)
+   {
+      final int first = path.size();
+      for (int index = endIndex; index != NO_PARENT; index = searchParent[index])
       {
-         pathByVertex.add(iterator.searchParent);
-         iterator = iterator.searchParent;
+         path.add(new CellCoordinate(index / numCols, index % numCols));
       }
+      // The path was generated from end to start, reverse it
+      Collections.reverse(path.subList(first, path.size()));
+   }
+
+   /**
+    * @param enabled
+    *           True to find paths with A* and a Manhattan distance heuristic
+    *           instead of breadth first search. A* visits fewer cells on large
+    *           networks.
+    */
+   public void setAStarEnabled(boolean enabled)
+   {
+      aStarEnabled = enabled;
+   }
 
-      // pathByVertex has the path from end to start, reverse it
-      Collections.reverse(pathByVertex);
+   public boolean isAStarEnabled()
+   {
+      return aStarEnabled;
+   }
 
-      //Convert to CellCoordinates
-      final int numCells = pathByVertex.size();
-      List<CellCoordinate> path = new ArrayList<CellCoordinate>();
-      for(int i=0; i<numCells; ++i)
+   /**
+    * Size the search buffers to the network and invalidate the results of the
+    * previous search.
+    */
+   private void prepareSearch()
+   {
+      final int numCells = network.length * numCols;
+      if (searchStamp == null || searchStamp.length != numCells)
       {
-         CellCoordinate cell = new CellCoordinate();
-         cell.setColumn(pathByVertex.get(i).col);
-         cell.setRow(pathByVertex.get(i).row);
-         path.add(cell);
+         searchStamp = new int[numCells];
+         searchCost = new int[numCells];
+         searchParent = new int[numCells];
+         searchQueue = new int[numCells];
+         curStamp = 0;
       }
 
-      return path;
+      // Cells whose stamp differs from the current one are unvisited
+      if (curStamp == Integer.MAX_VALUE)
+      {
+         Arrays.fill(searchStamp, 0);
+         curStamp = 0;
+      }
+      ++curStamp;
    }
 
-   private List<Vertex> getConnectedVertices(Vertex from, List<Vertex> allVertices)
+   private boolean searchBreadthFirst(int startIndex, int endIndex)
    {
-      List<Vertex> connected = new ArrayList<Vertex>();
+      int qHead = 0;
+      int qTail = 0;
+      searchQueue[qTail++] = startIndex;
+      visit(startIndex, 0, NO_PARENT);
 
-      if (from.row > 0) // Check row below
+      boolean targetFound = startIndex == endIndex;
+      while (qHead < qTail && !targetFound)
       {
-         if (network[from.row - 1][from.col])
+         final int searchMe = searchQueue[qHead++];
+         final int numNeighbors = getUnvisitedNeighbors(searchMe);
+         for (int i = 0; i < numNeighbors; ++i)
          {
-            Vertex v = findMatchingVertex(from.row - 1, from.col, allVertices);
-            if(v.searchCost == Integer.MAX_VALUE)
+            final int connected = neighbors[i];
+            visit(connected, searchCost[searchMe] + 1, searchMe);
+
+            if (connected == endIndex)
             {
-               connected.add(v);
+               targetFound = true;
+               break;
+            }
+            else
+            {
+               searchQueue[qTail++] = connected;
             }
          }
       }
 
-      if (from.row < (network.length - 1)) // Check row above
+      return targetFound;
+   }
+
+   private boolean searchAStar(int startIndex, int endIndex)
+   {
+      final int endRow = endIndex / numCols;
+      final int endCol = endIndex % numCols;
+
+      heapSize = 0;
+      visit(startIndex, 0, NO_PARENT);
+      heapPush(startIndex, distanceTo(startIndex, endRow, endCol));
+
+      boolean targetFound = false;
+      while (heapSize > 0 && !targetFound)
       {
-         if (network[from.row + 1][from.col])
+         final int estimate = heapKeys[0];
+         final int searchMe = heapPop();
+         final int cost = searchCost[searchMe];
+
+         // Skip entries superseded by a cheaper path to the same cell
+         if (estimate > cost + distanceTo(searchMe, endRow, endCol))
          {
-            Vertex v = findMatchingVertex(from.row + 1, from.col, allVertices);
-            if(v.searchCost == Integer.MAX_VALUE)
-            {
-               connected.add(v);
-            }
+            continue;
          }
-      }
 
-      if (from.col > 0) // Check col before
-      {
-         if (network[from.row][from.col - 1])
+         if (searchMe == endIndex)
+         {
+            targetFound = true;
+         }
+         else
          {
-            Vertex v = findMatchingVertex(from.row, from.col - 1, allVertices);
-            if(v.searchCost == Integer.MAX_VALUE)
+            final int numNeighbors = getNeighbors(searchMe);
+            for (int i = 0; i < numNeighbors; ++i)
             {
-               connected.add(v);
+               final int connected = neighbors[i];
+               if (searchStamp[connected] != curStamp || cost + 1 < searchCost[connected])
+               {
+                  visit(connected, cost + 1, searchMe);
+                  heapPush(connected, cost + 1 + distanceTo(connected, endRow, endCol));
+               }
             }
          }
       }
 
-      if (from.col < (network[from.row].length - 1)) // Check col after
+      return targetFound;
+   }
+
+   private void visit(int index, int cost, int parent)
+   {
+      searchStamp[index] = curStamp;
+      searchCost[index] = cost;
+      searchParent[index] = parent;
+   }
+
+   private int distanceTo(int index, int row, int col)
+   {
+      return Math.abs(index / numCols - row) + Math.abs(index % numCols - col);
+   }
+
+   /**
+    * Fill the neighbor buffer with the traversable cells adjacent to a cell.
+    *
+    * @return The number of neighbors found.
+    */
+   private int getNeighbors(int index)
+   {
+      final int row = index / numCols;
+      final int col = index % numCols;
+      int count = 0;
+
+      if (row > 0 && network[row - 1][col]) // Check row below
+      {
+         neighbors[count++] = index - numCols;
+      }
+
+      if (row < (network.length - 1) && network[row + 1][col]) // Check row above
+      {
+         neighbors[count++] = index + numCols;
+      }
+
+      if (col > 0 && network[row][col - 1]) // Check col before
+      {
+         neighbors[count++] = index - 1;
+      }
+
+      if (col < (numCols - 1) && network[row][col + 1]) // Check col after
+      {
+         neighbors[count++] = index + 1;
+      }
+
+      return count;
+   }
+
+   /**
+    * Fill the neighbor buffer with the traversable cells adjacent to a cell
+    * that have not been visited by the current search.
+    *
+    * @return The number of neighbors found.
+    */
+   private int getUnvisitedNeighbors(int index)
+   {
+      final int numNeighbors = getNeighbors(index);
+      int count = 0;
+      for (int i = 0; i < numNeighbors; ++i)
       {
-         if (network[from.row][from.col + 1])
+         if (searchStamp[neighbors[i]] != curStamp)
          {
-            Vertex v = findMatchingVertex(from.row, from.col + 1, allVertices);
-            if(v.searchCost == Integer.MAX_VALUE)
-            {
-               connected.add(v);
-            }
+            neighbors[count++] = neighbors[i];
          }
       }
-
-      return connected;
+      return count;
    }
 
-   private Vertex findMatchingVertex(int row, int col, List<Vertex> vertices)
+   private void heapPush(int index, int key)
    {
-      int NUM_VERTS = vertices.size();
-      Vertex temp = null;
-      for (int i = 0; i < NUM_VERTS; ++i)
+      if (heapSize == heapCells.length)
+      {
+         heapCells = Arrays.copyOf(heapCells, heapSize * 2);
+         heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+      }
+
+      // Sift up
+      int child = heapSize++;
+      while (child > 0)
       {
-         temp = vertices.get(i);
-         if (temp.row == row && temp.col == col)
+         final int parent = (child - 1) / 2;
+         if (heapKeys[parent] <= key)
          {
             break;
          }
+         heapCells[child] = heapCells[parent];
+         heapKeys[child] = heapKeys[parent];
+         child = parent;
       }
-      return temp;
+      heapCells[child] = index;
+      heapKeys[child] = key;
    }
 
-   private static class Vertex
+   private int heapPop()
    {
-      public int row;
-      public int col;
-      public int searchCost;
-      public Vertex searchParent;
+      final int top = heapCells[0];
+      --heapSize;
+
+      // Sift the last entry down from the root
+      final int lastCell = heapCells[heapSize];
+      final int lastKey = heapKeys[heapSize];
+      int parent = 0;
+      int child = 1;
+      while (child < heapSize)
+      {
+         if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child])
+         {
+            ++child;
+         }
+         if (lastKey <= heapKeys[child])
+         {
+            break;
+         }
+         heapCells[parent] = heapCells[child];
+         heapKeys[parent] = heapKeys[child];
+         parent = child;
+         child = parent * 2 + 1;
+      }
+      heapCells[parent] = lastCell;
+      heapKeys[parent] = lastKey;
+
+      return top;
    }
 }
@@ -0,0 +1,72 @@
+package thesis.core.common;
+
+/**
+ * An immutable sequence of world coordinates stored as packed north and east
+ * pairs. Instances never change so they may be shared between travelers.
+ */
+public class RoutePolyline
+{
+   /**
+    * North then east distance of each point in meters.
+    */
+   private final double[] coords;
+
+   /**
+    * @param coords
+    *           North then east distance of each point in meters. The array is
+    *           copied.
+    */
+   public RoutePolyline(double[] coords)
+   {
+      if (coords == null)
+      {
+         throw new NullPointerException("coords cannot be null");
+      }
+
+      if (coords.length % 2 != 0)
+      {
+         throw new IllegalArgumentException("coords must hold north and east pairs.");
+      }
+
+      this.coords = coords.clone();
+   }
+
+   /**
+    * @return The number of points in the route.
+    */
+   public int getNumPoints()
+   {
+      return coords.length / 2;
+   }
+
+   /**
+    * @param i
+    *           Index of the point.
+    * @return Distance north from the world origin in meters.
+    */
+   public double getNorth(int i)
+   {
+      return coords[i * 2];
+   }
+
+   /**
+    * @param i
+    *           Index of the point.
+    * @return Distance east from the world origin in meters.
+    */
+   public double getEast(int i)
+   {
+      return coords[i * 2 + 1];
+   }
+
+   /**
+    * @param i
+    *           Index of the point.
+    * @param result
+    *           Set to the location of the point.
+    */
+   public void getPoint(int i, WorldCoordinate result)
+   {
+      result.setCoordinate(coords[i * 2], coords[i * 2 + 1]);
+   }
+}
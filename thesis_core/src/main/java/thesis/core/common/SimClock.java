@@ -0,0 +1,91 @@
+package thesis.core.common;
+
+/**
+ * Tracks the elapsed simulation time of a single simulation model.
+ *
+ * Each {@link thesis.core.SimModel} owns its own clock so that multiple
+ * independent simulations can be stepped concurrently within the same process.
+ * The fixed frame rate of all simulations is still defined by
+ * {@link SimTime#SIM_STEP_RATE_MS}.
+ */
+public class SimClock
+{
+   /**
+    * The amount of simulated time that has elapsed in milliseconds.
+    */
+   private long currentSimTimeMS;
+
+   /**
+    * The amount of real wall time spent stepping the simulation in
+    * milliseconds.
+    */
+   private long wallTime;
+
+   /**
+    * Total number of simulated frames.
+    */
+   private long frameCnt;
+
+   private SimTimeState timeState;
+
+   public SimClock()
+   {
+      timeState = new SimTimeState();
+      reset();
+   }
+
+   /**
+    * Reset the clock back to the start of a simulation.
+    */
+   public void reset()
+   {
+      currentSimTimeMS = 0;
+      wallTime = 0;
+      frameCnt = 0;
+   }
+
+   /**
+    * Increment the simulation time by one frame.
+    */
+   public void stepSimulation()
+   {
+      currentSimTimeMS += SimTime.SIM_STEP_RATE_MS;
+      frameCnt++;
+   }
+
+   public void incrementWallTime(long elapsed)
+   {
+      wallTime += elapsed;
+   }
+
+   /**
+    * @return The length in real wall time that the simulation has been running
+    *         in milliseconds.
+    */
+   public long getWallTime()
+   {
+      return wallTime;
+   }
+
+   /**
+    * @return The number of frames simulated since the last reset.
+    */
+   public long getFrameCount()
+   {
+      return frameCnt;
+   }
+
+   public SimTimeState getTimeState()
+   {
+      timeState.update(currentSimTimeMS, wallTime, frameCnt);
+      return timeState;
+   }
+
+   /**
+    * @return The amount of simulated time that has elapsed in milliseconds.
+    */
+   public long getCurrentSimTimeMS()
+   {
+      return currentSimTimeMS;
+   }
+}
@@ -0,0 +1,154 @@
+package thesis.core.common.graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An immutable compressed sparse row copy of a {@link Graph}.
+ *
+ * Vertices are renumbered to dense indices in ascending order of their IDs.
+ * The outgoing edges of a vertex occupy a contiguous range of edge indices in
+ * the same order as {@link Vertex#getOutgoingEdges()}. All data is held in
+ * primitive arrays so a compiled graph may be shared by any number of
+ * {@link GraphSearch} instances.
+ *
+ * @see Graph#compile()
+ */
+public class CompactGraph
+{
+   /**
+    * ID of the vertex at each index in ascending order.
+    */
+   private final int[] vertexIDs;
+
+   /**
+    * The outgoing edges of vertex i are [edgeOffsets[i], edgeOffsets[i+1]).
+    */
+   private final int[] edgeOffsets;
+
+   /**
+    * Index of the end vertex of each edge.
+    */
+   private final int[] edgeEnds;
+
+   /**
+    * Cost of traversing each edge.
+    */
+   private final double[] edgeCosts;
+
+   /**
+    * @param graph
+    *           The graph to copy.
+    * @throws IllegalArgumentException
+    *            Occurs when an edge has a negative cost.
+    */
+   <T> CompactGraph(Graph<T> graph)
+   {
+      Collection<Vertex<T>> vertices = graph.getVertices();
+      final int numVerts = vertices.size();
+
+      vertexIDs = new int[numVerts];
+      int i = 0;
+      for (Vertex<T> vert : vertices)
+      {
+         vertexIDs[i++] = vert.getID();
+      }
+      Arrays.sort(vertexIDs);
+
+      edgeOffsets = new int[numVerts + 1];
+      edgeEnds = new int[graph.getNumEdges()];
+      edgeCosts = new double[graph.getNumEdges()];
+
+      int edge = 0;
+      for (int v = 0; v < numVerts; ++v)
+      {
+         edgeOffsets[v] = edge;
+
+         List<DirectedEdge<T>> outEdges = graph.getVertexByID(vertexIDs[v]).getOutgoingEdges();
+         for (DirectedEdge<T> outEdge : outEdges)
+         {
+            if (outEdge.getCost() < 0)
+            {
+               throw new IllegalArgumentException("Edge costs cannot be negative.");
+            }
+
+            edgeEnds[edge] = getVertexIndex(outEdge.getEndVertex().getID());
+            edgeCosts[edge] = outEdge.getCost();
+            ++edge;
+         }
+      }
+      edgeOffsets[numVerts] = edge;
+   }
+
+   public int getNumVertices()
+   {
+      return vertexIDs.length;
+   }
+
+   public int getNumEdges()
+   {
+      return edgeEnds.length;
+   }
+
+   /**
+    * @param index
+    *           Index of a vertex.
+    * @return The ID of the vertex in the source graph.
+    */
+   public int getVertexID(int index)
+   {
+      return vertexIDs[index];
+   }
+
+   /**
+    * @param id
+    *           ID of a vertex in the source graph.
+    * @return The index of the vertex or a negative value if no such vertex
+    *         exists.
+    */
+   public int getVertexIndex(int id)
+   {
+      return Arrays.binarySearch(vertexIDs, id);
+   }
+
+   /**
+    * @param index
+    *           Index of a vertex.
+    * @return The index of the first outgoing edge of the vertex.
+    */
+   public int getFirstEdge(int index)
+   {
+      return edgeOffsets[index];
+   }
+
+   /**
+    * @param index
+    *           Index of a vertex.
+    * @return One past the index of the last outgoing edge of the vertex.
+    */
+   public int getEndEdge(int index)
+   {
+      return edgeOffsets[index + 1];
+   }
+
+   /**
+    * @param edge
+    *           Index of an edge.
+    * @return The index of the vertex the edge leads to.
+    */
+   public int getEdgeEnd(int edge)
+   {
+      return edgeEnds[edge];
+   }
+
+   /**
+    * @param edge
+    *           Index of an edge.
+    * @return The cost of traversing the edge.
+    */
+   public double getEdgeCost(int edge)
+   {
+      return edgeCosts[edge];
+   }
+}
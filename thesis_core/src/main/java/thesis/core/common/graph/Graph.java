@@ -1,10 +1,10 @@
 package thesis.core.common.graph;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 
@@ -181,9 +181,25 @@ public class Graph<T>
       return find;
    }
 
+   /**
+    * Compile the current vertices and edges into an immutable compressed
+    * sparse row graph for repeated cost aware searches. Later changes to this
+    * graph are not reflected in the compiled graph.
+    *
+    * @return The compiled graph.
+    * @throws IllegalArgumentException
+    *            Occurs when an edge has a negative cost.
+    * @see GraphSearch
+    */
+   public CompactGraph compile()
+   {
+      return new CompactGraph(this);
+   }
+
    /**
     * Performs a breadth first search across the graph to find the requested
-    * path.
+    * path. Edge costs are ignored, see {@link #compile()} for cost aware
+    * searches.
     *
     * @param start
     *           The vertex to start at.
@@ -201,7 +217,7 @@ public class Graph<T>
       }
 
       // Simple breadth-first-search algorithm
-      Queue<Vertex<T>> searchQ = new LinkedList<Vertex<T>>();
+      Queue<Vertex<T>> searchQ = new ArrayDeque<Vertex<T>>();
       searchQ.add(start);
       start.searchCost = 0;
       boolean targetFound = false;
@@ -249,11 +265,9 @@ public class Graph<T>
          Vertex<T> edgeStart = pathByVertex.get(i);
          Vertex<T> edgeEnd = pathByVertex.get(i - 1);
 
-         // This is horribly inefficient, sort the edges somehow or give them
-         // lookup ids
-         for (DirectedEdge<T> edge : edges)
+         for (DirectedEdge<T> edge : edgeStart.getOutgoingEdges())
          {
-            if (edge.getStartVertex().getID() == edgeStart.getID() && edge.getEndVertex().getID() == edgeEnd.getID())
+            if (edge.getEndVertex().getID() == edgeEnd.getID())
             {
                path.add(new DirectedEdge<T>(edge));
                break;
@@ -0,0 +1,336 @@
+package thesis.core.common.graph;
+
+import java.util.Arrays;
+
+/**
+ * Cost aware shortest path searches over a {@link CompactGraph}.
+ *
+ * All search state is held in primitive arrays sized to the graph when the
+ * search is created. Searches reuse the arrays so repeated queries do not
+ * allocate. The results of a search remain valid until the next search. A
+ * search instance must not be shared between threads but any number of
+ * instances may share a graph.
+ */
+public class GraphSearch
+{
+   /**
+    * Estimates the remaining cost from a vertex to the goal for A* searches.
+    * Estimates must never exceed the true remaining cost.
+    */
+   public interface Heuristic
+   {
+      /**
+       * @param index
+       *           Index of the vertex being expanded.
+       * @param goal
+       *           Index of the goal vertex.
+       * @return A lower bound of the cost from the vertex to the goal.
+       */
+      double estimate(int index, int goal);
+   }
+
+   /**
+    * Parent of the start vertex and of vertices that have not been reached.
+    */
+   public static final int NONE = -1;
+
+   private final CompactGraph graph;
+
+   /**
+    * Per vertex state. The state of a vertex is only valid if its stamp
+    * matches the stamp of the current search so the arrays are never
+    * cleared.
+    */
+   private final int[] stamp;
+   private final double[] cost;
+   private final int[] parentEdge;
+   private final int[] parentVertex;
+   private int curStamp;
+
+   /**
+    * The open set as a binary min heap of vertex indices keyed by estimated
+    * total cost. heapPos holds the heap position of each vertex or NONE if the
+    * vertex is not in the heap.
+    */
+   private final int[] heap;
+   private final double[] heapKey;
+   private final int[] heapPos;
+   private int heapSize;
+
+   /**
+    * @param graph
+    *           Search this graph.
+    */
+   public GraphSearch(CompactGraph graph)
+   {
+      if (graph == null)
+      {
+         throw new NullPointerException("graph cannot be null.");
+      }
+
+      this.graph = graph;
+
+      final int numVerts = graph.getNumVertices();
+      stamp = new int[numVerts];
+      cost = new double[numVerts];
+      parentEdge = new int[numVerts];
+      parentVertex = new int[numVerts];
+      curStamp = 0;
+
+      heap = new int[numVerts];
+      heapKey = new double[numVerts];
+      heapPos = new int[numVerts];
+      heapSize = 0;
+   }
+
+   public CompactGraph getGraph()
+   {
+      return graph;
+   }
+
+   /**
+    * Find the cheapest path between two vertices with Dijkstra's algorithm.
+    *
+    * @param start
+    *           Index of the first vertex of the path.
+    * @param goal
+    *           Index of the last vertex of the path.
+    * @return True if the goal is reachable from the start.
+    */
+   public boolean findPath(int start, int goal)
+   {
+      return search(start, goal, null);
+   }
+
+   /**
+    * Find the cheapest path between two vertices with A*.
+    *
+    * @param start
+    *           Index of the first vertex of the path.
+    * @param goal
+    *           Index of the last vertex of the path.
+    * @param heuristic
+    *           Estimates the remaining cost to the goal.
+    * @return True if the goal is reachable from the start.
+    */
+   public boolean findPath(int start, int goal, Heuristic heuristic)
+   {
+      if (heuristic == null)
+      {
+         throw new NullPointerException("heuristic cannot be null.");
+      }
+
+      return search(start, goal, heuristic);
+   }
+
+   /**
+    * Find the cheapest path from a vertex to every reachable vertex with
+    * Dijkstra's algorithm.
+    *
+    * @param start
+    *           Index of the first vertex of every path.
+    */
+   public void findAllPaths(int start)
+   {
+      search(start, NONE, null);
+   }
+
+   /**
+    * @param index
+    *           Index of a vertex.
+    * @return True if the last search reached the vertex with its cheapest
+    *         path. Searches for a single goal may stop before settling other
+    *         vertices.
+    */
+   public boolean isReached(int index)
+   {
+      return stamp[index] == curStamp && heapPos[index] == NONE;
+   }
+
+   /**
+    * @param index
+    *           Index of a reached vertex.
+    * @return The cost of the cheapest path from the start to the vertex.
+    */
+   public double getCost(int index)
+   {
+      return cost[index];
+   }
+
+   /**
+    * @param index
+    *           Index of a reached vertex.
+    * @return The index of the edge leading to the vertex along its cheapest
+    *         path or {@link #NONE} for the start vertex.
+    */
+   public int getParentEdge(int index)
+   {
+      return parentEdge[index];
+   }
+
+   /**
+    * @param index
+    *           Index of a reached vertex.
+    * @return The index of the vertex preceding the vertex along its cheapest
+    *         path or {@link #NONE} for the start vertex.
+    */
+   public int getParentVertex(int index)
+   {
+      return parentVertex[index];
+   }
+
+   /**
+    * Copy the cheapest path to a reached vertex.
+    *
+    * @param goal
+    *           Index of a reached vertex.
+    * @param result
+    *           The vertex indices from the start to the goal are copied to the
+    *           beginning of this array. It must be large enough to hold every
+    *           vertex of the path.
+    * @return The number of vertices in the path.
+    */
+   public int getPath(int goal, int[] result)
+   {
+      int numVerts = 0;
+      for (int v = goal; v != NONE; v = parentVertex[v])
+      {
+         result[numVerts++] = v;
+      }
+
+      // The path was copied from the goal back to the start, reverse it
+      for (int i = 0, j = numVerts - 1; i < j; ++i, --j)
+      {
+         final int temp = result[i];
+         result[i] = result[j];
+         result[j] = temp;
+      }
+      return numVerts;
+   }
+
+   private boolean search(int start, int goal, Heuristic heuristic)
+   {
+      if (curStamp == Integer.MAX_VALUE)
+      {
+         Arrays.fill(stamp, 0);
+         curStamp = 0;
+      }
+      ++curStamp;
+      heapSize = 0;
+
+      discover(start, 0, NONE, NONE);
+      heapPush(start, heuristic != null ? heuristic.estimate(start, goal) : 0);
+
+      boolean goalFound = false;
+      while (heapSize > 0 && !goalFound)
+      {
+         final int v = heapPop();
+         if (v == goal)
+         {
+            goalFound = true;
+         }
+         else
+         {
+            final int endEdge = graph.getEndEdge(v);
+            for (int e = graph.getFirstEdge(v); e < endEdge; ++e)
+            {
+               final int w = graph.getEdgeEnd(e);
+               final double newCost = cost[v] + graph.getEdgeCost(e);
+               if (stamp[w] != curStamp || newCost < cost[w])
+               {
+                  discover(w, newCost, e, v);
+                  final double key = heuristic != null ? newCost + heuristic.estimate(w, goal) : newCost;
+                  if (heapPos[w] == NONE)
+                  {
+                     // Inexact heuristics may reopen settled vertices
+                     heapPush(w, key);
+                  }
+                  else
+                  {
+                     heapDecrease(w, key);
+                  }
+               }
+            }
+         }
+      }
+
+      return goalFound;
+   }
+
+   private void discover(int index, double pathCost, int edge, int parent)
+   {
+      if (stamp[index] != curStamp)
+      {
+         stamp[index] = curStamp;
+         heapPos[index] = NONE;
+      }
+      cost[index] = pathCost;
+      parentEdge[index] = edge;
+      parentVertex[index] = parent;
+   }
+
+   private void heapPush(int index, double key)
+   {
+      siftUp(heapSize++, index, key);
+   }
+
+   private void heapDecrease(int index, double key)
+   {
+      siftUp(heapPos[index], index, key);
+   }
+
+   private void siftUp(int pos, int index, double key)
+   {
+      while (pos > 0)
+      {
+         final int parent = (pos - 1) / 2;
+         if (heapKey[parent] <= key)
+         {
+            break;
+         }
+         place(pos, heap[parent], heapKey[parent]);
+         pos = parent;
+      }
+      place(pos, index, key);
+   }
+
+   private int heapPop()
+   {
+      final int top = heap[0];
+      heapPos[top] = NONE;
+      --heapSize;
+
+      if (heapSize > 0)
+      {
+         // Sift the last entry down from the root
+         final int last = heap[heapSize];
+         final double lastKey = heapKey[heapSize];
+         int pos = 0;
+         int child = 1;
+         while (child < heapSize)
+         {
+            if (child + 1 < heapSize && heapKey[child + 1] < heapKey[child])
+            {
+               ++child;
+            }
+            if (lastKey <= heapKey[child])
+            {
+               break;
+            }
+            place(pos, heap[child], heapKey[child]);
+            pos = child;
+            child = pos * 2 + 1;
+         }
+         place(pos, last, lastKey);
+      }
+
+      return top;
+   }
+
+   private void place(int pos, int index, double key)
+   {
+      heap[pos] = index;
+      heapKey[pos] = key;
+      heapPos[index] = pos;
+   }
+}
@@ -7,6 +7,7 @@ import thesis.core.belief.WorldBelief;
 import thesis.core.common.Trapezoid;
 import thesis.core.common.WorldCoordinate;
 import thesis.core.common.WorldPose;
+import thesis.core.world.CellSpans;
 import thesis.core.world.WorldGIS;
 
 public class SensorGroup
@@ -16,10 +17,16 @@ public class SensorGroup
    private WorldGIS gis;
    private double maxSensingDistance;
 
+   /**
+    * Reused to hold the cells within the footprint of each sensor.
+    */
+   private CellSpans footprint;
+
    public SensorGroup(SensorScanLogic scanner, WorldGIS gis)
    {
       this.scanner = scanner;
       this.gis = gis;
+      footprint = new CellSpans();
       sensors = new ArrayList<Sensor>();
       maxSensingDistance = -1;
    }
@@ -43,7 +50,8 @@ public class SensorGroup
          Trapezoid fov = s.getViewFootPrint();
          if (!s.isFocusedScanning())
          {
-            scanner.simulateScan(s.getType(), s.getAzimuth(), belief, gis.getCellsInRectangle(fov), simTime);
+            gis.getCellSpansInRectangle(fov, footprint);
+            scanner.simulateScan(s.getType(), s.getAzimuth(), belief, footprint, simTime);
             // TODO Implement focused scan detection logic...if any
          }
       }
@@ -0,0 +1,303 @@
+package thesis.core.sensors;
+
+import thesis.core.targets.TargetTypeConfigs;
+
+/**
+ * Angle dependent sensor probabilities.
+ *
+ * The probabilities of detecting a target, misclassifying a target, and the
+ * confidence in a heading measurement all degrade linearly with the difference
+ * between the relative heading of the sensor and target and the target type's
+ * best detection angle. The probabilities only depend on the sensor type, the
+ * target type(s), and the relative heading so they are sampled once into
+ * tables indexed by the quantized relative heading. Relative headings outside
+ * of the sampled range and models configured for exact evaluation compute the
+ * probabilities directly.
+ */
+public class SensorProbTables
+{
+   private static final double DETECT_ANGLE_DEGRADATION_SLOPE = -0.005555556f;
+   private static final double MIN_DETECT_VALUE = 0.001;
+
+   /**
+    * Probability of misclassification when the sensor is not capable of
+    * misclassifying one type as another.
+    */
+   private static final double MIN_MISCLASS_PROB = 0.0000001;
+
+   /**
+    * Relative headings are quantized to this many samples per degree.
+    */
+   private static final int SAMPLES_PER_DEG = 10;
+
+   /**
+    * Tables cover relative headings in the range [0, MAX_TABLE_HDG] degrees.
+    */
+   private static final double MAX_TABLE_HDG = 360;
+
+   private static final int NUM_SAMPLES = (int) (MAX_TABLE_HDG * SAMPLES_PER_DEG) + 1;
+
+   private final SensorProbs snsrProbs;
+   private final TargetTypeConfigs tgtTypeCfgs;
+
+   /**
+    * If true then the tables are bypassed and all probabilities are computed
+    * directly.
+    */
+   private boolean exact;
+
+   private int numTgtTypes;
+
+   /**
+    * Indexed by [sensor type][target type][sample].
+    */
+   private double[] detectTable;
+
+   /**
+    * Indexed by [sensor type][real target type][detected target type][sample].
+    */
+   private double[] misclassTable;
+
+   /**
+    * Indexed by [sensor type][target type][sample].
+    */
+   private double[] hdgCoeffTable;
+
+   /**
+    * @param snsrProbs
+    *           The base probabilities of each sensor type.
+    * @param tgtTypeCfgs
+    *           Provides the best detection angle of each target type.
+    * @param exact
+    *           If true then probabilities are always computed directly instead
+    *           of being read from the tables. Tables are not built.
+    */
+   public SensorProbTables(SensorProbs snsrProbs, TargetTypeConfigs tgtTypeCfgs, boolean exact)
+   {
+      if (snsrProbs == null)
+      {
+         throw new NullPointerException("Sensor probabilities cannot be null.");
+      }
+
+      if (tgtTypeCfgs == null)
+      {
+         throw new NullPointerException("Target type configurations cannot be null.");
+      }
+
+      this.snsrProbs = snsrProbs;
+      this.tgtTypeCfgs = tgtTypeCfgs;
+      setExact(exact);
+   }
+
+   /**
+    * @param exact
+    *           If true then probabilities are always computed directly instead
+    *           of being read from the tables.
+    */
+   public void setExact(boolean exact)
+   {
+      this.exact = exact;
+      if (!exact && detectTable == null)
+      {
+         buildTables();
+      }
+   }
+
+   public boolean isExact()
+   {
+      return exact;
+   }
+
+   public SensorProbs getSensorProbabilities()
+   {
+      return snsrProbs;
+   }
+
+   private void buildTables()
+   {
+      final int numSnsrTypes = snsrProbs.getNumSensorTypes();
+      numTgtTypes = tgtTypeCfgs.getNumTypes();
+
+      detectTable = new double[numSnsrTypes * numTgtTypes * NUM_SAMPLES];
+      hdgCoeffTable = new double[numSnsrTypes * numTgtTypes * NUM_SAMPLES];
+      misclassTable = new double[numSnsrTypes * numTgtTypes * numTgtTypes * NUM_SAMPLES];
+
+      for (int s = 0; s < numSnsrTypes; ++s)
+      {
+         for (int t = 0; t < numTgtTypes; ++t)
+         {
+            final int offset = (s * numTgtTypes + t) * NUM_SAMPLES;
+            for (int i = 0; i < NUM_SAMPLES; ++i)
+            {
+               final double relHdg = (double) i / SAMPLES_PER_DEG;
+               detectTable[offset + i] = exactProbOfDetect(s, t, relHdg);
+               hdgCoeffTable[offset + i] = exactHeadingConfidenceCoeff(s, t, relHdg);
+            }
+
+            for (int d = 0; d < numTgtTypes; ++d)
+            {
+               final int misclassOffset = ((s * numTgtTypes + t) * numTgtTypes + d) * NUM_SAMPLES;
+               for (int i = 0; i < NUM_SAMPLES; ++i)
+               {
+                  final double relHdg = (double) i / SAMPLES_PER_DEG;
+                  misclassTable[misclassOffset + i] = exactProbOfMisclassify(s, t, d, relHdg);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * @param relHdg
+    *           An absolute relative heading in degrees.
+    * @return The nearest sample of the relative heading or -1 if the heading
+    *         is not within the tables.
+    */
+   private int toSample(double relHdg)
+   {
+      int sample = -1;
+      if (!exact && relHdg <= MAX_TABLE_HDG)
+      {
+         sample = (int) (relHdg * SAMPLES_PER_DEG + 0.5);
+      }
+      return sample;
+   }
+
+   /**
+    * Computes the probability that the given sensor detects the given target
+    * type when they are offset by the given angles. Assumes the best
+    * probability of detection occurs when the relative angle between the sensor
+    * and target is at zero degrees off from the target's "best" angle. Any
+    * offset from "best" suffers a linear degradation approaching zero when the
+    * relative difference is 180 degrees off from "best" angle.
+    *
+    * @param snsrType
+    *           The type of sensor performing the detection.
+    * @param tgtType
+    *           The type of target being detected.
+    * @param snsrHdg
+    *           Heading of the sensor.
+    * @param tgtHdg
+    *           Heading of the target.
+    * @return The probability of detection.
+    */
+   public double probOfDetect(int snsrType, int tgtType, double snsrHdg, double tgtHdg)
+   {
+      final double relHdg = Math.abs(tgtHdg - snsrHdg);
+      final int sample = toSample(relHdg);
+      if (sample < 0)
+      {
+         return exactProbOfDetect(snsrType, tgtType, relHdg);
+      }
+      return detectTable[(snsrType * numTgtTypes + tgtType) * NUM_SAMPLES + sample];
+   }
+
+   /**
+    * Compute the probability that the detected target type is actually a
+    * mistake and that the true target type is instead the suspected target
+    * type. The function asssumes that the worst case scenario for
+    * misclassification occurs when the relative heading between the sensor and
+    * suspected target are at 180 degrees from the target's best detection angle
+    * (example: staring at the the target from the back instead of the front).
+    * The probability of misclassification decays linearly as the relative
+    * heading approaches zero degrees off from the suspected target's best
+    * angle.
+    *
+    * @param snsrType
+    *           The type of sensor performing the classification.
+    * @param suspectedRealTgtType
+    *           Compute the probability that the detectedType is wrong and the
+    *           target is actually this type.
+    * @param detectedType
+    *           The type of target the sensor believes it detected.
+    * @param snsrHdg
+    *           Heading of the sensor performing the classification.
+    * @param suspectedTgtTypeHdgEst
+    *           The estimated heading of the suspected target type at the same
+    *           location as the detected type.
+    * @return The probability that the suspected target type was misclassified
+    *         as the detected target type.
+    */
+   public double probOfMisclassify(int snsrType, int suspectedRealTgtType, int detectedType, double snsrHdg,
+         double suspectedTgtTypeHdgEst)
+   {
+      final double relHdg = Math.abs(suspectedTgtTypeHdgEst - snsrHdg);
+      final int sample = toSample(relHdg);
+      if (sample < 0)
+      {
+         return exactProbOfMisclassify(snsrType, suspectedRealTgtType, detectedType, relHdg);
+      }
+      return misclassTable[((snsrType * numTgtTypes + suspectedRealTgtType) * numTgtTypes + detectedType)
+            * NUM_SAMPLES + sample];
+   }
+
+   /**
+    * Compute the confidence of a sensor's heading measurement of a target.
+    *
+    * @param snsrType
+    *           The type of sensor measuring the heading.
+    * @param tgtType
+    *           The type of target being measured.
+    * @param snsrHdg
+    *           Heading of the sensor.
+    * @param tgtHdg
+    *           Heading of the target.
+    * @return The confidence coefficient of the measurement.
+    */
+   public double headingConfidenceCoeff(int snsrType, int tgtType, double snsrHdg, double tgtHdg)
+   {
+      final double relHdg = Math.abs(tgtHdg - snsrHdg);
+      final int sample = toSample(relHdg);
+      if (sample < 0)
+      {
+         return exactHeadingConfidenceCoeff(snsrType, tgtType, relHdg);
+      }
+      return hdgCoeffTable[(snsrType * numTgtTypes + tgtType) * NUM_SAMPLES + sample];
+   }
+
+   private double exactProbOfDetect(int snsrType, int tgtType, double relHdg)
+   {
+      double deltaFromBestAngle = Math.abs(relHdg - tgtTypeCfgs.getBestAngle(tgtType));
+
+      double percentOfBestProbAngle = (1.0 - Math.abs(DETECT_ANGLE_DEGRADATION_SLOPE * deltaFromBestAngle))
+            + MIN_DETECT_VALUE;
+      return percentOfBestProbAngle * snsrProbs.getSensorDetectTgtProb(snsrType, tgtType);
+   }
+
+   private double exactProbOfMisclassify(int snsrType, int suspectedRealTgtType, int detectedType, double relHdg)
+   {
+      // TODO Add error catching if suspected type and detected type match
+
+      double worstProbOfMisclass = snsrProbs.getSensorMisclassifyProb(snsrType, suspectedRealTgtType, detectedType);
+      double probOfMisClass = MIN_MISCLASS_PROB;
+
+      if (worstProbOfMisclass > 0d)
+      {
+         double deltaFromBestAngle = Math.abs(relHdg - tgtTypeCfgs.getBestAngle(suspectedRealTgtType));
+
+         double percentOfBestProbAngle = Math.abs(DETECT_ANGLE_DEGRADATION_SLOPE * deltaFromBestAngle)
+               + MIN_DETECT_VALUE;
+         probOfMisClass = percentOfBestProbAngle * worstProbOfMisclass;
+      }
+      else
+      {
+         // worstProbOfMisclass defaults to -1f
+
+         // Sensor is not capable of misclassifying suspectedRealTgtType as
+         // detectedType (or no data was entered into the configuration files
+         // for this combo).
+      }
+
+      return probOfMisClass;
+   }
+
+   private double exactHeadingConfidenceCoeff(int snsrType, int tgtType, double relHdg)
+   {
+      double bestHdgCoeff = snsrProbs.getSensorHeadingCoeff(snsrType, tgtType);
+      double deltaFromBestAngle = Math.abs(relHdg - tgtTypeCfgs.getBestAngle(tgtType));
+
+      double percentOfBestProbAngle = (1.0 - Math.abs(DETECT_ANGLE_DEGRADATION_SLOPE * deltaFromBestAngle))
+            + MIN_DETECT_VALUE;
+      return percentOfBestProbAngle * bestHdgCoeff;
+   }
+}
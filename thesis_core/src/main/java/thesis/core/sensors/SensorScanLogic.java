@@ -1,5 +1,6 @@
 package thesis.core.sensors;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
@@ -10,25 +11,68 @@ import thesis.core.belief.WorldBelief;
 import thesis.core.common.CellCoordinate;
 import thesis.core.targets.Target;
 import thesis.core.targets.TargetMgr;
+import thesis.core.world.CellSpans;
 
 public class SensorScanLogic
 {
-   private static final double detectAngleDegradationSlope = -0.005555556f;
-   private static final double minDetectValue = 0.001;
-
    //These prevent NaN and positive/negative infinity issues
    private static final double MIN_BAYES_LIMIT = 0.000000000001;
    private static final double MAX_BAYES_LIMIT = 0.999999999999;
 
    private SensorProbs snsrProbs;
+   private SensorProbTables probTables;
    private TargetMgr tgtMgr;
    private Random randGen;
 
+   /**
+    * Reused to hold the targets in the cell being scanned.
+    */
+   private List<Target> tgtsInCell;
+
+   /**
+    * Reused to hold the coordinate of the cell being scanned.
+    */
+   private CellCoordinate scanCoord;
+
+   /**
+    * Create scan logic that computes all angle dependent probabilities exactly.
+    *
+    * @param pyldProbs
+    *           The base probabilities of each sensor type.
+    * @param tgtMgr
+    *           The true state of all targets.
+    * @param randGen
+    *           Source of randomness for the scan results.
+    */
    public SensorScanLogic(SensorProbs pyldProbs, TargetMgr tgtMgr, Random randGen)
+   {
+      this(pyldProbs, null, tgtMgr, randGen);
+   }
+
+   /**
+    * Create scan logic that shares precomputed angle dependent probabilities
+    * with the other sensors in the simulation.
+    *
+    * @param probTables
+    *           The angle dependent probabilities of each sensor type.
+    * @param tgtMgr
+    *           The true state of all targets.
+    * @param randGen
+    *           Source of randomness for the scan results.
+    */
+   public SensorScanLogic(SensorProbTables probTables, TargetMgr tgtMgr, Random randGen)
+   {
+      this(probTables.getSensorProbabilities(), probTables, tgtMgr, randGen);
+   }
+
+   private SensorScanLogic(SensorProbs pyldProbs, SensorProbTables probTables, TargetMgr tgtMgr, Random randGen)
    {
       this.snsrProbs = pyldProbs;
+      this.probTables = probTables;
       this.tgtMgr = tgtMgr;
       this.randGen = randGen;
+      tgtsInCell = new ArrayList<Target>();
+      scanCoord = new CellCoordinate();
    }
 
    public SensorProbs getSensorProbabilities()
@@ -47,6 +91,36 @@ public class SensorScanLogic
       }
    }
 
+   /**
+    * Simulate a scan of every cell within a sensor footprint.
+    *
+    * @param snsrType
+    *           The type of sensor performing the scan.
+    * @param snsrHdg
+    *           The heading of the sensor.
+    * @param belief
+    *           The world belief to update with the scan results.
+    * @param snsrFOV
+    *           The cells within the sensor footprint.
+    * @param simTime
+    *           The current simulation time.
+    */
+   public void simulateScan(int snsrType, double snsrHdg, WorldBelief belief, CellSpans snsrFOV, long simTime)
+   {
+      final int NUM_SPANS = snsrFOV.getNumSpans();
+
+      for (int span = 0; span < NUM_SPANS; ++span)
+      {
+         final int row = snsrFOV.getRow(span);
+         final int lastCol = snsrFOV.getLastColumn(span);
+         for (int col = snsrFOV.getFirstColumn(span); col <= lastCol; ++col)
+         {
+            scanCoord.setCoordinate(row, col);
+            scanCell(snsrType, scanCoord, snsrHdg, simTime, belief);
+         }
+      }
+   }
+
    private void scanCell(int snsrType, CellCoordinate cell, double snsrHdg, long simTime, WorldBelief worldBelief)
    {
       CellBelief cellBelief = worldBelief.getCellBelief(cell);
@@ -94,7 +168,8 @@ public class SensorScanLogic
 
    private List<Target> detectTargets(int snsrType, CellCoordinate cell, double snsrHdg, CellBelief cellBelief, WorldBelief worldBelief)
    {
-      List<Target> tgtsTruth = tgtMgr.getLivingTargetsInRegion(cell);
+      List<Target> tgtsTruth = tgtsInCell;
+      tgtMgr.getLivingTargetsInRegion(cell, tgtsTruth);
       if (tgtsTruth.size() > 0)
       {
          Iterator<Target> itr = tgtsTruth.iterator();
@@ -258,84 +333,27 @@ public class SensorScanLogic
       return maxMetric;
    }
 
-   /**
-    * Computes the probability that the given sensor detects the given target
-    * type when they are offset by the given angles. Assumes the best
-    * probability of detection occurs when the relative angle between the sensor
-    * and target is at zero degrees off from the target's "best" angle. Any
-    * offset from "best" suffers a linear degradation approaching zero when the
-    * relative difference is 180 degrees off from "best" angle.
-    *
-    * @param snsrType
-    * @param tgtType
-    * @param snsrHdg
-    * @param tgtHdg
-    * @return
-    */
+   private SensorProbTables getProbTables()
+   {
+      // Target type configurations are not available until the target manager
+      // is reset so exact tables are created on first use
+      if (probTables == null)
+      {
+         probTables = new SensorProbTables(snsrProbs, tgtMgr.getTypeConfigs(), true);
+      }
+      return probTables;
+   }
+
    private double probOfDetect(int snsrType, int tgtType, double snsrHdg, double tgtHdg)
    {
-      double relHdg = Math.abs(tgtHdg - snsrHdg);
-      double deltaFromBestAngle = Math.abs(relHdg - tgtMgr.getTypeConfigs().getBestAngle(tgtType));
-
-      double percentOfBestProbAngle = (1.0 - Math.abs(detectAngleDegradationSlope * deltaFromBestAngle))
-            + minDetectValue;
-      double probDetection = percentOfBestProbAngle * snsrProbs.getSensorDetectTgtProb(snsrType, tgtType);
-      return probDetection;
-      // return snsrProbs.getSensorDetectTgtProb(snsrType, tgtType);
+      return getProbTables().probOfDetect(snsrType, tgtType, snsrHdg, tgtHdg);
    }
 
-   /**
-    * Compute the probability that the detected target type is actually a
-    * mistake and that the true target type is instead the suspected target
-    * type. The function asssumes that the worst case scenario for
-    * misclassification occurs when the relative heading between the sensor and
-    * suspected target are at 180 degrees from the target's best detection angle
-    * (example: staring at the the target from the back instead of the front).
-    * The probability of misclassification decays linearly as the relative
-    * heading approaches zero degrees off from the suspected target's best
-    * angle.
-    *
-    * @param snsrType
-    *           The type of sensor performing the classification.
-    * @param suspectedRealTgtType
-    *           Compute the probability that the detectedType is wrong and the
-    *           target is actually this type.
-    * @param detectedType
-    *           The type of target the sensor believes it detected.
-    * @param snsrHdg
-    *           Heading of the sensor performing the classification.
-    * @param suspectedTgtTypeHdgEst
-    *           The estimated heading of the suspected target type at the same
-    *           location as the detected type.
-    * @return The probability that the suspected target type was misclassified
-    *         as the detected target type.
-    */
    private double probOfMisclassify(int snsrType, int suspectedRealTgtType, int detectedType, double snsrHdg,
          double suspectedTgtTypeHdgEst)
    {
-      // TODO Add error catching if suspected type and detected type match
-
-      double worstProbOfMisclass = snsrProbs.getSensorMisclassifyProb(snsrType, suspectedRealTgtType, detectedType);
-      double probOfMisClass = 0.0000001;
-
-      if (worstProbOfMisclass > 0d)
-      {
-         double relHdg = Math.abs(suspectedTgtTypeHdgEst - snsrHdg);
-         double deltaFromBestAngle = Math.abs(relHdg - tgtMgr.getTypeConfigs().getBestAngle(suspectedRealTgtType));
-
-         double percentOfBestProbAngle = Math.abs(detectAngleDegradationSlope * deltaFromBestAngle) + minDetectValue;
-         probOfMisClass = percentOfBestProbAngle * worstProbOfMisclass;
-      }
-      else
-      {
-         // worstProbOfMisclass defaults to -1f
-
-         // Sensor is not capable of misclassifying suspectedRealTgtType as
-         // detectedType (or no data was entered into the configuration files
-         // for this combo).
-      }
-
-      return probOfMisClass;
+      return getProbTables().probOfMisclassify(snsrType, suspectedRealTgtType, detectedType, snsrHdg,
+            suspectedTgtTypeHdgEst);
    }
 
    private double getSumProbsAllTargets(int snsrType, double snsrHdg, CellBelief cellBelief, int detectedTgtType,
@@ -367,16 +385,7 @@ public class SensorScanLogic
 
    private double computeHeadingConfidenceCoeff(int snsrType, int tgtType, double snsrHdg, double tgtHdg)
    {
-      double bestHdgCoeff = snsrProbs.getSensorHeadingCoeff(snsrType, tgtType);
-      double bestAngle = tgtMgr.getTypeConfigs().getBestAngle(tgtType);
-
-      double relHdg = Math.abs(tgtHdg - snsrHdg);
-      double deltaFromBestAngle = Math.abs(relHdg - bestAngle);
-
-      double percentOfBestProbAngle = (1.0 - Math.abs(detectAngleDegradationSlope * deltaFromBestAngle))
-            + minDetectValue;
-      double hdgConfCoeff = percentOfBestProbAngle * bestHdgCoeff;
-      return hdgConfCoeff;
+      return getProbTables().headingConfidenceCoeff(snsrType, tgtType, snsrHdg, tgtHdg);
    }
 
    private double computeHeadingEstimate(int tgtType, double hdgConfCoeff, double prevEstHdg, CellCoordinate cell)
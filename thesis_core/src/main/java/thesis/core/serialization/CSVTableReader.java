@@ -0,0 +1,223 @@
+package thesis.core.serialization;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams the rows of a csv file with a header row one row at a time.
+ *
+ * Columns are looked up by their header name ignoring case, the same way the
+ * database csvread() function resolves them. Fields may be wrapped in double
+ * quotes and surrounding whitespace is ignored. Blank lines are skipped.
+ */
+public class CSVTableReader implements Closeable
+{
+   private final File csvFile;
+   private final BufferedReader reader;
+
+   /**
+    * Upper case header names in column order.
+    */
+   private final List<String> header;
+
+   /**
+    * Fields of the current row.
+    */
+   private final List<String> fields;
+
+   private int lineNum;
+
+   /**
+    * Open a csv file and read its header row.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @throws IOException
+    *            Occurs when the file cannot be read or has no header row.
+    */
+   public CSVTableReader(File csvFile) throws IOException
+   {
+      this.csvFile = csvFile;
+      reader = Files.newBufferedReader(csvFile.toPath(), StandardCharsets.UTF_8);
+      header = new ArrayList<String>();
+      fields = new ArrayList<String>();
+      lineNum = 0;
+
+      try
+      {
+         if (!next())
+         {
+            throw new IOException("Missing header row in " + csvFile.getAbsolutePath());
+         }
+
+         for (String name : fields)
+         {
+            header.add(name.toUpperCase(Locale.ROOT));
+         }
+         fields.clear();
+      }
+      catch (IOException e)
+      {
+         reader.close();
+         throw e;
+      }
+   }
+
+   /**
+    * Advance to the next row.
+    *
+    * @return False if there are no more rows.
+    * @throws IOException
+    *            Occurs when the file cannot be read.
+    */
+   public boolean next() throws IOException
+   {
+      String line = null;
+      do
+      {
+         line = reader.readLine();
+         ++lineNum;
+      } while (line != null && line.trim().isEmpty());
+
+      fields.clear();
+      if (line != null)
+      {
+         splitLine(line);
+      }
+      return line != null;
+   }
+
+   /**
+    * Find the index of a column.
+    *
+    * @param name
+    *           The header name of the column.
+    * @return The index of the column within each row.
+    * @throws IOException
+    *            Occurs when the file has no such column.
+    */
+   public int getColumn(String name) throws IOException
+   {
+      final int column = header.indexOf(name.toUpperCase(Locale.ROOT));
+      if (column < 0)
+      {
+         throw new IOException("Missing column " + name + " in " + csvFile.getAbsolutePath());
+      }
+      return column;
+   }
+
+   /**
+    * @param column
+    *           Index of a column from {@link #getColumn(String)}.
+    * @return The value of the column in the current row.
+    * @throws IOException
+    *            Occurs when the value is missing or is not an integer.
+    */
+   public int getInt(int column) throws IOException
+   {
+      final String field = getField(column);
+      try
+      {
+         return Integer.parseInt(field);
+      }
+      catch (NumberFormatException e)
+      {
+         throw new IOException(formatError("Invalid integer '" + field + "'"));
+      }
+   }
+
+   /**
+    * @param column
+    *           Index of a column from {@link #getColumn(String)}.
+    * @return The value of the column in the current row.
+    * @throws IOException
+    *            Occurs when the value is missing or is not a number.
+    */
+   public double getDouble(int column) throws IOException
+   {
+      final String field = getField(column);
+      try
+      {
+         return Double.parseDouble(field);
+      }
+      catch (NumberFormatException e)
+      {
+         throw new IOException(formatError("Invalid number '" + field + "'"));
+      }
+   }
+
+   @Override
+   public void close() throws IOException
+   {
+      reader.close();
+   }
+
+   private String getField(int column) throws IOException
+   {
+      if (column >= fields.size())
+      {
+         throw new IOException(formatError("Missing value for column " + header.get(column)));
+      }
+      return fields.get(column);
+   }
+
+   private String formatError(String msg)
+   {
+      return msg + " at line " + lineNum + " of " + csvFile.getAbsolutePath();
+   }
+
+   /**
+    * Split a line into trimmed fields, removing double quotes around fields
+    * and unescaping doubled quotes within them.
+    */
+   private void splitLine(String line)
+   {
+      final StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      final int len = line.length();
+      for (int i = 0; i < len; ++i)
+      {
+         final char c = line.charAt(i);
+         if (quoted)
+         {
+            if (c == '"')
+            {
+               if (i + 1 < len && line.charAt(i + 1) == '"')
+               {
+                  field.append('"');
+                  ++i;
+               }
+               else
+               {
+                  quoted = false;
+               }
+            }
+            else
+            {
+               field.append(c);
+            }
+         }
+         else if (c == '"')
+         {
+            quoted = true;
+         }
+         else if (c == ',')
+         {
+            fields.add(field.toString().trim());
+            field.setLength(0);
+         }
+         else
+         {
+            field.append(c);
+         }
+      }
+      fields.add(field.toString().trim());
+   }
+}
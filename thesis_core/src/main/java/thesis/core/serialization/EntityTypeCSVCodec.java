@@ -284,4 +284,87 @@ public class EntityTypeCSVCodec
 
       return success;
    }
+
+   /**
+    * Load the entity types by parsing their csv files directly without
+    * staging them in the configuration database. Produces the same
+    * configuration as {@link #loadCSV(DBConnections, File, EntityTypeCfgs)}.
+    *
+    * @param cfgDir
+    *           The directory holding the entity type csv files.
+    * @param entCfgs
+    *           The loaded entity types are stored here.
+    * @return True if the entity types were loaded successfully.
+    */
+   public boolean loadCSV(File cfgDir, EntityTypeCfgs entCfgs)
+   {
+      boolean success = true;
+
+      // The DAOs only use their connection for the database path
+      SensorTypeConfigsDAO snsrTypeCfgsDAO = new SensorTypeConfigsDAO(null);
+      TargetTypeConfigsDAO tgtTypeCfgsDAO = new TargetTypeConfigsDAO(null);
+      WeaponTypeConfigsDAO wpnTypesCfgsDAO = new WeaponTypeConfigsDAO(null);
+      UAVTypeConfigsDAO uavTypeCfgsDAO = new UAVTypeConfigsDAO(null);
+      SensorProbsDAO sensorProbsDAO = new SensorProbsDAO(null);
+      SensorEmptyProbsDAO sensorEmptyProbsDAO = new SensorEmptyProbsDAO(null);
+      WeaponProbsDAO wpnProbsDAO = new WeaponProbsDAO(null);
+      UAVSensorCfgsDAO uavSnsrCfgsDAO = new UAVSensorCfgsDAO(null);
+      UAVWeaponCfgsDAO uavWpnsCfgsDAO = new UAVWeaponCfgsDAO(null);
+      SensorMisclassifyProbsDAO snsrMisclassDAO = new SensorMisclassifyProbsDAO(null);
+
+      success = snsrTypeCfgsDAO.readCSV(new File(cfgDir, snsrTypeCSV), entCfgs.getSnsrTypeCfgs());
+
+      if (success)
+      {
+         success = tgtTypeCfgsDAO.readCSV(new File(cfgDir, targetTypeCSV), entCfgs.getTgtTypeCfgs());
+      }
+
+      if (success)
+      {
+         success = wpnTypesCfgsDAO.readCSV(new File(cfgDir, wpnTypeCSV), entCfgs.getWpnTypeCfgs());
+      }
+
+      if (success)
+      {
+         success = uavTypeCfgsDAO.readCSV(new File(cfgDir, uavTypeCSV), entCfgs.getUAVTypeCfgs());
+      }
+
+      if (success)
+      {
+         entCfgs.getSnsrProbs().reset(entCfgs.getSnsrTypeCfgs().getNumTypes(), entCfgs.getTgtTypeCfgs().getNumTypes());
+         success = sensorProbsDAO.readCSV(new File(cfgDir, snsrTargetProbCSV), entCfgs.getSnsrProbs());
+      }
+
+      if (success)
+      {
+         success = sensorEmptyProbsDAO.readCSV(new File(cfgDir, snsrEmptyProbCSV), entCfgs.getSnsrProbs());
+      }
+
+      if (success)
+      {
+         entCfgs.getWpnProbs().reset(entCfgs.getWpnTypeCfgs().getNumTypes(), entCfgs.getTgtTypeCfgs().getNumTypes());
+         success = wpnProbsDAO.readCSV(new File(cfgDir, wpnTargetProbCSV), entCfgs.getWpnProbs());
+      }
+
+      if (success)
+      {
+         entCfgs.getUAVSensorCfgs().reset(entCfgs.getUAVTypeCfgs().getNumTypes(),
+               entCfgs.getSnsrTypeCfgs().getNumTypes());
+         success = uavSnsrCfgsDAO.readCSV(new File(cfgDir, uavSnsrCSV), entCfgs.getUAVSensorCfgs());
+      }
+
+      if (success)
+      {
+         entCfgs.getUAVWeaponCfgs().reset(entCfgs.getUAVTypeCfgs().getNumTypes(),
+               entCfgs.getWpnTypeCfgs().getNumTypes());
+         success = uavWpnsCfgsDAO.readCSV(new File(cfgDir, uavWpnsCSV), entCfgs.getUAVWeaponCfgs());
+      }
+
+      if (success)
+      {
+         success = snsrMisclassDAO.readCSV(new File(cfgDir, snsrMisclassCSV), entCfgs.getSnsrProbs());
+      }
+
+      return success;
+   }
 }
@@ -1,18 +1,31 @@
 package thesis.core.serialization;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import thesis.core.serialization.world.HavensDAO;
+import thesis.core.serialization.world.MappedWorldFile;
 import thesis.core.serialization.world.RoadNetworkDAO;
 import thesis.core.serialization.world.TargetStartLocationDAO;
 import thesis.core.serialization.world.UAVStartLocationDAO;
 import thesis.core.serialization.world.WorldConfig;
 import thesis.core.serialization.world.WorldGISDAO;
+import thesis.core.utilities.LoggerIDs;
 import thesis.core.world.World;
 
 public class WorldConfigCSVCodec
 {
+   /**
+    * Name of the binary world file stored alongside the csv files.
+    */
+   public static final String BINARY_FILE = "world.bin";
+
+   private static final Logger logger = LoggerFactory.getLogger(LoggerIDs.UTILS);
+
    private final String gisCSV = "gis.csv";
    private final String havensCSV = "havens.csv";
    private final String targetsCSV = "targets.csv";
@@ -90,6 +103,139 @@ public class WorldConfigCSVCodec
       return success;
    }
 
+   /**
+    * Load a world by parsing its csv files directly without staging them in
+    * the worlds database. Produces the same configuration as
+    * {@link #loadCSV(DBConnections, File, WorldConfig)}.
+    *
+    * @param worldDir
+    *           The directory holding the world's csv files.
+    * @param worldCfg
+    *           The loaded world is stored here.
+    * @return True if the world was loaded successfully.
+    */
+   public boolean loadCSV(File worldDir, WorldConfig worldCfg)
+   {
+      boolean success = true;
+
+      // The DAOs only use their connection for the database path
+      WorldGISDAO gisDAO = new WorldGISDAO(null, worldDir.getName());
+      HavensDAO havensDAO = new HavensDAO(null, worldDir.getName());
+      RoadNetworkDAO roadsDAO = new RoadNetworkDAO(null, worldDir.getName());
+      UAVStartLocationDAO uavStartDAO = new UAVStartLocationDAO(null, worldDir.getName());
+      TargetStartLocationDAO tgtStartDAO = new TargetStartLocationDAO(null, worldDir.getName());
+
+      World world = worldCfg.getWorld();
+
+      success = gisDAO.readCSV(new File(worldDir, gisCSV), world.getWorldGIS());
+
+      if (success)
+      {
+         success = havensDAO.readCSV(new File(worldDir, havensCSV), world.getHavens());
+      }
+
+      if (success)
+      {
+         world.getRoadNetwork().reset(world.getWorldGIS().getRowCount(), world.getWorldGIS().getColumnCount());
+         success = roadsDAO.readCSV(new File(worldDir, roadCSV), world.getRoadNetwork());
+      }
+
+      if (success)
+      {
+         success = uavStartDAO.readCSV(new File(worldDir, uavsCSV), worldCfg.getUAVCfgs(), world.getWorldGIS());
+      }
+
+      if (success)
+      {
+         success = tgtStartDAO.readCSV(new File(worldDir, targetsCSV), worldCfg.getTargetCfgs(),
+               world.getWorldGIS());
+      }
+
+      return success;
+   }
+
+   /**
+    * Save a world into a single binary file that loads much faster than the
+    * csv files.
+    *
+    * @param binFile
+    *           The file to create or overwrite.
+    * @param worldCfg
+    *           The world to save.
+    * @return True if the world was saved successfully.
+    * @see MappedWorldFile
+    */
+   public boolean writeBinary(File binFile, WorldConfig worldCfg)
+   {
+      boolean success = true;
+      try
+      {
+         MappedWorldFile.write(binFile, worldCfg);
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to write binary world file. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
+   /**
+    * Load a world from a binary file created by
+    * {@link #writeBinary(File, WorldConfig)}.
+    *
+    * @param binFile
+    *           The file to load.
+    * @param worldCfg
+    *           The loaded world is stored here.
+    * @return True if the world was loaded successfully.
+    */
+   public boolean loadBinary(File binFile, WorldConfig worldCfg)
+   {
+      boolean success = true;
+      try
+      {
+         new MappedWorldFile(binFile).decode(worldCfg);
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read binary world file. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
+   /**
+    * Check if a world directory holds a binary world file that is at least as
+    * new as all of the world's csv files.
+    *
+    * @param worldDir
+    *           The directory containing the world's files.
+    * @return True if the binary world file exists and no csv file has been
+    *         modified since it was written.
+    */
+   public boolean isBinaryCurrent(File worldDir)
+   {
+      File binFile = new File(worldDir, BINARY_FILE);
+      boolean current = binFile.exists();
+      if (current)
+      {
+         final long binModified = binFile.lastModified();
+         for (String csv : new String[] { gisCSV, havensCSV, targetsCSV, uavsCSV, roadCSV })
+         {
+            File csvFile = new File(worldDir, csv);
+            if (csvFile.lastModified() > binModified)
+            {
+               logger.info("Ignoring binary world file {} because {} is newer.", binFile.getAbsolutePath(),
+                     csvFile.getName());
+               current = false;
+               break;
+            }
+         }
+      }
+      return current;
+   }
+
    public boolean writeCSV(DBConnections dbConns, File worldDir, WorldConfig worldCfg)
    {
       final Connection wrldCon = dbConns.getWorldsDBConnection();
@@ -1,6 +1,7 @@
 package thesis.core.serialization.entities;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -11,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import thesis.core.sensors.SensorProbs;
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.utilities.LoggerIDs;
 
 public class SensorEmptyProbsDAO
@@ -118,6 +120,37 @@ public class SensorEmptyProbsDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the sensor probabilities without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param snsrProbs
+    *           Empty cell detection probabilities are stored here.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, SensorProbs snsrProbs)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int snsrTypeCol = csv.getColumn(snsrTypeColName);
+         final int probDetectCol = csv.getColumn(probDetectColName);
+
+         while (csv.next())
+         {
+            snsrProbs.setSensorDetectEmptyProb(csv.getInt(snsrTypeCol), csv.getDouble(probDetectCol));
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read sensor empty probabilities from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
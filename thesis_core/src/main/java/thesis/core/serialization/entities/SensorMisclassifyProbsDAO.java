@@ -1,6 +1,7 @@
 package thesis.core.serialization.entities;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -11,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import thesis.core.sensors.SensorProbs;
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.utilities.LoggerIDs;
 
 public class SensorMisclassifyProbsDAO
@@ -165,6 +167,40 @@ public class SensorMisclassifyProbsDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the sensor probabilities without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param snsrProbs
+    *           Misclassification probabilities are stored here.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, SensorProbs snsrProbs)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int snsrTypeCol = csv.getColumn(snsrTypeColName);
+         final int detectTypeCol = csv.getColumn(detectTypeColName);
+         final int misclassTypeCol = csv.getColumn(misclassTypeColName);
+         final int probCol = csv.getColumn(probColName);
+
+         while (csv.next())
+         {
+            snsrProbs.setSensorMisclassifyProb(csv.getInt(snsrTypeCol), csv.getInt(detectTypeCol),
+                  csv.getInt(misclassTypeCol), csv.getDouble(probCol));
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read sensor misclassification probabilities from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
@@ -1,6 +1,7 @@
 package thesis.core.serialization.entities;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -11,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import thesis.core.sensors.SensorProbs;
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.utilities.LoggerIDs;
 
 public class SensorProbsDAO
@@ -138,6 +140,42 @@ public class SensorProbsDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the sensor probabilities without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param snsrProbs
+    *           Target detection probabilities are stored here.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, SensorProbs snsrProbs)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int snsrTypeCol = csv.getColumn(snsrTypeColName);
+         final int tgtTypeCol = csv.getColumn(tgtTypeColName);
+         final int probDetectCol = csv.getColumn(probDetectColName);
+         final int hdgCoefCol = csv.getColumn(hdgCoefColName);
+
+         while (csv.next())
+         {
+            int snsrTypeID = csv.getInt(snsrTypeCol);
+            int tgtTypeID = csv.getInt(tgtTypeCol);
+            snsrProbs.setSensorDetectTgtProb(snsrTypeID, tgtTypeID, csv.getDouble(probDetectCol));
+            snsrProbs.setSensorHeadingCoeff(snsrTypeID, tgtTypeID, csv.getDouble(hdgCoefCol));
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read sensor probabilities from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
@@ -1,15 +1,19 @@
 package thesis.core.serialization.entities;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.targets.TargetTypeConfigs;
 import thesis.core.utilities.LoggerIDs;
 
@@ -129,6 +133,47 @@ public class TargetTypeConfigsDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the target types without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param tgtTypeCfgs
+    *           The target types to initialize.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, TargetTypeConfigs tgtTypeCfgs)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int typeCol = csv.getColumn(typeColName);
+         final int spdCol = csv.getColumn(spdColName);
+         final int angleCol = csv.getColumn(angleColName);
+
+         // The number of types must be known before any type is stored
+         List<double[]> rows = new ArrayList<double[]>();
+         while (csv.next())
+         {
+            rows.add(new double[] { csv.getInt(typeCol), csv.getDouble(spdCol), csv.getDouble(angleCol) });
+         }
+
+         logger.info("Loading {} target types.", rows.size());
+         tgtTypeCfgs.reset(rows.size());
+         for (double[] row : rows)
+         {
+            tgtTypeCfgs.setTargetData((int) row[0], row[1], row[2]);
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read target type configs from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
@@ -1,6 +1,7 @@
 package thesis.core.serialization.entities;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -10,6 +11,7 @@ import java.sql.Statement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.uav.UAVSensorCfgs;
 import thesis.core.utilities.LoggerIDs;
 
@@ -121,6 +123,37 @@ public class UAVSensorCfgsDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the UAV sensor loadouts without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param typeCfgs
+    *           Sensors are added to the UAV types here.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, UAVSensorCfgs typeCfgs)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int uavTypeCol = csv.getColumn(uavTypeColName);
+         final int snsrTypeCol = csv.getColumn(snsrTypeColName);
+
+         while (csv.next())
+         {
+            typeCfgs.addSensorToUAV(csv.getInt(uavTypeCol), csv.getInt(snsrTypeCol));
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read UAV/Sensor loadout configs from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
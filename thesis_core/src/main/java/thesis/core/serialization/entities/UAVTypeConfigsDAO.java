@@ -1,15 +1,19 @@
 package thesis.core.serialization.entities;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.uav.UAVTypeConfigs;
 import thesis.core.utilities.LoggerIDs;
 
@@ -130,6 +134,47 @@ public class UAVTypeConfigsDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the UAV types without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param uavTypeCfgs
+    *           The UAV types to initialize.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, UAVTypeConfigs uavTypeCfgs)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int typeCol = csv.getColumn(typeColName);
+         final int spdCol = csv.getColumn(spdColName);
+         final int turnRadCol = csv.getColumn(turnRadColName);
+
+         // The number of types must be known before any type is stored
+         List<double[]> rows = new ArrayList<double[]>();
+         while (csv.next())
+         {
+            rows.add(new double[] { csv.getInt(typeCol), csv.getDouble(spdCol), csv.getDouble(turnRadCol) });
+         }
+
+         logger.info("Loading {} UAV types.", rows.size());
+         uavTypeCfgs.reset(rows.size());
+         for (double[] row : rows)
+         {
+            uavTypeCfgs.setUAVData((int) row[0], row[1], row[2]);
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read uav type configs from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
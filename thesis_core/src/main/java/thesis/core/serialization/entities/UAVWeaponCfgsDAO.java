@@ -1,6 +1,7 @@
 package thesis.core.serialization.entities;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -10,6 +11,7 @@ import java.sql.Statement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.uav.UAVWeaponCfgs;
 import thesis.core.utilities.LoggerIDs;
 
@@ -175,6 +177,38 @@ public class UAVWeaponCfgsDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the UAV weapon loadouts without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param typeCfgs
+    *           Weapons are added to the UAV types here.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, UAVWeaponCfgs typeCfgs)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int uavTypeCol = csv.getColumn(uavTypeColName);
+         final int wpnTypeCol = csv.getColumn(wpnTypeColName);
+         final int initQtyCol = csv.getColumn(initQtyTypeColName);
+
+         while (csv.next())
+         {
+            typeCfgs.addWeaponToUAV(csv.getInt(uavTypeCol), csv.getInt(wpnTypeCol), csv.getInt(initQtyCol));
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read UAV/weapon loadout configs from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
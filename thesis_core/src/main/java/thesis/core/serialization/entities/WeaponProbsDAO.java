@@ -1,6 +1,7 @@
 package thesis.core.serialization.entities;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -10,6 +11,7 @@ import java.sql.Statement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.utilities.LoggerIDs;
 import thesis.core.weapons.WeaponProbs;
 
@@ -125,6 +127,38 @@ public class WeaponProbsDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the weapon probabilities without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param wpnProbs
+    *           Target destruction probabilities are stored here.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, WeaponProbs wpnProbs)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int wpnTypeCol = csv.getColumn(wpnTypeColName);
+         final int tgtTypeCol = csv.getColumn(tgtTypeColName);
+         final int probDestroyCol = csv.getColumn(probDestroyColName);
+
+         while (csv.next())
+         {
+            wpnProbs.setWeaponDestroyProb(csv.getInt(wpnTypeCol), csv.getInt(tgtTypeCol), csv.getDouble(probDestroyCol));
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read weapon probabilities from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
@@ -1,15 +1,19 @@
 package thesis.core.serialization.entities;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.utilities.LoggerIDs;
 import thesis.core.weapons.WeaponTypeConfigs;
 
@@ -138,6 +142,49 @@ public class WeaponTypeConfigsDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the weapon types without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param wpnTypeCfgs
+    *           The weapon types to initialize.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, WeaponTypeConfigs wpnTypeCfgs)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int typeCol = csv.getColumn(typeColName);
+         final int fovCol = csv.getColumn(fovColName);
+         final int minRngCol = csv.getColumn(minRngColName);
+         final int maxRngCol = csv.getColumn(maxRngColName);
+
+         // The number of types must be known before any type is stored
+         List<double[]> rows = new ArrayList<double[]>();
+         while (csv.next())
+         {
+            rows.add(new double[] { csv.getInt(typeCol), csv.getDouble(fovCol), csv.getDouble(minRngCol),
+                  csv.getDouble(maxRngCol) });
+         }
+
+         logger.info("Loading {} weapon types.", rows.size());
+         wpnTypeCfgs.reset(rows.size());
+         for (double[] row : rows)
+         {
+            wpnTypeCfgs.setWeaponData((int) row[0], row[1], row[2], row[3]);
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read weapon type configs from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
@@ -1,16 +1,20 @@
 package thesis.core.serialization.world;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import thesis.core.common.CellCoordinate;
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.utilities.LoggerIDs;
 import thesis.core.world.Havens;
 
@@ -130,6 +134,46 @@ public class HavensDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the havens without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param havens
+    *           The havens to initialize.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, Havens havens)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int rowCol = csv.getColumn(rowsColName);
+         final int colCol = csv.getColumn(colsColName);
+
+         List<CellCoordinate> cells = new ArrayList<CellCoordinate>();
+         while (csv.next())
+         {
+            cells.add(new CellCoordinate(csv.getInt(rowCol), csv.getInt(colCol)));
+         }
+
+         final int numHavens = cells.size();
+         logger.info("Copying {} havens from csv.", numHavens);
+         havens.reset(numHavens);
+         for (int i = 0; i < numHavens; ++i)
+         {
+            havens.setHavenByIndx(i, cells.get(i));
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read haven configs from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
@@ -0,0 +1,382 @@
+package thesis.core.serialization.world;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import thesis.core.common.CellCoordinate;
+import thesis.core.common.RoadNetwork;
+import thesis.core.common.WorldCoordinate;
+import thesis.core.world.Havens;
+import thesis.core.world.World;
+import thesis.core.world.WorldGIS;
+
+/**
+ * A world configuration stored in a single binary file that is memory mapped
+ * when opened.
+ *
+ * Only the header is read when the file is opened. Every other value is read
+ * from the mapping on demand so opening a world with millions of cells costs
+ * the same as opening a small one. The file is never modified after it is
+ * written so an opened file may be read by any number of threads.
+ *
+ * <pre>
+ * Header (48 bytes, big endian)
+ *    int    magic number
+ *    int    format version
+ *    double world width in meters
+ *    double world height in meters
+ *    int    number of rows
+ *    int    number of columns
+ *    int    number of havens
+ *    int    number of UAVs
+ *    int    number of targets
+ *    int    reserved
+ * Havens (8 bytes each)
+ *    int row, int column
+ * UAVs then targets (28 bytes each)
+ *    int type, double north, double east, double orientation
+ * Road grid
+ *    One bit per cell in row major order, least significant bit first.
+ * </pre>
+ */
+public class MappedWorldFile
+{
+   /**
+    * "TWLD" in ASCII.
+    */
+   private static final int MAGIC = 0x54574C44;
+   private static final int VERSION = 1;
+
+   private static final int HEADER_SIZE = 48;
+   private static final int HAVEN_SIZE = 8;
+   private static final int START_CFG_SIZE = 28;
+
+   private final ByteBuffer buffer;
+
+   private final double width;
+   private final double height;
+   private final int numRows;
+   private final int numCols;
+   private final int numHavens;
+   private final int numUAVs;
+   private final int numTargets;
+
+   private final int uavsOffset;
+   private final int targetsOffset;
+   private final int roadsOffset;
+
+   /**
+    * Memory map a world file and read its header.
+    *
+    * @param worldFile
+    *           A file created by {@link #write(File, WorldConfig)}.
+    * @throws IOException
+    *            Occurs when the file cannot be read or is not a valid world
+    *            file.
+    */
+   public MappedWorldFile(File worldFile) throws IOException
+   {
+      // The mapping remains valid after the channel is closed
+      try (FileChannel channel = FileChannel.open(worldFile.toPath(), StandardOpenOption.READ))
+      {
+         if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE)
+         {
+            throw new IOException("Invalid world file size in " + worldFile.getAbsolutePath());
+         }
+         buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+
+      if (buffer.getInt(0) != MAGIC)
+      {
+         throw new IOException("Not a world file: " + worldFile.getAbsolutePath());
+      }
+      if (buffer.getInt(4) != VERSION)
+      {
+         throw new IOException("Unsupported world file version " + buffer.getInt(4) + " in "
+               + worldFile.getAbsolutePath());
+      }
+
+      width = buffer.getDouble(8);
+      height = buffer.getDouble(16);
+      numRows = buffer.getInt(24);
+      numCols = buffer.getInt(28);
+      numHavens = buffer.getInt(32);
+      numUAVs = buffer.getInt(36);
+      numTargets = buffer.getInt(40);
+
+      if (numRows < 0 || numCols < 0 || numHavens < 0 || numUAVs < 0 || numTargets < 0)
+      {
+         throw new IOException("Corrupt world file header in " + worldFile.getAbsolutePath());
+      }
+
+      final long uavs = HEADER_SIZE + (long) numHavens * HAVEN_SIZE;
+      final long targets = uavs + (long) numUAVs * START_CFG_SIZE;
+      final long roads = targets + (long) numTargets * START_CFG_SIZE;
+      if (roads + getRoadGridSize(numRows, numCols) != buffer.capacity())
+      {
+         throw new IOException("Truncated world file " + worldFile.getAbsolutePath());
+      }
+
+      uavsOffset = (int) uavs;
+      targetsOffset = (int) targets;
+      roadsOffset = (int) roads;
+   }
+
+   /**
+    * Write a world configuration into a world file.
+    *
+    * @param worldFile
+    *           The file to create or overwrite.
+    * @param worldCfg
+    *           The world to write.
+    * @throws IOException
+    *            Occurs when the file cannot be written or the world is too
+    *            large for the format.
+    */
+   public static void write(File worldFile, WorldConfig worldCfg) throws IOException
+   {
+      final World world = worldCfg.getWorld();
+      final WorldGIS gis = world.getWorldGIS();
+      final Havens havens = world.getHavens();
+      final RoadNetwork roads = world.getRoadNetwork();
+      final List<UAVStartCfg> uavs = worldCfg.getUAVCfgs();
+      final List<TargetStartCfg> targets = worldCfg.getTargetCfgs();
+
+      final int numRows = gis.getRowCount();
+      final int numCols = gis.getColumnCount();
+
+      final long size = HEADER_SIZE + (long) havens.getNumHavens() * HAVEN_SIZE
+            + (long) (uavs.size() + targets.size()) * START_CFG_SIZE + getRoadGridSize(numRows, numCols);
+      if (size > Integer.MAX_VALUE)
+      {
+         throw new IOException("World is too large to write into " + worldFile.getAbsolutePath());
+      }
+
+      final ByteBuffer out = ByteBuffer.allocate((int) size);
+      out.putInt(MAGIC);
+      out.putInt(VERSION);
+      out.putDouble(gis.getWidth());
+      out.putDouble(gis.getHeight());
+      out.putInt(numRows);
+      out.putInt(numCols);
+      out.putInt(havens.getNumHavens());
+      out.putInt(uavs.size());
+      out.putInt(targets.size());
+      out.putInt(0);
+
+      for (int i = 0; i < havens.getNumHavens(); ++i)
+      {
+         out.putInt(havens.getHavenByIndx(i).getRow());
+         out.putInt(havens.getHavenByIndx(i).getColumn());
+      }
+
+      for (UAVStartCfg cfg : uavs)
+      {
+         putStartCfg(out, cfg.getUAVType(), cfg.getLocation(), cfg.getOrientation());
+      }
+
+      for (TargetStartCfg cfg : targets)
+      {
+         putStartCfg(out, cfg.getTargetType(), cfg.getLocation(), cfg.getOrientation());
+      }
+
+      // Only traversable cells set bits so the rest of the grid stays zeroed
+      final int roadsOffset = out.position();
+      for (CellCoordinate cell : roads.getTraversableCells())
+      {
+         final long bit = (long) cell.getRow() * numCols + cell.getColumn();
+         final int index = roadsOffset + (int) (bit >>> 3);
+         out.put(index, (byte) (out.get(index) | (1 << (bit & 7))));
+      }
+
+      out.rewind();
+      try (FileChannel channel = FileChannel.open(worldFile.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+      {
+         while (out.hasRemaining())
+         {
+            channel.write(out);
+         }
+      }
+   }
+
+   /**
+    * Decode the entire world into a world configuration.
+    *
+    * @param worldCfg
+    *           The decoded world is stored here.
+    */
+   public void decode(WorldConfig worldCfg)
+   {
+      final World world = worldCfg.getWorld();
+
+      final WorldGIS gis = world.getWorldGIS();
+      gis.reset(width, height, numRows, numCols);
+
+      final Havens havens = world.getHavens();
+      havens.reset(numHavens);
+      for (int i = 0; i < numHavens; ++i)
+      {
+         havens.setHavenByIndx(i, getHavenRow(i), getHavenColumn(i));
+      }
+
+      final RoadNetwork roads = world.getRoadNetwork();
+      roads.reset(numRows, numCols);
+      final int gridSize = (int) getRoadGridSize(numRows, numCols);
+      for (int i = 0; i < gridSize; ++i)
+      {
+         final int bits = buffer.get(roadsOffset + i) & 0xFF;
+         if (bits != 0)
+         {
+            for (int j = 0; j < 8; ++j)
+            {
+               if ((bits & (1 << j)) != 0)
+               {
+                  final long cell = i * 8L + j;
+                  roads.setTraversable((int) (cell / numCols), (int) (cell % numCols), true);
+               }
+            }
+         }
+      }
+
+      for (int i = 0; i < numUAVs; ++i)
+      {
+         UAVStartCfg cfg = new UAVStartCfg();
+         cfg.setUAVType(getUAVType(i));
+         cfg.setOrientation(getUAVOrientation(i));
+         cfg.getLocation().setCoordinate(getUAVNorth(i), getUAVEast(i));
+         worldCfg.getUAVCfgs().add(cfg);
+      }
+
+      for (int i = 0; i < numTargets; ++i)
+      {
+         TargetStartCfg cfg = new TargetStartCfg();
+         cfg.setTargetType(getTargetType(i));
+         cfg.setOrientation(getTargetOrientation(i));
+         cfg.getLocation().setCoordinate(getTargetNorth(i), getTargetEast(i));
+         worldCfg.getTargetCfgs().add(cfg);
+      }
+   }
+
+   public double getWidth()
+   {
+      return width;
+   }
+
+   public double getHeight()
+   {
+      return height;
+   }
+
+   public int getRowCount()
+   {
+      return numRows;
+   }
+
+   public int getColumnCount()
+   {
+      return numCols;
+   }
+
+   public int getNumHavens()
+   {
+      return numHavens;
+   }
+
+   public int getHavenRow(int indx)
+   {
+      return buffer.getInt(HEADER_SIZE + checkIndex(indx, numHavens) * HAVEN_SIZE);
+   }
+
+   public int getHavenColumn(int indx)
+   {
+      return buffer.getInt(HEADER_SIZE + checkIndex(indx, numHavens) * HAVEN_SIZE + 4);
+   }
+
+   public boolean isTraversable(int row, int col)
+   {
+      if (row < 0 || row >= numRows || col < 0 || col >= numCols)
+      {
+         throw new IndexOutOfBoundsException("Cell (" + row + ", " + col + ") is outside the world.");
+      }
+
+      final long bit = (long) row * numCols + col;
+      return (buffer.get(roadsOffset + (int) (bit >>> 3)) & (1 << (bit & 7))) != 0;
+   }
+
+   public int getNumUAVs()
+   {
+      return numUAVs;
+   }
+
+   public int getUAVType(int indx)
+   {
+      return buffer.getInt(uavsOffset + checkIndex(indx, numUAVs) * START_CFG_SIZE);
+   }
+
+   public double getUAVNorth(int indx)
+   {
+      return buffer.getDouble(uavsOffset + checkIndex(indx, numUAVs) * START_CFG_SIZE + 4);
+   }
+
+   public double getUAVEast(int indx)
+   {
+      return buffer.getDouble(uavsOffset + checkIndex(indx, numUAVs) * START_CFG_SIZE + 12);
+   }
+
+   public double getUAVOrientation(int indx)
+   {
+      return buffer.getDouble(uavsOffset + checkIndex(indx, numUAVs) * START_CFG_SIZE + 20);
+   }
+
+   public int getNumTargets()
+   {
+      return numTargets;
+   }
+
+   public int getTargetType(int indx)
+   {
+      return buffer.getInt(targetsOffset + checkIndex(indx, numTargets) * START_CFG_SIZE);
+   }
+
+   public double getTargetNorth(int indx)
+   {
+      return buffer.getDouble(targetsOffset + checkIndex(indx, numTargets) * START_CFG_SIZE + 4);
+   }
+
+   public double getTargetEast(int indx)
+   {
+      return buffer.getDouble(targetsOffset + checkIndex(indx, numTargets) * START_CFG_SIZE + 12);
+   }
+
+   public double getTargetOrientation(int indx)
+   {
+      return buffer.getDouble(targetsOffset + checkIndex(indx, numTargets) * START_CFG_SIZE + 20);
+   }
+
+   private static void putStartCfg(ByteBuffer out, int type, WorldCoordinate location, double orientation)
+   {
+      out.putInt(type);
+      out.putDouble(location.getNorth());
+      out.putDouble(location.getEast());
+      out.putDouble(orientation);
+   }
+
+   private static long getRoadGridSize(int numRows, int numCols)
+   {
+      return ((long) numRows * numCols + 7) / 8;
+   }
+
+   private static int checkIndex(int indx, int count)
+   {
+      if (indx < 0 || indx >= count)
+      {
+         throw new IndexOutOfBoundsException("Index " + indx + " out of range [0, " + count + ").");
+      }
+      return indx;
+   }
+}
@@ -1,6 +1,7 @@
 package thesis.core.serialization.world;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -13,6 +14,7 @@ import org.slf4j.LoggerFactory;
 
 import thesis.core.common.CellCoordinate;
 import thesis.core.common.RoadNetwork;
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.utilities.LoggerIDs;
 
 public class RoadNetworkDAO
@@ -58,6 +60,37 @@ public class RoadNetworkDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the road network without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param roadNet
+    *           Cells in the file are marked traversable in this network.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, RoadNetwork roadNet)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int rowCol = csv.getColumn(rowsColName);
+         final int colCol = csv.getColumn(colsColName);
+
+         while (csv.next())
+         {
+            roadNet.setTraversable(csv.getInt(rowCol), csv.getInt(colCol), true);
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read road network configs from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
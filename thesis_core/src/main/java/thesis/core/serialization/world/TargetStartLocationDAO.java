@@ -1,6 +1,7 @@
 package thesis.core.serialization.world;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -12,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import thesis.core.common.CellCoordinate;
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.utilities.LoggerIDs;
 import thesis.core.world.WorldGIS;
 
@@ -138,6 +140,46 @@ public class TargetStartLocationDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into target start configurations without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param tgtStartCfgs
+    *           A configuration for each row is appended here.
+    * @param gis
+    *           Converts start cells to world coordinates.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, List<TargetStartCfg> tgtStartCfgs, WorldGIS gis)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int typeCol = csv.getColumn(typeColName);
+         final int rowCol = csv.getColumn(rowColName);
+         final int colCol = csv.getColumn(colColName);
+         final int hdgCol = csv.getColumn(hdgColName);
+
+         TargetStartCfg cfg = null;
+         while (csv.next())
+         {
+            cfg = new TargetStartCfg();
+            cfg.setTargetType(csv.getInt(typeCol));
+            cfg.setOrientation(csv.getDouble(hdgCol));
+            gis.convertCellToWorld(csv.getInt(rowCol), csv.getInt(colCol), cfg.getLocation());
+            tgtStartCfgs.add(cfg);
+         }
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read target start locations from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
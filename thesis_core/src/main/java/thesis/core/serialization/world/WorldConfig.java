@@ -3,6 +3,7 @@ package thesis.core.serialization.world;
 import java.util.ArrayList;
 import java.util.List;
 
+import thesis.core.common.HavenRouteTrees;
 import thesis.core.world.World;
 
 /**
@@ -15,11 +16,17 @@ public class WorldConfig
    private List<UAVStartCfg> uavStartCfgs;
    private List<TargetStartCfg> tgtStartCfgs;
 
+   /**
+    * Road paths between the havens of the world. Built when first requested.
+    */
+   private HavenRouteTrees havenRouteTrees;
+
    public WorldConfig()
    {
       world = new World();
       uavStartCfgs = new ArrayList<UAVStartCfg>();
       tgtStartCfgs = new ArrayList<TargetStartCfg>();
+      havenRouteTrees = null;
    }
 
    public World getWorld()
@@ -36,4 +43,21 @@ public class WorldConfig
    {
       return tgtStartCfgs;
    }
+
+   /**
+    * Get the road paths between the havens of the world. They are built the
+    * first time they are requested and then shared by every simulation of
+    * this configuration, so the havens and roads must not be modified
+    * afterwards.
+    *
+    * @return The road paths between the havens of the world.
+    */
+   public synchronized HavenRouteTrees getHavenRouteTrees()
+   {
+      if (havenRouteTrees == null)
+      {
+         havenRouteTrees = new HavenRouteTrees(world);
+      }
+      return havenRouteTrees;
+   }
 }
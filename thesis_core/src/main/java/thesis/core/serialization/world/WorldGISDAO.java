@@ -1,6 +1,7 @@
 package thesis.core.serialization.world;
 
 import java.io.File;
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -10,6 +11,7 @@ import java.sql.Statement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import thesis.core.serialization.CSVTableReader;
 import thesis.core.utilities.LoggerIDs;
 import thesis.core.world.WorldGIS;
 
@@ -124,6 +126,47 @@ public class WorldGISDAO
       return success;
    }
 
+   /**
+    * Parse the csv file directly into the GIS without staging it in the
+    * database.
+    *
+    * @param csvFile
+    *           The file to read.
+    * @param gis
+    *           The GIS to initialize.
+    * @return True if the file was read successfully.
+    */
+   public boolean readCSV(File csvFile, WorldGIS gis)
+   {
+      boolean success = true;
+      try (CSVTableReader csv = new CSVTableReader(csvFile))
+      {
+         final int rowsCol = csv.getColumn(numRowsColName);
+         final int colsCol = csv.getColumn(numColsColName);
+         final int widthCol = csv.getColumn(widthColName);
+         final int heightCol = csv.getColumn(heightColName);
+
+         if (!csv.next())// Should only be a single row
+         {
+            throw new IOException("Missing GIS config row.");
+         }
+
+         // Interpreted the same way as loadData()
+         int numCols = csv.getInt(rowsCol);
+         int numRows = csv.getInt(colsCol);
+         int width = csv.getInt(widthCol);
+         int height = csv.getInt(heightCol);
+
+         gis.reset(width, height, numRows, numCols);
+      }
+      catch (IOException e)
+      {
+         logger.error("Failed to read GIS config from csv. Details: {}", e.getMessage());
+         success = false;
+      }
+      return success;
+   }
+
    public boolean loadCSV(File csvFile)
    {
       boolean success = true;
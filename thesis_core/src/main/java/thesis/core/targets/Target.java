@@ -1,10 +1,11 @@
 package thesis.core.targets;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Random;
 
 import thesis.core.SimModel;
 import thesis.core.common.HavenRouting;
+import thesis.core.common.RoutePolyline;
+import thesis.core.common.SimClock;
 import thesis.core.common.SimTime;
 import thesis.core.common.WorldCoordinate;
 import thesis.core.common.WorldPose;
@@ -19,7 +20,24 @@ public class Target
 
    private WorldCoordinate destination;
    private HavenRouting havenRouting;
-   private List<WorldCoordinate> havenPath;
+   private SimClock clock;
+   private Random randGen;
+
+   /**
+    * Road route to the destination haven shared with other targets. Null
+    * until the first destination is selected.
+    */
+   private RoutePolyline havenRoute;
+
+   /**
+    * Index of the next point of the route to travel to.
+    */
+   private int routeIndx;
+
+   /**
+    * Location of the next point of the route.
+    */
+   private final WorldCoordinate nextWaypoint;
    private boolean alive;
    
    private boolean detectedAtLeastOnce;
@@ -31,14 +49,19 @@ public class Target
     */
    private final double maxSpd;
 
-   public Target(int tgtType, int id, double tgtSpd, HavenRouting havenRouting)
+   public Target(int tgtType, int id, double tgtSpd, HavenRouting havenRouting, SimClock clock,
+         Random randGen)
    {
       this.id = id;
       this.type = tgtType;
       this.maxSpd = tgtSpd;
       this.havenRouting = havenRouting;
+      this.clock = clock;
+      this.randGen = randGen;
 
-      havenPath = new ArrayList<WorldCoordinate>();
+      havenRoute = null;
+      routeIndx = 0;
+      nextWaypoint = new WorldCoordinate();
       pose = new WorldPose();
       destination = new WorldCoordinate();
       alive = true;
@@ -76,12 +99,16 @@ public class Target
       return detectedAtLeastOnce;
    }
    
-   public void detected()
+   /**
+    * Record that a UAV detected this target. Multiple UAVs may sense the same
+    * target concurrently.
+    */
+   public synchronized void detected()
    {
       if(!detectedAtLeastOnce)
       {
          detectedAtLeastOnce = true;
-         timeFirstDetection = SimTime.getCurrentSimTimeMS();
+         timeFirstDetection = clock.getCurrentSimTimeMS();
       }
    }
    
@@ -131,7 +158,7 @@ public class Target
             if (isAtDestination())
             {
                selectNewDestination();
-               double newHdg = pose.getCoordinate().bearingTo(havenPath.get(0));
+               double newHdg = pose.getCoordinate().bearingTo(nextWaypoint);
                pose.setHeading(newHdg);
             }
 
@@ -151,11 +178,11 @@ public class Target
    {
       boolean arrived = false;
 
-      if (havenPath.isEmpty())
+      if (getNumWaypointsLeft() == 0)
       {
          arrived = true;
       }
-      else if (pose.getCoordinate().distanceTo(havenPath.get(0)) < maxSpd)
+      else if (pose.getCoordinate().distanceTo(nextWaypoint) < maxSpd)
       {
          // If we're within one frame of the destination
          arrived = true;
@@ -164,16 +191,27 @@ public class Target
       return arrived;
    }
 
+   /**
+    * @return The number of route points not yet reached including the next
+    *         waypoint.
+    */
+   private int getNumWaypointsLeft()
+   {
+      return havenRoute != null ? havenRoute.getNumPoints() - routeIndx : 0;
+   }
+
    private void selectNewDestination()
    {
-      if (havenPath.size() > 1)
+      if (getNumWaypointsLeft() > 1)
       {
-         havenPath.remove(0);
+         ++routeIndx;
+         havenRoute.getPoint(routeIndx, nextWaypoint);
       }
-      else if ((havenPath.size() == 1 || havenPath.isEmpty()) && isAtDestination())
+      else if (isAtDestination())
       {
-         havenPath.clear();
-         havenRouting.selectNewHavenDestination(pose.getCoordinate(), destination, havenPath);
+         havenRoute = havenRouting.selectNewHavenDestination(pose.getCoordinate(), destination, randGen);
+         routeIndx = 0;
+         havenRoute.getPoint(routeIndx, nextWaypoint);
       }
    }
 
@@ -185,6 +223,6 @@ public class Target
    public void attacked()
    {
       alive = false;
-      timeDestroyed = SimTime.getCurrentSimTimeMS();
+      timeDestroyed = clock.getCurrentSimTimeMS();
    }
 }
@@ -0,0 +1,196 @@
+package thesis.core.targets;
+
+import java.util.Arrays;
+
+import thesis.core.common.CellCoordinate;
+import thesis.core.world.WorldGIS;
+
+/**
+ * Maps each cell of the world grid to the targets located within it.
+ *
+ * Each cell holds a singly linked list of target indices threaded through a
+ * primitive array, sorted by target index. Iterating a cell visits targets in
+ * the same order as iterating the target array so results do not depend on
+ * the order in which targets entered the cell. Targets located outside of the
+ * world grid are not stored in any cell.
+ */
+class TargetCellIndex
+{
+   /**
+    * Marks the end of a list or a target that is not in any cell.
+    */
+   public static final int NONE = -1;
+
+   private WorldGIS gis;
+   private int numRows;
+   private int numCols;
+
+   /**
+    * Index of the first target in each cell.
+    */
+   private int[] cellHead;
+
+   /**
+    * Index of the next target in the same cell as each target.
+    */
+   private int[] nextInCell;
+
+   /**
+    * Cell containing each target.
+    */
+   private int[] tgtCell;
+
+   private final CellCoordinate tempCell;
+
+   public TargetCellIndex()
+   {
+      cellHead = new int[0];
+      nextInCell = new int[0];
+      tgtCell = new int[0];
+      tempCell = new CellCoordinate();
+   }
+
+   /**
+    * Index a new set of targets.
+    *
+    * @param gis
+    *           Used to convert target locations into cells.
+    * @param targets
+    *           The targets to index. Null entries are ignored.
+    */
+   public void reset(WorldGIS gis, Target[] targets)
+   {
+      this.gis = gis;
+      numRows = gis.getRowCount();
+      numCols = gis.getColumnCount();
+
+      cellHead = new int[numRows * numCols];
+      nextInCell = new int[targets.length];
+      tgtCell = new int[targets.length];
+      Arrays.fill(cellHead, NONE);
+      Arrays.fill(nextInCell, NONE);
+      Arrays.fill(tgtCell, NONE);
+
+      update(targets);
+   }
+
+   /**
+    * Move targets whose location has changed into their new cells.
+    *
+    * @param targets
+    *           The same targets given to {@link #reset(WorldGIS, Target[])}.
+    */
+   public void update(Target[] targets)
+   {
+      for (int i = 0; i < targets.length; ++i)
+      {
+         if (targets[i] == null)
+         {
+            continue;
+         }
+
+         gis.convertWorldToCell(targets[i].getCoordinate(), tempCell);
+         final int cell = toIndex(tempCell);
+         if (cell != tgtCell[i])
+         {
+            unlink(i);
+            link(i, cell);
+         }
+      }
+   }
+
+   /**
+    * @param cell
+    *           A cell of the world.
+    * @return True if the cell is within the world grid. Targets in cells
+    *         outside of the world grid are not indexed.
+    */
+   public boolean isIndexed(CellCoordinate cell)
+   {
+      return toIndex(cell) != NONE;
+   }
+
+   /**
+    * @param cell
+    *           A cell within the world grid.
+    * @return Index of the first target in the cell or {@link #NONE}.
+    */
+   public int first(CellCoordinate cell)
+   {
+      return cellHead[toIndex(cell)];
+   }
+
+   /**
+    * @param tgtIndex
+    *           Index of a target returned from {@link #first(CellCoordinate)}
+    *           or a previous call to this method.
+    * @return Index of the next target in the same cell or {@link #NONE}.
+    */
+   public int next(int tgtIndex)
+   {
+      return nextInCell[tgtIndex];
+   }
+
+   private int toIndex(CellCoordinate cell)
+   {
+      final int row = cell.getRow();
+      final int col = cell.getColumn();
+      if (row < 0 || row >= numRows || col < 0 || col >= numCols)
+      {
+         return NONE;
+      }
+      return row * numCols + col;
+   }
+
+   private void unlink(int tgtIndex)
+   {
+      final int cell = tgtCell[tgtIndex];
+      if (cell == NONE)
+      {
+         return;
+      }
+
+      if (cellHead[cell] == tgtIndex)
+      {
+         cellHead[cell] = nextInCell[tgtIndex];
+      }
+      else
+      {
+         int prev = cellHead[cell];
+         while (nextInCell[prev] != tgtIndex)
+         {
+            prev = nextInCell[prev];
+         }
+         nextInCell[prev] = nextInCell[tgtIndex];
+      }
+
+      nextInCell[tgtIndex] = NONE;
+      tgtCell[tgtIndex] = NONE;
+   }
+
+   private void link(int tgtIndex, int cell)
+   {
+      tgtCell[tgtIndex] = cell;
+      if (cell == NONE)
+      {
+         return;
+      }
+
+      // Keep each cell sorted by target index
+      if (cellHead[cell] == NONE || cellHead[cell] > tgtIndex)
+      {
+         nextInCell[tgtIndex] = cellHead[cell];
+         cellHead[cell] = tgtIndex;
+      }
+      else
+      {
+         int prev = cellHead[cell];
+         while (nextInCell[prev] != NONE && nextInCell[prev] < tgtIndex)
+         {
+            prev = nextInCell[prev];
+         }
+         nextInCell[tgtIndex] = nextInCell[prev];
+         nextInCell[prev] = tgtIndex;
+      }
+   }
+}
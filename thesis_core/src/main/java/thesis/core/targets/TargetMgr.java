@@ -2,6 +2,7 @@ package thesis.core.targets;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +10,8 @@ import org.slf4j.LoggerFactory;
 import thesis.core.SimModel;
 import thesis.core.common.CellCoordinate;
 import thesis.core.common.HavenRouting;
+import thesis.core.common.RandomStreams;
+import thesis.core.common.SimClock;
 import thesis.core.common.Trapezoid;
 import thesis.core.common.WorldPose;
 import thesis.core.serialization.world.TargetStartCfg;
@@ -25,10 +28,16 @@ public class TargetMgr implements ITrueTargetStatusProvider
    private WorldGIS worldGIS;// Used for coordinate conversions
    private TargetTypeConfigs tgtTypeCfgs;
 
+   /**
+    * Cell containing each target. Updated whenever targets move.
+    */
+   private TargetCellIndex cellIndex;
+
    public TargetMgr()
    {
       logger = LoggerFactory.getLogger(LoggerIDs.SIM_MODEL);
       targets = null;
+      cellIndex = new TargetCellIndex();
    }
 
    /**
@@ -40,9 +49,13 @@ public class TargetMgr implements ITrueTargetStatusProvider
     * @param worldCfg
     *           Targets will be generated based on configuration data from here
     *           and types will be cross referenced from entTypes.
+    * @param clock
+    *           The clock of the simulation owning the targets.
+    * @param randStreams
+    *           Each target is given its own random stream from here.
     */
    public void reset(TargetTypeConfigs tgtTypeCfgs, List<TargetStartCfg> tgtStartCfgs, HavenRouting havenRouting,
-         WorldGIS worldGIS)
+         WorldGIS worldGIS, SimClock clock, RandomStreams randStreams)
    {
       this.worldGIS = worldGIS;
       this.tgtTypeCfgs = tgtTypeCfgs;
@@ -57,6 +70,9 @@ public class TargetMgr implements ITrueTargetStatusProvider
       {
          TargetStartCfg startCfg = tgtStartCfgs.get(i);
          int tgtType = startCfg.getTargetType();
+         // Always consume a stream so each target's stream only depends on its
+         // index
+         Random tgtRandGen = randStreams.nextStream();
 
          WorldPose pose = new WorldPose(startCfg.getLocation(), startCfg.getOrientation());
 
@@ -64,7 +80,7 @@ public class TargetMgr implements ITrueTargetStatusProvider
          {
             double tgtSpd = tgtTypeCfgs.getSpeed(tgtType);
 
-            Target tgt = new Target(tgtType, i, tgtSpd, havenRouting);
+            Target tgt = new Target(tgtType, i, tgtSpd, havenRouting, clock, tgtRandGen);
             tgt.getCoordinate().setCoordinate(pose.getCoordinate());
             tgt.setHeading(pose.getHeading());
             targets[i] = tgt;
@@ -74,6 +90,8 @@ public class TargetMgr implements ITrueTargetStatusProvider
             logger.error("Target configured with an unknown target type.  Ignoring target.");
          }
       }
+
+      cellIndex.reset(worldGIS, targets);
    }
 
    public Target getTargetByID(int tgtID)
@@ -111,6 +129,8 @@ public class TargetMgr implements ITrueTargetStatusProvider
       {
          targets[i].stepSimulation();
       }
+
+      cellIndex.update(targets);
    }
 
    /**
@@ -145,19 +165,10 @@ public class TargetMgr implements ITrueTargetStatusProvider
    public List<Target> getTargetsInRegion(List<CellCoordinate> region)
    {
       List<Target> inRegion = new ArrayList<Target>();
-      CellCoordinate tgtTemp = new CellCoordinate();
 
       for (CellCoordinate searchCell : region)
       {
-         for (Target tar : targets)
-         {
-            worldGIS.convertWorldToCell(tar.getCoordinate(), tgtTemp);
-
-            if (tgtTemp.equals(searchCell))
-            {
-               inRegion.add(tar);
-            }
-         }
+         addTargetsInCell(searchCell, false, inRegion);
       }
 
       return inRegion;
@@ -174,18 +185,7 @@ public class TargetMgr implements ITrueTargetStatusProvider
    public List<Target> getTargetsInRegion(CellCoordinate region)
    {
       List<Target> inRegion = new ArrayList<Target>();
-      CellCoordinate tgtTemp = new CellCoordinate();
-
-      for (Target tar : targets)
-      {
-         worldGIS.convertWorldToCell(tar.getCoordinate(), tgtTemp);
-
-         if (tgtTemp.equals(region))
-         {
-            inRegion.add(tar);
-         }
-      }
-
+      addTargetsInCell(region, false, inRegion);
       return inRegion;
    }
    
@@ -200,42 +200,103 @@ public class TargetMgr implements ITrueTargetStatusProvider
    public List<Target> getLivingTargetsInRegion(CellCoordinate region)
    {
       List<Target> inRegion = new ArrayList<Target>();
-      CellCoordinate tgtTemp = new CellCoordinate();
+      addTargetsInCell(region, true, inRegion);
+      return inRegion;
+   }
 
-      for (Target tar : targets)
+   /**
+    * Get all living targets within the specified geographic region without
+    * allocating a new list.
+    *
+    * @param region
+    *           Get all targets within this region.
+    * @param inRegion
+    *           Cleared and then filled with the living targets in the region
+    *           sorted by target ID.
+    */
+   public void getLivingTargetsInRegion(CellCoordinate region, List<Target> inRegion)
+   {
+      inRegion.clear();
+      addTargetsInCell(region, true, inRegion);
+   }
+
+   public Target getTargetInRegion(CellCoordinate region, int tgtType)
+   {
+      Target searchResult = null;
+
+      if (cellIndex.isIndexed(region))
       {
-         worldGIS.convertWorldToCell(tar.getCoordinate(), tgtTemp);
+         for (int i = cellIndex.first(region); i != TargetCellIndex.NONE; i = cellIndex.next(i))
+         {
+            if (targets[i].getType() == tgtType)
+            {
+               searchResult = targets[i];
+               break;
+            }
+         }
+      }
+      else
+      {
+         // Only targets that have left the world can be in cells outside of
+         // the world grid and they are not indexed
+         CellCoordinate tgtTemp = new CellCoordinate();
 
-         if (tgtTemp.equals(region) && tar.isAlive())
+         for (Target tar : targets)
          {
-            inRegion.add(tar);
+            if (tar.getType() == tgtType)
+            {
+               worldGIS.convertWorldToCell(tar.getCoordinate(), tgtTemp);
+
+               if (tgtTemp.equals(region))
+               {
+                  searchResult = tar;
+                  break;
+               }
+            }
          }
       }
 
-      return inRegion;
+      return searchResult;
    }
 
-   public Target getTargetInRegion(CellCoordinate region, int tgtType)
+   /**
+    * Append the targets within a cell to a list in target ID order.
+    *
+    * @param cell
+    *           The cell to search.
+    * @param livingOnly
+    *           If true then destroyed targets are not appended.
+    * @param inRegion
+    *           The targets are appended to this list.
+    */
+   private void addTargetsInCell(CellCoordinate cell, boolean livingOnly, List<Target> inRegion)
    {
-      Target searchResult = null;
-
-      CellCoordinate tgtTemp = new CellCoordinate();
-
-      for (Target tar : targets)
+      if (cellIndex.isIndexed(cell))
       {
-         if (tar.getType() == tgtType)
+         for (int i = cellIndex.first(cell); i != TargetCellIndex.NONE; i = cellIndex.next(i))
+         {
+            if (!livingOnly || targets[i].isAlive())
+            {
+               inRegion.add(targets[i]);
+            }
+         }
+      }
+      else
+      {
+         // Only targets that have left the world can be in cells outside of
+         // the world grid and they are not indexed
+         CellCoordinate tgtTemp = new CellCoordinate();
+
+         for (Target tar : targets)
          {
             worldGIS.convertWorldToCell(tar.getCoordinate(), tgtTemp);
 
-            if (tgtTemp.equals(region))
+            if (tgtTemp.equals(cell) && (!livingOnly || tar.isAlive()))
             {
-               searchResult = tar;
-               break;
+               inRegion.add(tar);
             }
          }
       }
-
-      return searchResult;
    }
 
    @Override
@@ -0,0 +1,153 @@
+package thesis.core.uav;
+
+import thesis.core.common.WorldPose;
+
+/**
+ * A fixed capacity history of poses stored in a ring buffer. Once full, adding
+ * a pose overwrites the oldest one. Poses are read in place by their age
+ * instead of being copied out. Trails are not thread safe, see
+ * {@link Pathing#getFlightTrail()}.
+ */
+public class FlightTrail
+{
+   private final double[] north;
+   private final double[] east;
+   private final double[] heading;
+
+   /**
+    * Index of the oldest pose.
+    */
+   private int head;
+   private int size;
+
+   /**
+    * @param capacity
+    *           The maximum number of poses stored.
+    */
+   public FlightTrail(int capacity)
+   {
+      if (capacity < 1)
+      {
+         throw new IllegalArgumentException("Flight trail capacity must be at least 1.");
+      }
+
+      north = new double[capacity];
+      east = new double[capacity];
+      heading = new double[capacity];
+      head = 0;
+      size = 0;
+   }
+
+   /**
+    * Append a pose, dropping the oldest pose if the trail is full.
+    *
+    * @param pose
+    *           The pose to record. It is copied.
+    */
+   public void add(WorldPose pose)
+   {
+      final int capacity = north.length;
+      int tail = head + size;
+      if (tail >= capacity)
+      {
+         tail -= capacity;
+      }
+
+      north[tail] = pose.getNorth();
+      east[tail] = pose.getEast();
+      heading[tail] = pose.getHeading();
+
+      if (size < capacity)
+      {
+         ++size;
+      }
+      else if (++head == capacity)
+      {
+         head = 0;
+      }
+   }
+
+   /**
+    * Remove every pose.
+    */
+   public void clear()
+   {
+      head = 0;
+      size = 0;
+   }
+
+   /**
+    * @return The number of recorded poses.
+    */
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * @return The maximum number of poses stored.
+    */
+   public int getCapacity()
+   {
+      return north.length;
+   }
+
+   /**
+    * @param i
+    *           Age of the pose where 0 is the oldest and size() - 1 is the most
+    *           recent.
+    * @return The northern coordinate of the pose in meters.
+    */
+   public double getNorth(int i)
+   {
+      return north[toBufferIndex(i)];
+   }
+
+   /**
+    * @param i
+    *           See {@link #getNorth(int)}.
+    * @return The eastern coordinate of the pose in meters.
+    */
+   public double getEast(int i)
+   {
+      return east[toBufferIndex(i)];
+   }
+
+   /**
+    * @param i
+    *           See {@link #getNorth(int)}.
+    * @return The heading of the pose in degrees.
+    */
+   public double getHeading(int i)
+   {
+      return heading[toBufferIndex(i)];
+   }
+
+   /**
+    * @param i
+    *           See {@link #getNorth(int)}.
+    * @param result
+    *           Set to the recorded pose.
+    */
+   public void getPose(int i, WorldPose result)
+   {
+      final int index = toBufferIndex(i);
+      result.getCoordinate().setCoordinate(north[index], east[index]);
+      result.setHeading(heading[index]);
+   }
+
+   private int toBufferIndex(int i)
+   {
+      if (i < 0 || i >= size)
+      {
+         throw new IndexOutOfBoundsException("Trail index " + i + " out of range [0, " + size + ").");
+      }
+
+      int index = head + i;
+      if (index >= north.length)
+      {
+         index -= north.length;
+      }
+      return index;
+   }
+}
@@ -12,6 +12,7 @@ import thesis.core.common.SimTime;
 import thesis.core.common.WorldCoordinate;
 import thesis.core.common.WorldPose;
 import thesis.core.uav.dubins.DubinsPath;
+import thesis.core.uav.dubins.DubinsPathCache;
 import thesis.core.uav.dubins.DubinsPathGenerator;
 import thesis.core.uav.dubins.PathPhase;
 import thesis.core.uav.dubins.PathType;
@@ -51,10 +52,23 @@ public class Pathing
    private DubinsPath path;
    private PathPhase pathPhase;
 
+   /**
+    * Optional cache of generated paths. Null if paths are always generated.
+    */
+   private DubinsPathCache pathCache;
+
    private double lastTrailSampleTimeAccumulator;
-   private List<WorldPose> pathTrail;
+   private FlightTrail pathTrail;
+
+   /**
+    * If false then the flight history trail is not recorded.
+    */
+   private boolean trailEnabled;
 
-   private int numFramesToWypt;
+   /**
+    * Distance flown along the current path in meters.
+    */
+   private double distAlongPath;
    private int uavID;
 
    public Pathing(int id, int type, UAVTypeConfigs uavTypeCfgs)
@@ -65,10 +79,12 @@ public class Pathing
       frameSpd = uavTypeCfgs.getFrameSpd(type);
 
       pathPhase = null;
+      pathCache = null;
       pose = new WorldPose();
-      pathTrail = new ArrayList<WorldPose>();
+      pathTrail = new FlightTrail(MAX_TRAIL_ENTRIES);
+      trailEnabled = true;
       lastTrailSampleTimeAccumulator = 0;
-      numFramesToWypt = 0;
+      distAlongPath = 0;
    }
 
    public WorldCoordinate getCoordinate()
@@ -103,30 +119,81 @@ public class Pathing
     */
    public void stepSimulation()
    {
-      // FIXME This is temporary debug code to prevent the uav from moving after
-      // reaching
-      // the destination from TEMP_setDestination()
-      if (numFramesToWypt > 0)
+      stepSimulation(1);
+   }
+
+   /**
+    * Step the simulation forward by a number of frames at once. The pose is
+    * computed in closed form along the flight path so the cost does not depend
+    * on the number of frames. The flight history trail is sampled at most once
+    * per call.
+    *
+    * @param numFrames
+    *           The number of frames to advance.
+    */
+   public void stepSimulation(int numFrames)
+   {
+      // pathPhase is null when no destination is set
+      if (pathPhase != null)
       {
-         // Move the aircraft according to its speed, heading, and turn rate
-         stepPhysics();
+         // Move the aircraft according to its speed along the flight path
+         final double prevDist = distAlongPath;
+         distAlongPath += numFrames * frameSpd;
+         path.getPose(distAlongPath, pose);
 
-         lastTrailSampleTimeAccumulator += SimTime.SIM_STEP_RATE_MS;
-         if (lastTrailSampleTimeAccumulator > TRAIL_SAMPLE_INTERVAL_MS)
+         if (trailEnabled)
          {
-            lastTrailSampleTimeAccumulator = 0;
-            WorldPose curPose = new WorldPose(pose);
-            pathTrail.add(curPose);
-
-            if (pathTrail.size() > MAX_TRAIL_ENTRIES)
+            lastTrailSampleTimeAccumulator += numFrames * SimTime.SIM_STEP_RATE_MS;
+            if (lastTrailSampleTimeAccumulator > TRAIL_SAMPLE_INTERVAL_MS)
             {
-               pathTrail.remove(0);
+               lastTrailSampleTimeAccumulator = 0;
+               pathTrail.add(pose);
             }
          }
+
+         // Check if the aircraft has moved on to a new segment of the path
+         checkPathPhaseTransition(prevDist);
+      }
+   }
+
+   /**
+    * Compute the pose the UAV will have after flying along its current flight
+    * path for a length of time. The UAV is not moved.
+    *
+    * @param elapsedMS
+    *           Simulation time from now in milliseconds.
+    * @param result
+    *           Set to the predicted pose.
+    */
+   public void predictPose(double elapsedMS, WorldPose result)
+   {
+      if (pathPhase != null)
+      {
+         path.getPose(distAlongPath + (elapsedMS / SimTime.SIM_STEP_RATE_MS) * frameSpd, result);
+      }
+      else
+      {
+         result.copy(pose);
       }
-      // Check if the aircraft needs to start heading towards a new location
-      checkPathPhaseTransition();
+   }
+
+   /**
+    * @return The cache used to generate this UAV's flight paths or null if
+    *         paths are not cached.
+    */
+   public DubinsPathCache getPathCache()
+   {
+      return pathCache;
+   }
 
+   /**
+    * @param cache
+    *           Generate flight paths through this cache. Null to always
+    *           generate paths.
+    */
+   public void setPathCache(DubinsPathCache cache)
+   {
+      pathCache = cache;
    }
 
    public DubinsPath getFlightPath()
@@ -142,88 +209,109 @@ public class Pathing
     */
    public void getFlightHistoryTrail(List<WorldPose> retVal)
    {
-      retVal.addAll(pathTrail);
+      final int numPoses = pathTrail.size();
+      for (int i = 0; i < numPoses; ++i)
+      {
+         WorldPose trailPose = new WorldPose();
+         pathTrail.getPose(i, trailPose);
+         retVal.add(trailPose);
+      }
    }
 
-   public void teleportTo(WorldCoordinate wc)
+   /**
+    * The trail is modified in place while the UAV steps. Threads other than
+    * the one stepping the simulation must hold the lock of the
+    * {@link thesis.core.SimModel} that is held while stepping, as
+    * {@link thesis.core.world.RenderSimState#render} does, to read a
+    * consistent trail.
+    *
+    * @return The poses the UAV reached sampled along its current flight path,
+    *         read in place.
+    */
+   public FlightTrail getFlightTrail()
    {
-      logger.info("Teleporting uav {} to {}", uavID, wc);
-      pose.getCoordinate().setCoordinate(wc);
-      if (path != null)
+      return pathTrail;
+   }
+
+   /**
+    * @param enabled
+    *           False to stop recording the flight history trail. Disabling the
+    *           trail discards the poses already recorded.
+    */
+   public void setFlightTrailEnabled(boolean enabled)
+   {
+      trailEnabled = enabled;
+      if (!enabled)
       {
-         computePathTo(path.getEndPose());
+         pathTrail.clear();
+         lastTrailSampleTimeAccumulator = 0;
       }
    }
 
-   private void stepPhysics()
+   public boolean isFlightTrailEnabled()
    {
-      // We're one frame closer to the next waypoint so decrement the counter
-      --numFramesToWypt;
+      return trailEnabled;
+   }
 
-      double turnCoeff = 0;
-      switch (path.getPathType().getSegmentType(pathPhase))
-      {
-      case Left:
-      {
-         turnCoeff = 1.0;
-      }
-         break;
-      case Right:
-      {
-         turnCoeff = -1.0;
-      }
-         break;
-      case Straight:
+   public void teleportTo(WorldCoordinate wc)
+   {
+      logger.info("Teleporting uav {} to {}", uavID, wc);
+      pose.getCoordinate().setCoordinate(wc);
+      if (path != null)
       {
-         turnCoeff = 0;
-      }
-         break;
+         computePathTo(path.getEndPose());
       }
-
-      double turnRate = turnCoeff * (frameSpd / minTurnRadius);
-
-      double hdgRads = Math.toRadians(pose.getHeading()) + turnRate;
-      pose.setHeading(Math.toDegrees(hdgRads));
-
-      final double northing = frameSpd * Math.sin(Math.toRadians(pose.getHeading()));
-      final double easting = frameSpd * Math.cos(Math.toRadians(pose.getHeading()));
-      pose.getCoordinate().translateCart(northing, easting);
-
-      // logger.trace("{}", this);
    }
 
-   private void checkPathPhaseTransition()
+   /**
+    * Log the waypoints reached since the previous step.
+    *
+    * @param prevDist
+    *           Distance along the path before the step.
+    */
+   private void checkPathPhaseTransition(double prevDist)
    {
-      // pathPhase is null when no destination is set
-      if (numFramesToWypt <= 0 && pathPhase != null)
+      final PathPhase newPhase = path.getPhase(distAlongPath);
+      if (newPhase != pathPhase)
       {
-         switch (pathPhase)
+         switch (newPhase)
          {
-         case Phase1:
-            pathPhase = PathPhase.Phase2;
+         case Phase2:
             logger.trace("UAV {} reached waypoint 1, moving towards waypoint 2.", uavID);
             break;
-         case Phase2:
-            pathPhase = PathPhase.Phase3;
+         case Phase3:
             logger.trace("UAV {} reached waypoint 2, moving towards waypoint 3.", uavID);
             break;
-         case Phase3:
-            logger.trace("UAV {} reached waypoint 3.", uavID);
+         default:
             break;
          }
-         resetFramesToWaypoint();
+         pathPhase = newPhase;
+      }
+
+      final double pathLen = path.getPathLength();
+      if (prevDist < pathLen && distAlongPath >= pathLen)
+      {
+         logger.trace("UAV {} reached waypoint 3.", uavID);
       }
    }
 
-   private void resetFramesToWaypoint()
+   private DubinsPath generatePath(final WorldPose start, final WorldPose end)
    {
-      final double distToWypt = path.getSegmentLength(pathPhase);
-      numFramesToWypt = (int) (distToWypt / frameSpd) + 1;
+      DubinsPath newPath = null;
+      if (pathCache != null)
+      {
+         newPath = pathCache.generate(minTurnRadius, start, end);
+      }
+      else
+      {
+         newPath = DubinsPathGenerator.generate(minTurnRadius, start, end);
+      }
+      return newPath;
    }
 
    public void computePathTo(final WorldPose flyTo)
    {
-      resetPath(DubinsPathGenerator.generate(minTurnRadius, pose, flyTo));
+      resetPath(generatePath(pose, flyTo));
    }
 
    public void computePathTo(final WorldCoordinate flyTo)
@@ -235,8 +323,8 @@ public class Pathing
    
    public void computePathByDistance(final WorldPose option1, final WorldPose option2, boolean shortestPath)
    {
-      DubinsPath path1 = DubinsPathGenerator.generate(minTurnRadius, pose, option1);
-      DubinsPath path2 = DubinsPathGenerator.generate(minTurnRadius, pose, option2);
+      DubinsPath path1 = generatePath(pose, option1);
+      DubinsPath path2 = generatePath(pose, option2);
       
       if(path1.getPathType() != PathType.NO_PATH && path2.getPathType() != PathType.NO_PATH)
       {
@@ -288,8 +376,7 @@ public class Pathing
          pathPhase = PathPhase.Phase1;
          pathTrail.clear();
          lastTrailSampleTimeAccumulator = 0;
-
-         resetFramesToWaypoint();
+         distAlongPath = 0;
       }
       else
       {
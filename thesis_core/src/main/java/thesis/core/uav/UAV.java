@@ -1,12 +1,9 @@
 package thesis.core.uav;
 
-import java.util.List;
-
 import thesis.core.belief.WorldBelief;
-import thesis.core.common.SimTime;
+import thesis.core.common.SimClock;
 import thesis.core.common.WorldPose;
 import thesis.core.sensors.SensorGroup;
-import thesis.core.uav.comms.Message;
 import thesis.core.uav.comms.UAVComms;
 import thesis.core.uav.logic.UAVLogicMgr;
 import thesis.core.weapons.WeaponGroup;
@@ -28,8 +25,9 @@ public class UAV
    private WorldBelief belief;
    private Pathing pathing;
    private UAVLogicMgr logicMgr;
+   private SimClock clock;
 
-   public UAV(int type, int id, SensorGroup sensors, WeaponGroup weapons, UAVComms comms, Pathing pathing, UAVLogicMgr logicMgr, WorldBelief wb)
+   public UAV(int type, int id, SensorGroup sensors, WeaponGroup weapons, UAVComms comms, Pathing pathing, UAVLogicMgr logicMgr, WorldBelief wb, SimClock clock)
    {
       if (sensors == null)
       {
@@ -61,6 +59,11 @@ public class UAV
          throw new NullPointerException("Worldbelief cannot be null.");
       }
 
+      if (clock == null)
+      {
+         throw new NullPointerException("Sim clock cannot be null.");
+      }
+
       this.id = id;
       this.type = type;
       this.sensors = sensors;
@@ -69,6 +72,7 @@ public class UAV
       this.pathing = pathing;
       this.logicMgr = logicMgr;
       this.belief = wb;
+      this.clock = clock;
    }
 
    public int getID()
@@ -82,20 +86,35 @@ public class UAV
    }
 
    /**
-    * Step the simulation forward by one frame.
+    * Execute one phase of a simulation frame.
+    *
+    * @param phase
+    *           The phase to execute.
     */
-   public void stepSimulation()
+   public void stepSimulation(UAVPhase phase)
    {
-      pathing.stepSimulation();
-
-      // Must be invoked before the comms.stepSimulation() call so that
-      // broadcast messages are received.
-      List<Message> msgs = comms.getAllIncoming();
-
-      comms.stepSimulation(pathing.getCoordinate());
-      sensors.stepSimulation(pathing.getPose(), belief, SimTime.getCurrentSimTimeMS());
-      logicMgr.stepSimulation(belief, msgs, this, comms);
-      belief.stepSimulation(comms);
+      switch (phase)
+      {
+      case Move:
+         pathing.stepSimulation();
+         break;
+      case Sense:
+         sensors.stepSimulation(pathing.getPose(), belief, clock.getCurrentSimTimeMS());
+         break;
+      case Relay:
+         comms.relayIncoming();
+         break;
+      case Communicate:
+         comms.receiveTransmissions(pathing.getCoordinate());
+         break;
+      case Decide:
+         comms.swapBuffers();
+         logicMgr.stepSimulation(belief, comms.getAllIncoming(), this, comms);
+         break;
+      case Decay:
+         belief.stepSimulation(comms);
+         break;
+      }
    }
 
    public Pathing getPathing()
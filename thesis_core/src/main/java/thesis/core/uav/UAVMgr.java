@@ -2,7 +2,8 @@ package thesis.core.uav;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,13 +12,17 @@ import thesis.core.EntityTypeCfgs;
 import thesis.core.SimModel;
 import thesis.core.belief.WorldBelief;
 import thesis.core.common.Circle;
+import thesis.core.common.RandomStreams;
+import thesis.core.common.SimClock;
 import thesis.core.sensors.Sensor;
 import thesis.core.sensors.SensorGroup;
+import thesis.core.sensors.SensorProbTables;
 import thesis.core.sensors.SensorScanLogic;
 import thesis.core.serialization.world.UAVStartCfg;
 import thesis.core.targets.TargetMgr;
 import thesis.core.uav.comms.CommsConfig;
 import thesis.core.uav.comms.UAVComms;
+import thesis.core.uav.dubins.DubinsPathCache;
 import thesis.core.uav.logic.UAVLogicMgr;
 import thesis.core.utilities.LoggerIDs;
 import thesis.core.weapons.Weapon;
@@ -30,13 +35,168 @@ import thesis.core.world.WorldGIS;
  */
 public class UAVMgr
 {
+   /**
+    * Phases executed concurrently are split across threads until each thread
+    * has at most this many UAVs.
+    */
+   private static final int UAVS_PER_TASK = 8;
+
    private Logger logger;
    private UAV[] uavs;
 
+   /**
+    * Executes parallel safe phases across UAVs. Null if all phases are
+    * executed serially.
+    */
+   private ForkJoinPool pool;
+
+   /**
+    * Positions of all UAVs as of the end of the current frame's
+    * {@link UAVPhase#Move} phase.
+    */
+   private UAVSpatialIndex spatialIndex;
+
+   /**
+    * Maximum number of flight paths cached by each UAV. Zero if flight paths
+    * are not cached.
+    */
+   private int pathCacheSize;
+
+   /**
+    * If false then UAVs do not record their flight history trails.
+    */
+   private boolean flightTrailsEnabled;
+
    public UAVMgr()
    {
       logger = LoggerFactory.getLogger(LoggerIDs.SIM_MODEL);
       uavs = null;
+      pool = null;
+      spatialIndex = new UAVSpatialIndex();
+      pathCacheSize = 0;
+      flightTrailsEnabled = true;
+   }
+
+   /**
+    * Choose whether UAVs record their flight history trails. Trails are only
+    * used for rendering. Applies to the current UAVs and to all UAVs created
+    * by later resets.
+    *
+    * @param enabled
+    *           False to stop recording trails.
+    */
+   public void setFlightTrailsEnabled(boolean enabled)
+   {
+      flightTrailsEnabled = enabled;
+      if (uavs != null)
+      {
+         for (UAV uav : uavs)
+         {
+            uav.getPathing().setFlightTrailEnabled(enabled);
+         }
+      }
+   }
+
+   /**
+    * Set the number of flight paths cached by each UAV. Applies to the current
+    * UAVs and to all UAVs created by later resets.
+    *
+    * @param size
+    *           Maximum number of cached paths per UAV. Zero disables caching
+    *           so every path is generated exactly.
+    */
+   public void setPathCacheSize(int size)
+   {
+      if (size < 0)
+      {
+         throw new IllegalArgumentException("Path cache size cannot be negative.");
+      }
+
+      pathCacheSize = size;
+      if (uavs != null)
+      {
+         for (UAV uav : uavs)
+         {
+            uav.getPathing().setPathCache(createPathCache());
+         }
+      }
+   }
+
+   private DubinsPathCache createPathCache()
+   {
+      DubinsPathCache cache = null;
+      if (pathCacheSize > 0)
+      {
+         cache = new DubinsPathCache(pathCacheSize, DubinsPathCache.DEFAULT_POSITION_QUANTUM,
+               DubinsPathCache.DEFAULT_HEADING_QUANTUM);
+      }
+      return cache;
+   }
+
+   /**
+    * Log the flight path cache hits and misses summed over all UAVs. Each
+    * UAV's cache is logged at debug level. Nothing is logged if flight paths
+    * are not cached.
+    */
+   public void logPathCacheStats()
+   {
+      if (pathCacheSize == 0 || uavs == null)
+      {
+         return;
+      }
+
+      long numHits = 0;
+      long numMisses = 0;
+      for (UAV uav : uavs)
+      {
+         DubinsPathCache cache = uav.getPathing().getPathCache();
+         if (cache != null)
+         {
+            numHits += cache.getNumHits();
+            numMisses += cache.getNumMisses();
+            logger.debug("UAV {} {}", uav.getID(), cache);
+         }
+      }
+
+      final long numRequests = numHits + numMisses;
+      logger.info("Dubins path caches: {} hits, {} misses ({}%)", numHits, numMisses,
+            String.format("%.1f", numRequests > 0 ? 100.0 * numHits / numRequests : 0));
+   }
+
+   /**
+    * Set the number of threads used to step the UAVs. Results are identical
+    * regardless of the number of threads.
+    *
+    * @param numThreads
+    *           The number of threads. A value of 1 steps all UAVs serially on
+    *           the calling thread.
+    */
+   public void setParallelism(int numThreads)
+   {
+      if (numThreads < 1)
+      {
+         throw new IllegalArgumentException("Number of threads must be at least 1.");
+      }
+
+      shutdown();
+
+      if (numThreads > 1)
+      {
+         pool = new ForkJoinPool(numThreads);
+      }
+   }
+
+   /**
+    * Stop the threads used to step the UAVs. Later steps run serially on the
+    * calling thread until {@link #setParallelism(int)} is called again.
+    */
+   public void shutdown()
+   {
+      if (pool != null)
+      {
+         pool.shutdown();
+         pool = null;
+      }
    }
 
    /**
@@ -48,15 +208,18 @@ public class UAVMgr
     * @param worldCfg
     *           UAVs will be generated based on configuration data from here and
     *           types will be cross referenced from entTypes.
+    * @param snsrProbTables
+    *           Angle dependent sensor probabilities shared by all UAVs.
+    * @param randStreams
+    *           Each UAV is given its own branch of random streams from here.
+    * @param clock
+    *           The clock of the simulation owning the UAVs.
     */
-   public void reset(EntityTypeCfgs entTypes, List<UAVStartCfg> uavStartCfgs, TargetMgr tgtMgr, Random randGen,
-         CommsConfig commsCfg, WorldGIS gis, double beliefDecayRate, double minUncertBeliefNoTgts)
+   public void reset(EntityTypeCfgs entTypes, List<UAVStartCfg> uavStartCfgs, TargetMgr tgtMgr,
+         SensorProbTables snsrProbTables, RandomStreams randStreams, CommsConfig commsCfg, WorldGIS gis, double beliefDecayRate, double minUncertBeliefNoTgts, SimClock clock)
    {
       logger.debug("Resetting UAV Manager.");
 
-      SensorScanLogic snsrScanner = new SensorScanLogic(entTypes.getSnsrProbs(), tgtMgr, randGen);
-      WeaponAttackLogic wpnAtkLogic = new WeaponAttackLogic(entTypes.getWpnProbs(), tgtMgr, randGen);
-
       final int NUM_TGT_TYPES = tgtMgr.getTypeConfigs().getNumTypes();
 
       final int NUM_UAVS = uavStartCfgs.size();
@@ -72,6 +235,10 @@ public class UAVMgr
 
       for (int i = 0; i < NUM_UAVS; ++i)
       {
+         final RandomStreams uavStreams = randStreams.split();
+
+         final SensorScanLogic snsrScanner = new SensorScanLogic(snsrProbTables, tgtMgr,
+               uavStreams.nextStream());
          final SensorGroup sensors = new SensorGroup(snsrScanner, gis);
          uavStartCfg = uavStartCfgs.get(i);
          int type = uavStartCfg.getUAVType();
@@ -90,6 +257,8 @@ public class UAVMgr
             }
          }
 
+         final WeaponAttackLogic wpnAtkLogic = new WeaponAttackLogic(entTypes.getWpnProbs(), tgtMgr,
+               uavStreams.nextStream());
          final WeaponGroup weapons = new WeaponGroup(wpnAtkLogic);
          for (int j = 0; j < NUM_WPN_TYPES; ++j)
          {
@@ -101,17 +270,26 @@ public class UAVMgr
                weapons.addWeapon(wpn);
             }
          }
-         final UAVComms comms = new UAVComms(i, this, randGen, commsCfg);
+         final UAVComms comms = new UAVComms(i, this, uavStreams.nextStream(), commsCfg, clock);
 
          final Pathing pathing = new Pathing(i, type, entTypes.getUAVTypeCfgs());
          pathing.getCoordinate().setCoordinate(uavStartCfg.getLocation());
          pathing.setHeading(uavStartCfg.getOrientation());
+         pathing.setPathCache(createPathCache());
+         pathing.setFlightTrailEnabled(flightTrailsEnabled);
 
-         final UAVLogicMgr logicMgr = new UAVLogicMgr(i, gis, randGen, NUM_TGT_TYPES, tgtMgr, tgtMgr.getTypeConfigs());
+         final UAVLogicMgr logicMgr = new UAVLogicMgr(i, gis, uavStreams, NUM_TGT_TYPES, tgtMgr, tgtMgr.getTypeConfigs(),
+               clock);
 
-         WorldBelief wb = new WorldBelief(gis.getRowCount(), gis.getColumnCount(), NUM_TGT_TYPES, beliefDecayRate, minUncertBeliefNoTgts);
-         uavs[i] = new UAV(type, i, sensors, weapons, comms, pathing, logicMgr, wb);
+         WorldBelief wb = new WorldBelief(gis.getRowCount(), gis.getColumnCount(), NUM_TGT_TYPES, beliefDecayRate,
+               minUncertBeliefNoTgts, clock);
+         uavs[i] = new UAV(type, i, sensors, weapons, comms, pathing, logicMgr, wb, clock);
       }
+
+      // Buckets the size of the comms range keep neighbor queries to at most
+      // 3x3 buckets
+      spatialIndex.reset(gis.getWidth(), gis.getHeight(), commsCfg.getMaxCommsRng(), NUM_UAVS);
+      spatialIndex.rebuild(uavs);
    }
 
    public UAV[] getAllUAVs()
@@ -143,12 +321,30 @@ public class UAVMgr
    /**
     * Step the simulation forward by {@link SimModel#SIM_STEP_RATE_MS} amount of
     * time.
+    *
+    * Each {@link UAVPhase} is completed by all UAVs before the next phase
+    * begins.
     */
    public void stepSimulation()
    {
-      for (int i = 0; i < uavs.length; ++i)
+      for (UAVPhase phase : UAVPhase.values())
       {
-         uavs[i].stepSimulation();
+         if (pool != null && phase.isParallelSafe())
+         {
+            pool.invoke(new PhaseTask(uavs, phase, 0, uavs.length));
+         }
+         else
+         {
+            for (int i = 0; i < uavs.length; ++i)
+            {
+               uavs[i].stepSimulation(phase);
+            }
+         }
+
+         if (phase == UAVPhase.Move)
+         {
+            spatialIndex.rebuild(uavs);
+         }
       }
    }
 
@@ -200,4 +396,63 @@ public class UAVMgr
 
       return inRegion;
    }
+
+   /**
+    * Get all UAVs within the specified geographic region without allocating
+    * memory. Positions are taken from the last completed
+    * {@link UAVPhase#Move} phase so the results are only valid once the move
+    * phase has completed.
+    *
+    * @param region
+    *           Get all UAVs within this region.
+    * @param excludeUAV
+    *           ID of a UAV to exclude from the results.
+    * @param results
+    *           Filled with the UAVs in the region sorted by ID. Must have room
+    *           for every UAV in the simulation.
+    * @return The number of UAVs written to the results.
+    */
+   public int getUAVsInRegion(Circle region, int excludeUAV, UAV[] results)
+   {
+      return spatialIndex.query(region, excludeUAV, results);
+   }
+
+   /**
+    * Recursively splits a range of UAVs across the fork join pool and executes
+    * a single phase on each UAV.
+    */
+   private static class PhaseTask extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final UAV[] uavs;
+      private final UAVPhase phase;
+      private final int start;
+      private final int end;
+
+      public PhaseTask(UAV[] uavs, UAVPhase phase, int start, int end)
+      {
+         this.uavs = uavs;
+         this.phase = phase;
+         this.start = start;
+         this.end = end;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if (end - start <= UAVS_PER_TASK)
+         {
+            for (int i = start; i < end; ++i)
+            {
+               uavs[i].stepSimulation(phase);
+            }
+         }
+         else
+         {
+            int mid = (start + end) >>> 1;
+            invokeAll(new PhaseTask(uavs, phase, start, mid), new PhaseTask(uavs, phase, mid, end));
+         }
+      }
+   }
 }
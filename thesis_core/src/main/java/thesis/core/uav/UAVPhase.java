@@ -0,0 +1,58 @@
+package thesis.core.uav;
+
+/**
+ * The phases of a simulation frame in the order they are executed. Every UAV
+ * completes a phase before any UAV starts the next phase.
+ */
+public enum UAVPhase
+{
+   /**
+    * Fly along the current path.
+    */
+   Move(true),
+   /**
+    * Scan the sensor footprints and update the world belief.
+    */
+   Sense(true),
+   /**
+    * Decide which received messages to relay to neighbors.
+    */
+   Relay(true),
+   /**
+    * Receive messages transmitted by neighbors since the last frame.
+    */
+   Communicate(true),
+   /**
+    * Process received messages, allocate tasks, and execute task logic.
+    */
+   Decide(false),
+   /**
+    * Decay the world belief and broadcast it to neighbors.
+    */
+   Decay(true);
+
+   /**
+    * True if the phase only mutates the state of the UAV executing it or
+    * shared state in an order independent manner.
+    */
+   private final boolean parallelSafe;
+
+   private UAVPhase(boolean parallelSafe)
+   {
+      this.parallelSafe = parallelSafe;
+   }
+
+   /**
+    * Each UAV draws from its own random streams so phases may run concurrently
+    * as long as they do not read state another UAV is mutating in the same
+    * phase. The decide phase destroys targets that other UAVs may be tracking
+    * in the same phase so it must be executed serially in UAV order to
+    * produce reproducible results.
+    *
+    * @return True if the phase may be executed across UAVs concurrently.
+    */
+   public boolean isParallelSafe()
+   {
+      return parallelSafe;
+   }
+}
@@ -0,0 +1,238 @@
+package thesis.core.uav;
+
+import java.util.Arrays;
+
+import thesis.core.common.Circle;
+import thesis.core.common.WorldCoordinate;
+
+/**
+ * A uniform grid of buckets over the world used to find UAVs near a location
+ * without testing every UAV.
+ *
+ * The index is a snapshot of UAV positions taken by {@link #rebuild(UAV[])}.
+ * UAVs are stored in a single array sorted by bucket with the start offset of
+ * each bucket kept in a second array so rebuilding does not allocate memory.
+ * UAVs outside of the world are clamped into the nearest edge bucket. Query
+ * hits are marked in a bitset over the UAV array so they are returned in ID
+ * order in time linear in the number of hits. Each querying thread allocates
+ * its bitset once and reuses it afterwards.
+ */
+class UAVSpatialIndex
+{
+   /**
+    * Upper bound on the number of buckets along each axis of the world.
+    */
+   private static final int MAX_BUCKETS_PER_AXIS = 1024;
+
+   private int numBucketRows;
+   private int numBucketCols;
+   private double bucketHeight;
+   private double bucketWidth;
+
+   /**
+    * Offset into {@link #bucketUAVs} of the first UAV in each bucket. Has one
+    * more entry than the number of buckets so that the end of a bucket is the
+    * start of the next.
+    */
+   private int[] bucketStart;
+
+   /**
+    * Position of every indexed UAV within {@link #indexedUAVs} sorted by
+    * bucket then by ID.
+    */
+   private int[] bucketUAVs;
+
+   /**
+    * The UAVs given to the last rebuild sorted by ID.
+    */
+   private UAV[] indexedUAVs;
+
+   /**
+    * One bit per position in {@link #indexedUAVs} marking the hits of the
+    * query in progress. Every bit is cleared before a query returns. Each
+    * thread has its own bits so that UAVs may query concurrently.
+    */
+   private final ThreadLocal<long[]> hitWords;
+
+   /**
+    * Bucket of each UAV by position in the UAV array given to the last
+    * rebuild.
+    */
+   private int[] uavBucket;
+
+   public UAVSpatialIndex()
+   {
+      numBucketRows = 1;
+      numBucketCols = 1;
+      bucketHeight = 1;
+      bucketWidth = 1;
+      bucketStart = new int[2];
+      bucketUAVs = new int[0];
+      indexedUAVs = new UAV[0];
+      hitWords = ThreadLocal.withInitial(() -> new long[0]);
+      uavBucket = new int[0];
+   }
+
+   /**
+    * Resize the index for a new world. The index is empty until the next
+    * {@link #rebuild(UAV[])}.
+    *
+    * @param worldWidth
+    *           East-west size of the world in meters.
+    * @param worldHeight
+    *           North-south size of the world in meters.
+    * @param bucketSize
+    *           Desired size of each bucket in meters. Typically the range of
+    *           the most common query.
+    * @param numUAVs
+    *           The number of UAVs that will be indexed.
+    */
+   public void reset(double worldWidth, double worldHeight, double bucketSize, int numUAVs)
+   {
+      numBucketRows = numBuckets(worldHeight, bucketSize);
+      numBucketCols = numBuckets(worldWidth, bucketSize);
+      bucketHeight = worldHeight > 0 ? worldHeight / numBucketRows : 1;
+      bucketWidth = worldWidth > 0 ? worldWidth / numBucketCols : 1;
+
+      bucketStart = new int[numBucketRows * numBucketCols + 1];
+      bucketUAVs = new int[numUAVs];
+      indexedUAVs = new UAV[numUAVs];
+      uavBucket = new int[numUAVs];
+   }
+
+   private static int numBuckets(double worldSize, double bucketSize)
+   {
+      if (worldSize <= 0 || bucketSize <= 0)
+      {
+         return 1;
+      }
+      return (int) Math.max(1, Math.min(MAX_BUCKETS_PER_AXIS, Math.ceil(worldSize / bucketSize)));
+   }
+
+   /**
+    * Snapshot the current positions of the UAVs.
+    *
+    * @param uavs
+    *           The UAVs to index sorted by ID. Must not contain more UAVs than
+    *           given to {@link #reset(double, double, double, int)}.
+    */
+   public void rebuild(UAV[] uavs)
+   {
+      Arrays.fill(bucketStart, 0);
+      Arrays.fill(indexedUAVs, null);
+      System.arraycopy(uavs, 0, indexedUAVs, 0, uavs.length);
+
+      // Counting sort of UAVs into buckets. Counts are accumulated one entry
+      // ahead so that after the prefix sum bucketStart[b] is the start of
+      // bucket b.
+      for (int i = 0; i < uavs.length; ++i)
+      {
+         final WorldCoordinate wc = uavs[i].getPathing().getCoordinate();
+         final int bucket = toBucketRow(wc.getNorth()) * numBucketCols + toBucketCol(wc.getEast());
+         uavBucket[i] = bucket;
+         ++bucketStart[bucket + 1];
+      }
+
+      for (int b = 1; b < bucketStart.length; ++b)
+      {
+         bucketStart[b] += bucketStart[b - 1];
+      }
+
+      // Fill each bucket in UAV order using the start offsets as insertion
+      // cursors, then shift the offsets back into place.
+      for (int i = 0; i < uavs.length; ++i)
+      {
+         bucketUAVs[bucketStart[uavBucket[i]]++] = i;
+      }
+      for (int b = bucketStart.length - 1; b > 0; --b)
+      {
+         bucketStart[b] = bucketStart[b - 1];
+      }
+      bucketStart[0] = 0;
+   }
+
+   /**
+    * Find all indexed UAVs strictly within a circular region.
+    *
+    * @param region
+    *           The region to search.
+    * @param excludeUAV
+    *           ID of a UAV to exclude from the results.
+    * @param results
+    *           Filled with the UAVs in the region sorted by ID. Must be large
+    *           enough to hold every indexed UAV.
+    * @return The number of UAVs written to the results.
+    */
+   public int query(Circle region, int excludeUAV, UAV[] results)
+   {
+      final WorldCoordinate center = region.getCenter();
+      final double radius = region.getRadius();
+      final double radiusSqr = radius * radius;
+
+      final int minRow = toBucketRow(center.getNorth() - radius);
+      final int maxRow = toBucketRow(center.getNorth() + radius);
+      final int minCol = toBucketCol(center.getEast() - radius);
+      final int maxCol = toBucketCol(center.getEast() + radius);
+
+      long[] hits = hitWords.get();
+      if (hits.length < (indexedUAVs.length + 63) / 64)
+      {
+         hits = new long[(indexedUAVs.length + 63) / 64];
+         hitWords.set(hits);
+      }
+
+      // Mark the hits by their position in the ID sorted UAV array so that
+      // results do not depend on the bucket layout
+      int firstWord = hits.length;
+      int endWord = 0;
+      for (int row = minRow; row <= maxRow; ++row)
+      {
+         final int rowStart = row * numBucketCols;
+         for (int i = bucketStart[rowStart + minCol]; i < bucketStart[rowStart + maxCol + 1]; ++i)
+         {
+            final int pos = bucketUAVs[i];
+            final UAV uav = indexedUAVs[pos];
+            final WorldCoordinate wc = uav.getPathing().getCoordinate();
+            final double delNorth = wc.getNorth() - center.getNorth();
+            final double delEast = wc.getEast() - center.getEast();
+
+            if (delNorth * delNorth + delEast * delEast < radiusSqr && uav.getID() != excludeUAV)
+            {
+               final int word = pos >>> 6;
+               hits[word] |= 1L << pos;
+               firstWord = Math.min(firstWord, word);
+               endWord = Math.max(endWord, word + 1);
+            }
+         }
+      }
+
+      // Emit the marked UAVs in order, clearing the bits for the next query
+      int count = 0;
+      for (int word = firstWord; word < endWord; ++word)
+      {
+         long bits = hits[word];
+         hits[word] = 0;
+         while (bits != 0)
+         {
+            results[count++] = indexedUAVs[(word << 6) + Long.numberOfTrailingZeros(bits)];
+            bits &= bits - 1;
+         }
+      }
+      return count;
+   }
+
+   private int toBucketRow(double north)
+   {
+      return clamp((int) Math.floor(north / bucketHeight), numBucketRows);
+   }
+
+   private int toBucketCol(double east)
+   {
+      return clamp((int) Math.floor(east / bucketWidth), numBucketCols);
+   }
+
+   private static int clamp(int bucket, int numBuckets)
+   {
+      return Math.max(0, Math.min(numBuckets - 1, bucket));
+   }
+}
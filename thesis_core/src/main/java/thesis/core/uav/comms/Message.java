@@ -1,7 +1,5 @@
 package thesis.core.uav.comms;
 
-import thesis.core.common.SimTime;
-
 /**
  * Abstract base class for all messages sent between UAVs.
  */
@@ -89,10 +87,13 @@ public abstract class Message
    /**
     * Reset the simulation time in which the message's data was considered valid
     * and updated to now.
+    *
+    * @param simTime
+    *           The current simulation time in milliseconds.
     */
-   public void resetTime()
+   public void resetTime(long simTime)
    {
-      simTime = SimTime.getCurrentSimTimeMS();
+      this.simTime = simTime;
    }
 
    /**
@@ -8,13 +8,31 @@ import java.util.Queue;
 import java.util.Random;
 
 import thesis.core.common.Circle;
+import thesis.core.common.SimClock;
 import thesis.core.common.WorldCoordinate;
 import thesis.core.uav.UAV;
 import thesis.core.uav.UAVMgr;
 
+/**
+ * Simulates the communications system of a UAV.
+ *
+ * Message delivery is double buffered. Messages transmitted during a frame are
+ * placed in the outgoing queue. During the {@link thesis.core.uav.UAVPhase#Communicate}
+ * phase each UAV pulls the outgoing messages of its neighbors into its
+ * delivery queue without modifying the state of any other UAV. The delivered
+ * messages become the incoming messages of the UAV once
+ * {@link #swapBuffers()} is invoked.
+ */
 public class UAVComms implements IMsgTransmitter
 {
+   /**
+    * Messages received during the previous communications phase.
+    */
    private Queue<Message> incomingQ;
+   /**
+    * Messages being received during the current communications phase.
+    */
+   private Queue<Message> deliveredQ;
    private Queue<Message> outgoingQ;
    private UAVMgr uavMgr;
    private Random randGen;
@@ -38,7 +56,17 @@ public class UAVComms implements IMsgTransmitter
     */
    private double commsRelayProb;
 
-   public UAVComms(int hostUavId, UAVMgr uavMgr, Random randGen, CommsConfig commsCfg)
+   /**
+    * Used to timestamp outgoing messages.
+    */
+   private SimClock clock;
+
+   /**
+    * Reused buffer for the results of neighbor queries.
+    */
+   private UAV[] neighbors;
+
+   public UAVComms(int hostUavId, UAVMgr uavMgr, Random randGen, CommsConfig commsCfg, SimClock clock)
    {
       if (uavMgr == null)
       {
@@ -50,22 +78,36 @@ public class UAVComms implements IMsgTransmitter
          throw new NullPointerException("Random generator cannot be null.");
       }
 
+      if (clock == null)
+      {
+         throw new NullPointerException("Sim clock cannot be null.");
+      }
+
       this.hostUavId = hostUavId;
       this.uavMgr = uavMgr;
       this.maxRelayHops = commsCfg.getMaxRelayHops();
       this.randGen = randGen;
       this.commsRelayProb = commsCfg.getCommsRelayProb();
+      this.clock = clock;
 
       commsCoverage = new Circle();
       commsCoverage.setRadius(commsCfg.getMaxCommsRng());
 
       incomingQ = new LinkedList<Message>();
+      deliveredQ = new LinkedList<Message>();
       outgoingQ = new LinkedList<Message>();
    }
 
+   /**
+    * Accept a message for delivery. The message will not be visible until
+    * the next invocation of {@link #swapBuffers()}.
+    *
+    * @param msg
+    *           The received message.
+    */
    public void receive(final Message msg)
    {
-      incomingQ.offer(msg);
+      deliveredQ.offer(msg);
    }
 
    /**
@@ -83,69 +125,87 @@ public class UAVComms implements IMsgTransmitter
       msg.setNumHops(maxRelayHops);
       msg.setOriginatingUAV(hostUavId);
       msg.setReceiverUAV(destinationID);
-      msg.resetTime();
+      msg.resetTime(clock.getCurrentSimTimeMS());
       outgoingQ.offer(msg);
    }
 
-   public void stepSimulation(WorldCoordinate commsLocation)
+   /**
+    * Scan through the incoming queue and relay (based on a probability) or
+    * drop everything not destined for this UAV. Relayed messages are
+    * transmitted during the next communications phase.
+    */
+   public void relayIncoming()
    {
-      commsCoverage.getCenter().setCoordinate(commsLocation);
-
-      List<UAV> uavs = uavMgr.getAllUAVsInRegion(commsCoverage, hostUavId);
-      relayMessages(uavs);
-
-      Iterator<Message> itr = outgoingQ.iterator();
+      Iterator<Message> itr = incomingQ.iterator();
       while (itr.hasNext())
       {
          Message msg = itr.next();
-         for (UAV uav : uavs)
+         if (msg.getReceiverUAV() != hostUavId && msg.getNumHops() < maxRelayHops)
          {
-            uav.getComms().receive(msg);
+            if (randGen.nextDouble() < commsRelayProb)
+            {
+               Message toSend = msg.copy();
+               toSend.setNumHops(msg.getNumHops() + 1);
+               outgoingQ.offer(toSend);
+            }
+            // Message has been processed (dropped or relayed) so remove it from
+            // the queue
+            itr.remove();
          }
-         itr.remove();
       }
    }
 
    /**
-    * Scan through the incoming queue and process everything not destined for
-    * this UAV.
+    * Receive all messages transmitted by UAVs within communications range.
     *
-    * NOTE: Broadcast messages are deleted from the queue by this method! Be
-    * sure to invoke {@link #getAllIncoming()} otherwise the UAV will miss
-    * broadcast messages.
-    *
-    * Processing messages entails relaying (based on a probability) or dropping
-    * the message.
+    * Only the state of this UAV is modified. Neighbors are queried in UAV ID
+    * order so the delivery order is independent of the order in which UAVs
+    * execute this method. All UAVs share the same communications range so
+    * the neighbors that can be heard are exactly the neighbors that can hear
+    * this UAV.
     *
-    * @param uavs
-    *           The list of all UAVs within communications range.
+    * @param commsLocation
+    *           The current location of this UAV.
     */
-   private void relayMessages(List<UAV> uavs)
+   public void receiveTransmissions(WorldCoordinate commsLocation)
    {
-      Iterator<Message> itr = incomingQ.iterator();
-      while (itr.hasNext())
-      {
-         Message msg = itr.next();
-         if (msg.getReceiverUAV() != hostUavId && msg.getNumHops() < maxRelayHops)
-         {
+      commsCoverage.getCenter().setCoordinate(commsLocation);
 
-            Message toSend = msg.copy();
-            toSend.setNumHops(msg.getNumHops() + 1);
+      if (neighbors == null || neighbors.length < uavMgr.getAllUAVs().length)
+      {
+         neighbors = new UAV[uavMgr.getAllUAVs().length];
+      }
 
-            if (randGen.nextDouble() < commsRelayProb)
-            {
-               for (UAV uav : uavs)
-               {
-                  uav.getComms().receive(toSend);
-               }
-            }
-            // Message has been processed (dropped or relayed) so remove it from
-            // the queue
-            itr.remove();
+      final int numNeighbors = uavMgr.getUAVsInRegion(commsCoverage, hostUavId, neighbors);
+      for (int i = 0; i < numNeighbors; ++i)
+      {
+         for (Message msg : neighbors[i].getComms().outgoingQ)
+         {
+            receive(msg);
          }
       }
    }
 
+   /**
+    * Make the messages delivered during the last communications phase the
+    * incoming messages and discard all messages transmitted during the last
+    * communications phase. Must not be invoked until all UAVs have completed
+    * {@link #receiveTransmissions(WorldCoordinate)}.
+    */
+   public void swapBuffers()
+   {
+      Queue<Message> temp = incomingQ;
+      incomingQ = deliveredQ;
+      deliveredQ = temp;
+      deliveredQ.clear();
+
+      outgoingQ.clear();
+   }
+
+   /**
+    * @return All messages received during the last communications phase that
+    *         are destined for this UAV or broadcast by another UAV.
+    */
    public List<Message> getAllIncoming()
    {
       List<Message> msgs = new ArrayList<Message>();
@@ -158,15 +218,6 @@ public class UAVComms implements IMsgTransmitter
                || (msg.getReceiverUAV() == Message.BROADCAST_ID && msg.getOriginatingUAV() != hostUavId))
          {
             msgs.add(msg);
-
-            // Only remove the message from the queue if it was explicitly
-            // destined
-            // for this UAV. Broadcast messages are removed during {@link
-            // #relayMessages(List<UAV>)}.
-            if (msg.getReceiverUAV() == hostUavId)
-            {
-               itr.remove();
-            }
          }
       }
       return msgs;
@@ -8,12 +8,19 @@ public class DubinsPath
    private WorldPose start;
    private WorldPose end;
 
+   private static final PathPhase[] PHASES = PathPhase.values();
+
    protected PathType type;
 
    private WorldCoordinate waypoint1, waypoint2;
 
    protected double[] segmentLengths;
 
+   /**
+    * Radius of the turning segments in meters.
+    */
+   protected double turnRadius;
+
    public DubinsPath()
    {
       type = PathType.NO_PATH;
@@ -27,6 +34,7 @@ public class DubinsPath
       {
          segmentLengths[i] = 0;
       }
+      turnRadius = 0;
    }
 
    /**
@@ -57,6 +65,99 @@ public class DubinsPath
       return type;
    }
 
+   /**
+    * @return The radius of the turning segments in meters.
+    */
+   public double getTurnRadius()
+   {
+      return turnRadius;
+   }
+
+   /**
+    * Get the phase of the path containing a point at a distance along the path.
+    * Distances beyond the end of the path are in the last phase.
+    *
+    * @param arcLength
+    *           Distance along the path from the start pose in meters.
+    * @return The phase containing the point.
+    */
+   public PathPhase getPhase(double arcLength)
+   {
+      PathPhase phase = PathPhase.Phase3;
+      if (arcLength < segmentLengths[0])
+      {
+         phase = PathPhase.Phase1;
+      }
+      else if (arcLength < segmentLengths[0] + segmentLengths[1])
+      {
+         phase = PathPhase.Phase2;
+      }
+      return phase;
+   }
+
+   /**
+    * Compute the pose at a distance along the path in closed form. Distances
+    * beyond the end of the path continue along the last segment, turning
+    * segments keep circling and straight segments keep going straight.
+    *
+    * @param arcLength
+    *           Distance along the path from the start pose in meters.
+    * @param result
+    *           Set to the pose at the given distance. The heading is in degrees
+    *           normalized to [0, 360).
+    */
+   public void getPose(double arcLength, WorldPose result)
+   {
+      double north = start.getNorth();
+      double east = start.getEast();
+      double hdgRads = Math.toRadians(start.getHeading());
+
+      double remaining = Math.max(0, arcLength);
+      for (int i = 0; i < segmentLengths.length; ++i)
+      {
+         final boolean lastSegment = i == segmentLengths.length - 1;
+         final double segLen = lastSegment ? remaining : Math.min(remaining, segmentLengths[i]);
+
+         double turnDir = 0;
+         switch (type.getSegmentType(PHASES[i]))
+         {
+         case Left:
+            turnDir = 1.0;
+            break;
+         case Right:
+            turnDir = -1.0;
+            break;
+         case Straight:
+            turnDir = 0;
+            break;
+         }
+
+         if (turnDir == 0)
+         {
+            north += segLen * Math.sin(hdgRads);
+            east += segLen * Math.cos(hdgRads);
+         }
+         else
+         {
+            // Travel along a circle of the turn radius tangent to the current
+            // heading
+            final double endHdgRads = hdgRads + turnDir * segLen / turnRadius;
+            north -= turnDir * turnRadius * (Math.cos(endHdgRads) - Math.cos(hdgRads));
+            east += turnDir * turnRadius * (Math.sin(endHdgRads) - Math.sin(hdgRads));
+            hdgRads = endHdgRads;
+         }
+
+         remaining -= segLen;
+         if (remaining <= 0)
+         {
+            break;
+         }
+      }
+
+      result.getCoordinate().setCoordinate(north, east);
+      result.setHeading(Math.toDegrees(hdgRads));
+   }
+
    public WorldCoordinate getWaypoint1()
    {
       return waypoint1;
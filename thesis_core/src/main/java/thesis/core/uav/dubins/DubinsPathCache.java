@@ -0,0 +1,254 @@
+package thesis.core.uav.dubins;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import thesis.core.common.Angle;
+import thesis.core.common.WorldCoordinate;
+import thesis.core.common.WorldPose;
+
+/**
+ * A bounded least recently used cache of Dubins paths.
+ *
+ * A Dubins path only depends on the position and heading of the end pose
+ * relative to the start pose. Requests are converted into a frame where the
+ * start pose is at the origin facing east and the relative end pose is
+ * quantized to form the cache key. Paths are generated once per key for the
+ * quantized relative pose and are then rotated and translated onto the
+ * requested start pose. The end of a returned path may therefore differ from
+ * the requested end pose by up to the quantization step.
+ */
+public class DubinsPathCache
+{
+   /**
+    * Default size of the quantization step of relative positions in meters.
+    */
+   public static final double DEFAULT_POSITION_QUANTUM = 1.0;
+
+   /**
+    * Default size of the quantization step of relative headings in degrees.
+    */
+   public static final double DEFAULT_HEADING_QUANTUM = 1.0;
+
+   /**
+    * Default maximum number of cached paths.
+    */
+   public static final int DEFAULT_MAX_ENTRIES = 256;
+
+   private final double posQuantum;
+   private final double hdgQuantum;
+
+   private final LinkedHashMap<Key, DubinsPath> cache;
+
+   private long numHits;
+   private long numMisses;
+
+   public DubinsPathCache()
+   {
+      this(DEFAULT_MAX_ENTRIES, DEFAULT_POSITION_QUANTUM, DEFAULT_HEADING_QUANTUM);
+   }
+
+   /**
+    * @param maxEntries
+    *           The maximum number of cached paths. The least recently used
+    *           path is evicted when the cache is full.
+    * @param posQuantum
+    *           Size of the quantization step of relative positions in meters.
+    * @param hdgQuantum
+    *           Size of the quantization step of relative headings in degrees.
+    */
+   public DubinsPathCache(final int maxEntries, double posQuantum, double hdgQuantum)
+   {
+      if (maxEntries < 1)
+      {
+         throw new IllegalArgumentException("Cache must hold at least one path.");
+      }
+
+      if (posQuantum <= 0 || hdgQuantum <= 0)
+      {
+         throw new IllegalArgumentException("Quantization steps must be greater than zero.");
+      }
+
+      this.posQuantum = posQuantum;
+      this.hdgQuantum = hdgQuantum;
+
+      cache = new LinkedHashMap<Key, DubinsPath>(16, 0.75f, true)
+      {
+         private static final long serialVersionUID = 1L;
+
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<Key, DubinsPath> eldest)
+         {
+            return size() > maxEntries;
+         }
+      };
+
+      numHits = 0;
+      numMisses = 0;
+   }
+
+   /**
+    * Get a path from the start to the ending pose with the given constraints.
+    *
+    * @param minTurnRadius
+    *           The minimum radius required for the uav to turn around in meters.
+    * @param start
+    *           The starting position and orientation of the path.
+    * @param end
+    *           The ending position and orientation of the path.
+    * @return A new path satisfying the given constraints.
+    *
+    * @see DubinsPathGenerator#generate(double, WorldPose, WorldPose)
+    */
+   public DubinsPath generate(final double minTurnRadius, final WorldPose start, final WorldPose end)
+   {
+      final double startHdgRads = Math.toRadians(start.getHeading());
+      final double cosHdg = Math.cos(startHdgRads);
+      final double sinHdg = Math.sin(startHdgRads);
+
+      // Rotate the relative position of the end into the start's frame
+      final double delNorth = end.getNorth() - start.getNorth();
+      final double delEast = end.getEast() - start.getEast();
+      final double relEast = delEast * cosHdg + delNorth * sinHdg;
+      final double relNorth = -delEast * sinHdg + delNorth * cosHdg;
+      final double relHdg = Angle.normalize360(end.getHeading() - start.getHeading());
+
+      final Key key = new Key(Math.round(relNorth / posQuantum), Math.round(relEast / posQuantum),
+            Math.round(relHdg / hdgQuantum) % Math.round(360 / hdgQuantum), Double.doubleToLongBits(minTurnRadius));
+
+      DubinsPath relPath = cache.get(key);
+      if (relPath == null)
+      {
+         ++numMisses;
+         relPath = generateRelative(minTurnRadius, key);
+         cache.put(key, relPath);
+      }
+      else
+      {
+         ++numHits;
+      }
+
+      DubinsPath path = new DubinsPath();
+      path.type = relPath.type;
+      path.turnRadius = relPath.turnRadius;
+      for (int i = 0; i < path.segmentLengths.length; ++i)
+      {
+         path.segmentLengths[i] = relPath.segmentLengths[i];
+      }
+      toWorld(relPath.getWaypoint1(), start, cosHdg, sinHdg, path.getWaypoint1());
+      toWorld(relPath.getWaypoint2(), start, cosHdg, sinHdg, path.getWaypoint2());
+      path.getStartPose().copy(start);
+      path.getEndPose().copy(end);
+
+      return path;
+   }
+
+   /**
+    * Generate a path starting at the origin facing east to the quantized
+    * relative end pose of a key.
+    */
+   private DubinsPath generateRelative(double minTurnRadius, Key key)
+   {
+      WorldPose relStart = new WorldPose();
+      WorldPose relEnd = new WorldPose();
+      relEnd.getCoordinate().setCoordinate(key.relNorth * posQuantum, key.relEast * posQuantum);
+      relEnd.setHeading(key.relHdg * hdgQuantum);
+      return DubinsPathGenerator.generate(minTurnRadius, relStart, relEnd);
+   }
+
+   private static void toWorld(WorldCoordinate rel, WorldPose start, double cosHdg, double sinHdg,
+         WorldCoordinate result)
+   {
+      final double east = rel.getEast() * cosHdg - rel.getNorth() * sinHdg;
+      final double north = rel.getEast() * sinHdg + rel.getNorth() * cosHdg;
+      result.setCoordinate(start.getNorth() + north, start.getEast() + east);
+   }
+
+   /**
+    * @return The number of requests answered from the cache.
+    */
+   public long getNumHits()
+   {
+      return numHits;
+   }
+
+   /**
+    * @return The number of requests that generated a new path.
+    */
+   public long getNumMisses()
+   {
+      return numMisses;
+   }
+
+   /**
+    * @return The fraction of requests answered from the cache or zero if
+    *         there have been no requests.
+    */
+   public double getHitRate()
+   {
+      final long numRequests = numHits + numMisses;
+      return numRequests > 0 ? numHits / (double) numRequests : 0;
+   }
+
+   /**
+    * Remove every cached path and reset the hit counters.
+    */
+   public void clear()
+   {
+      cache.clear();
+      numHits = 0;
+      numMisses = 0;
+   }
+
+   @Override
+   public String toString()
+   {
+      return String.format("Dubins path cache: %d hits, %d misses (%.1f%%)", numHits, numMisses,
+            getHitRate() * 100);
+   }
+
+   /**
+    * Quantized relative pose and turn radius of a path.
+    */
+   private static class Key
+   {
+      private final long relNorth;
+      private final long relEast;
+      private final long relHdg;
+      private final long radiusBits;
+
+      public Key(long relNorth, long relEast, long relHdg, long radiusBits)
+      {
+         this.relNorth = relNorth;
+         this.relEast = relEast;
+         this.relHdg = relHdg;
+         this.radiusBits = radiusBits;
+      }
+
+      @Override
+      public int hashCode()
+      {
+         final int prime = 31;
+         int result = 1;
+         result = prime * result + (int) (relNorth ^ (relNorth >>> 32));
+         result = prime * result + (int) (relEast ^ (relEast >>> 32));
+         result = prime * result + (int) (relHdg ^ (relHdg >>> 32));
+         result = prime * result + (int) (radiusBits ^ (radiusBits >>> 32));
+         return result;
+      }
+
+      @Override
+      public boolean equals(Object obj)
+      {
+         if (this == obj)
+            return true;
+         if (obj == null)
+            return false;
+         if (getClass() != obj.getClass())
+            return false;
+         Key other = (Key) obj;
+         return relNorth == other.relNorth && relEast == other.relEast && relHdg == other.relHdg
+               && radiusBits == other.radiusBits;
+      }
+   }
+}
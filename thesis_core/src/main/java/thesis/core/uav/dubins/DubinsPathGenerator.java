@@ -81,6 +81,7 @@ public class DubinsPathGenerator
 
       path.getStartPose().copy(start);
       path.getEndPose().copy(end);
+      path.turnRadius = minTurnRadius;
 
       return path;
    }
@@ -7,7 +7,7 @@ import org.slf4j.LoggerFactory;
 
 import thesis.core.belief.TargetBelief;
 import thesis.core.common.Angle;
-import thesis.core.common.SimTime;
+import thesis.core.common.SimClock;
 import thesis.core.common.WorldCoordinate;
 import thesis.core.common.WorldPose;
 import thesis.core.sensors.SensorGroup;
@@ -51,12 +51,14 @@ public class AttackTask
    
    private long performingStartTime;
    private Random rand;
+   private SimClock clock;
    
-   public AttackTask(int hostUavId, TargetTypeConfigs tgtTypeCfgs, Random rand)
+   public AttackTask(int hostUavId, TargetTypeConfigs tgtTypeCfgs, Random rand, SimClock clock)
    {
       this.hostUavId = hostUavId;
       this.tgtTypeCfgs = tgtTypeCfgs;
       this.rand = rand;
+      this.clock = clock;
       
       strikeCoord = new WorldCoordinate();
       performingStartTime = 0;
@@ -131,8 +133,8 @@ public class AttackTask
       {
          logger.debug("UAV {} in range of Attack target {}.  Changing state from EnRoute to Performing.", hostUavId, tgtBelief.getTrueTargetID());
          tgtBelief.getTaskStatus().setAttackState(TaskState.Performing);
-         tgtBelief.getTaskStatus().setAttackUpdateTimestamp(SimTime.getCurrentSimTimeMS());
-         performingStartTime = SimTime.getCurrentSimTimeMS();
+         tgtBelief.getTaskStatus().setAttackUpdateTimestamp(clock.getCurrentSimTimeMS());
+         performingStartTime = clock.getCurrentSimTimeMS();
       }
 
       // Recompute a path if the target has moved significantly
@@ -141,10 +143,10 @@ public class AttackTask
          recomputeStrikePath(tgtBlf, pathing, snsrGrp);
       }
 
-      if((SimTime.getCurrentSimTimeMS() - performingStartTime) > MAX_STATIC_TGT_ORBIT_TIME_MS)
+      if((clock.getCurrentSimTimeMS() - performingStartTime) > MAX_STATIC_TGT_ORBIT_TIME_MS)
       {
          logger.debug("UAV {} stuck in a no LAR shortest path/static target orbit.  Reseting to longer route.", hostUavId);
-         performingStartTime = SimTime.getCurrentSimTimeMS();
+         performingStartTime = clock.getCurrentSimTimeMS();
          staticLoiterBreakoutOverride(pathing);
       }
       
@@ -156,7 +158,7 @@ public class AttackTask
          tgtBelief.getTaskStatus().setAttackState(TaskState.Complete);
          tgtBelief.getTaskStatus().setAttackUAV(UAV.NULL_UAV_ID);
          //tgtBelief.getTaskStatus().setAttackUAVScore(-1);
-         tgtBelief.getTaskStatus().setAttackUpdateTimestamp(SimTime.getCurrentSimTimeMS());
+         tgtBelief.getTaskStatus().setAttackUpdateTimestamp(clock.getCurrentSimTimeMS());
          performingStartTime = 0;
       }
    }
@@ -9,7 +9,7 @@ import org.slf4j.LoggerFactory;
 import thesis.core.belief.TargetBelief;
 import thesis.core.belief.WorldBelief;
 import thesis.core.common.Circle;
-import thesis.core.common.SimTime;
+import thesis.core.common.SimClock;
 import thesis.core.common.WorldCoordinate;
 import thesis.core.sensors.SensorGroup;
 import thesis.core.targets.Target;
@@ -69,9 +69,12 @@ public class ConfirmTask
    private List<WorldCoordinate> orbitRoute;
    private int orbitWyptIdx;
 
-   public ConfirmTask(int hostUavId)
+   private SimClock clock;
+
+   public ConfirmTask(int hostUavId, SimClock clock)
    {
       this.hostUavId = hostUavId;
+      this.clock = clock;
 
       orbitRoute = new ArrayList<WorldCoordinate>();
 
@@ -176,7 +179,7 @@ public class ConfirmTask
          state = State.Orbiting;
          orbitWyptIdx = 0;
          pathing.computePathTo(orbitRoute.get(0));
-         confirmStareStartTime = SimTime.getCurrentSimTimeMS();
+         confirmStareStartTime = clock.getCurrentSimTimeMS();
 
          snsrGrp.setFocusedScanning(true);
       }
@@ -207,7 +210,7 @@ public class ConfirmTask
    private void stepOrbit(WorldBelief curBelief, Pathing pathing, SensorGroup snsrGrp)
    {
 
-      if ((SimTime.getCurrentSimTimeMS() - confirmStareStartTime) >= MILLISECONDS_TO_CONFIRM)
+      if ((clock.getCurrentSimTimeMS() - confirmStareStartTime) >= MILLISECONDS_TO_CONFIRM)
       {
          snsrGrp.setFocusedScanning(false);
          state = State.Complete;
@@ -4,7 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import thesis.core.belief.TargetBelief;
-import thesis.core.common.SimTime;
+import thesis.core.common.SimClock;
 import thesis.core.common.WorldCoordinate;
 import thesis.core.sensors.SensorGroup;
 import thesis.core.targets.ITrueTargetStatusProvider;
@@ -53,6 +53,7 @@ public class MonitorTask
 
    private boolean resyncDestCoord;
    private ITrueTargetStatusProvider trueTgtStatSvc;
+   private SimClock clock;
    
    /**
     * Prevent a race condition between timestamps of attack requests vs receiver believing it's complete and not merging.
@@ -60,10 +61,11 @@ public class MonitorTask
    private boolean sendAttackRequest;
    private int numRepeatRequests;
 
-   public MonitorTask(int hostUavId, ITrueTargetStatusProvider trueTgtStatSvc)
+   public MonitorTask(int hostUavId, ITrueTargetStatusProvider trueTgtStatSvc, SimClock clock)
    {
       this.hostUavId = hostUavId;
       this.trueTgtStatSvc = trueTgtStatSvc;
+      this.clock = clock;
 
       resyncDestCoord = false;
       pathingHelper = new MonitorPathingHelper();
@@ -157,11 +159,11 @@ public class MonitorTask
 
    private void stepBDA(TargetBelief tgtBelief, SensorGroup snsrGrp)
    {
-      long totalStareTime = SimTime.getCurrentSimTimeMS() - stareStartTime;
+      long totalStareTime = clock.getCurrentSimTimeMS() - stareStartTime;
       if(pathingHelper.isInSensorRange() && stareStartTime < 0)
       {
          logger.debug("UAV {} began BDA focused scanning target {}", hostUavId, tgtBelief.getTrueTargetID());
-         stareStartTime = SimTime.getCurrentSimTimeMS();
+         stareStartTime = clock.getCurrentSimTimeMS();
          snsrGrp.setFocusedScanning(true);
       }
       else if (stareStartTime > 0 && totalStareTime >= MILLISECONDS_TO_BDA)
@@ -172,7 +174,7 @@ public class MonitorTask
             tgtBelief.getTaskStatus().setMonitorUAV(UAV.NULL_UAV_ID);
             tgtBelief.getTaskStatus().setMonitorUAVScore(-1);
             tgtBelief.getTaskStatus().setMonitorState(TaskState.Complete);
-            tgtBelief.getTaskStatus().setMonitorUpdateTimestamp(SimTime.getCurrentSimTimeMS());
+            tgtBelief.getTaskStatus().setMonitorUpdateTimestamp(clock.getCurrentSimTimeMS());
             tgtBelief.getTaskStatus().setDestroyed(true);
             reset(tgtBelief, TaskLogicState.NO_TASK, snsrGrp);
          }
@@ -187,12 +189,12 @@ public class MonitorTask
 
    private void stepConfirm(TargetBelief tgtBelief, SensorGroup snsrGrp)
    {     
-      long totalStareTime = SimTime.getCurrentSimTimeMS() - stareStartTime;
+      long totalStareTime = clock.getCurrentSimTimeMS() - stareStartTime;
       if (pathingHelper.isInSensorRange() && stareStartTime < 0)
       {
          logger.debug("UAV {} began confirmation focused scanning target {}", hostUavId, tgtBelief.getTrueTargetID());
          tgtBelief.getTaskStatus().setMonitorState(TaskState.Performing);
-         stareStartTime = SimTime.getCurrentSimTimeMS();
+         stareStartTime = clock.getCurrentSimTimeMS();
          snsrGrp.setFocusedScanning(true);
       }
       else if (stareStartTime > 0 && totalStareTime >= MILLISECONDS_TO_CONFIRM)
@@ -215,10 +217,10 @@ public class MonitorTask
       
       if(stareStartTime < 0)
       {
-         stareStartTime = SimTime.getCurrentSimTimeMS();
+         stareStartTime = clock.getCurrentSimTimeMS();
       }
       
-      long totalStareTime = SimTime.getCurrentSimTimeMS() - stareStartTime;
+      long totalStareTime = clock.getCurrentSimTimeMS() - stareStartTime;
 
       long repeatAttackReqTimeFraction = (long)(MILLISECONDS_TO_DROP_PENDING * 0.2);
       long repeatAttackReqestTime = stareStartTime + (numRepeatRequests * repeatAttackReqTimeFraction);
@@ -230,7 +232,7 @@ public class MonitorTask
          
          //In case the attacker destroyed the target but was out of comms range
          //tgtBelief.getTaskStatus().setAttackState(TaskState.Complete);
-         //tgtBelief.getTaskStatus().setAttackUpdateTimestamp(SimTime.getCurrentSimTimeMS()+1);
+         //tgtBelief.getTaskStatus().setAttackUpdateTimestamp(clock.getCurrentSimTimeMS()+1);
          
          reset(tgtBelief, TaskLogicState.BDA, snsrGrp);
       }
@@ -240,7 +242,7 @@ public class MonitorTask
          tgtBelief.getTaskStatus().setMonitorState(TaskState.Open);
          tgtBelief.getTaskStatus().setMonitorUAV(-1);
          tgtBelief.getTaskStatus().setMonitorUAVScore(-1);
-         tgtBelief.getTaskStatus().setMonitorUpdateTimestamp(SimTime.getCurrentSimTimeMS());
+         tgtBelief.getTaskStatus().setMonitorUpdateTimestamp(clock.getCurrentSimTimeMS());
          reset(tgtBelief, TaskLogicState.NO_TASK, snsrGrp);
       }
       else if (stareStartTime > 0 && totalStareTime >= repeatAttackReqestTime)
@@ -255,7 +257,7 @@ public class MonitorTask
       tgtBelief.getTaskStatus().setAttackUAV(UAV.NULL_UAV_ID);
       tgtBelief.getTaskStatus().setAttackUAVScore(0);
       tgtBelief.getTaskStatus().setAttackState(TaskState.Open);
-      tgtBelief.getTaskStatus().setAttackUpdateTimestamp(SimTime.getCurrentSimTimeMS());
+      tgtBelief.getTaskStatus().setAttackUpdateTimestamp(clock.getCurrentSimTimeMS());
       
       sendAttackRequest = false;
       ++numRepeatRequests;
@@ -1,16 +1,10 @@
 package thesis.core.uav.logic;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Random;
 
-import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import thesis.core.belief.CellBelief;
 import thesis.core.belief.WorldBelief;
 import thesis.core.common.CellCoordinate;
 import thesis.core.sensors.SensorGroup;
@@ -39,16 +33,35 @@ public class SearchTask
     */
    protected static final double UNCERTAINTY_THRESHOLD = 0.1;
 
+   /**
+    * Kernel averages within this tolerance of each other are considered equal
+    * so that round off in the summed-area table does not break ties.
+    */
+   private static final double FORAGE_TIE_TOLERANCE = 0.000000001;
+
    private CellCoordinate searchDest;
    private WorldGIS gis;
    private int hostUavId;
    private Random rand;
 
+   /**
+    * Reused to hold the uncertainty of every cell by row major index when
+    * selecting from the top third.
+    */
+   private double[] cellUncert;
+
+   /**
+    * Reused to hold row major cell indices partially ordered by uncertainty.
+    */
+   private int[] cellOrder;
+
    public SearchTask(int hostUavId, WorldGIS gis, Random randGen)
    {
       this.hostUavId = hostUavId;
       this.gis = gis;
       this.rand = randGen;
+      cellUncert = new double[0];
+      cellOrder = new int[0];
    }
 
    public void reset(WorldBelief curBelief, Pathing pathing, SensorGroup snsrGrp)
@@ -58,7 +71,8 @@ public class SearchTask
 
    public void stepSimulation(WorldBelief curBelief, Pathing pathing, SensorGroup snsrGrp)
    {
-      if (searchDest == null || curBelief.getCellBelief(searchDest).getUncertainty() < UNCERTAINTY_THRESHOLD)
+      if (searchDest == null
+            || curBelief.getUncertainty(searchDest.getRow(), searchDest.getColumn()) < UNCERTAINTY_THRESHOLD)
       {
          selectNewSearchDestination(curBelief, pathing, snsrGrp);
       }
@@ -119,11 +133,11 @@ public class SearchTask
          {
             for (int worldCol = 0; worldCol < numCols; worldCol += colsPerKernel)
             {
-               double avgUncert = computeForageKernelUncert(curBelief, worldCol, worldRow, colsPerKernel,
-                     rowsPerKernel);
+               double avgUncert = curBelief.getAverageUncertainty(worldRow, worldCol, rowsPerKernel,
+                     colsPerKernel);
 
                //Store the most uncertain kernel
-               if(avgUncert > maxUncert)
+               if(avgUncert > maxUncert + FORAGE_TIE_TOLERANCE)
                {
                   maxUncert = avgUncert;
                   maxKernCol = worldCol;
@@ -137,26 +151,7 @@ public class SearchTask
          destRow = rand.nextInt(rowsPerKernel) + maxKernRow;
       }
 
-      searchDest = curBelief.getCellBelief(destRow, destCol).getCoordinate();
-   }
-
-   private double computeForageKernelUncert(WorldBelief curBelief, int worldColStart, int worldRowStart,
-         int kernWidth, int kernHeight)
-   {
-      final int worldWidth = curBelief.getNumCols();
-      final int worldHeight = curBelief.getNumRows();
-
-      SummaryStatistics stats = new SummaryStatistics();
-
-      for (int row = 0; row < kernHeight && (row + worldRowStart) < worldWidth; ++row)
-      {
-         for (int col = 0; col < kernWidth && (col + worldColStart) < worldHeight; ++col)
-         {
-            stats.addValue(curBelief.getCellBelief(row + worldRowStart, col + worldColStart).getUncertainty());
-         }
-      }
-
-      return stats.getMean();
+      searchDest = new CellCoordinate(destRow, destCol);
    }
 
    private void selectRandomTopThird(WorldBelief curBelief, Pathing pathing, SensorGroup snsrGrp)
@@ -165,96 +160,149 @@ public class SearchTask
       final int numCols = curBelief.getNumCols();
       final int numCells = numRows * numCols;
 
-      final List<CellBelief> allBeliefs = new ArrayList<CellBelief>(numCells);
+      if (cellUncert.length != numCells)
+      {
+         cellUncert = new double[numCells];
+         cellOrder = new int[numCells];
+      }
+
+      curBelief.getUncertainties(cellUncert);
 
-      for (int i = 0; i < numRows; ++i)
+      int minIndx = 0;
+      for (int index = 0; index < numCells; ++index)
       {
-         for (int j = 0; j < numCols; ++j)
+         cellOrder[index] = index;
+         if (isLessUncertain(cellUncert, index, minIndx))
          {
-            allBeliefs.add(curBelief.getCellBelief(i, j));
+            minIndx = index;
          }
       }
 
-      Collections.sort(allBeliefs, new CellBeliefComparator());
-
+      // Only the cell at the randomly selected rank is needed so the cells are
+      // partially ordered around that rank instead of fully sorted.
       int randIndx = -1;
       if (numCells > 2)
       {
          int oneThirdIndx = numCells / 3;
-         if (Math.abs(allBeliefs.get(0).getUncertainty() - allBeliefs.get(oneThirdIndx).getUncertainty()) < 0.001)
+         selectRank(cellUncert, cellOrder, 0, numCells - 1, oneThirdIndx);
+         if (Math.abs(cellUncert[minIndx] - cellUncert[cellOrder[oneThirdIndx]]) < 0.001)
          {
             // If the entire world is equally uncertain (like at simulation
             // startup) select a random cell in the world to go search.
             randIndx = rand.nextInt(numCells);
+            selectRank(cellUncert, cellOrder, 0, numCells - 1, randIndx);
          }
          else
          {
+            // Every cell ranked below one third is already in front of it
             randIndx = rand.nextInt(numCells / 3);
+            selectRank(cellUncert, cellOrder, 0, oneThirdIndx - 1, randIndx);
          }
       }
       else
       {
          randIndx = rand.nextInt(numCells);
+         selectRank(cellUncert, cellOrder, 0, numCells - 1, randIndx);
       }
 
-      searchDest = allBeliefs.get(randIndx).getCoordinate();
+      final int destIndx = cellOrder[randIndx];
+      searchDest = new CellCoordinate(destIndx / numCols, destIndx % numCols);
    }
 
-   private void selectMostUncertain(WorldBelief curBelief, Pathing pathing, SensorGroup snsrGrp)
+   /**
+    * Order cells by uncertainty with ties broken by row major index, the same
+    * order as a stable sort of the cells by uncertainty.
+    */
+   private static boolean isLessUncertain(double[] uncert, int cellA, int cellB)
    {
-      final int numRows = curBelief.getNumRows();
-      final int numCols = curBelief.getNumCols();
-
-      CellBelief maxUncertCB = null;
-
-      // This just finds the most uncertain cell. It would be better by
-      // finding clusters of highly uncertain cells instead of the most
-      // uncertain cell or searching the local area and jumping off to a new
-      // area as in Levy Flights or Levy Walks.
+      return uncert[cellA] < uncert[cellB] || (uncert[cellA] == uncert[cellB] && cellA < cellB);
+   }
 
-      for (int i = 0; i < numRows; ++i)
+   /**
+    * Partially order a range of cells so that the cell at the given rank is in
+    * its sorted position, every cell before it is less uncertain, and every
+    * cell after it is more uncertain (Hoare's quickselect).
+    *
+    * @param uncert
+    *           The uncertainty of each cell by row major index.
+    * @param order
+    *           Row major cell indices to reorder.
+    * @param first
+    *           The first position of the range.
+    * @param last
+    *           The last position of the range.
+    * @param rank
+    *           The position within the range to select.
+    */
+   private static void selectRank(double[] uncert, int[] order, int first, int last, int rank)
+   {
+      while (first < last)
       {
-         for (int j = 0; j < numCols; ++j)
+         // Median of three pivot handles the row major input order well
+         final int mid = (first + last) >>> 1;
+         if (isLessUncertain(uncert, order[mid], order[first]))
+         {
+            swap(order, mid, first);
+         }
+         if (isLessUncertain(uncert, order[last], order[first]))
+         {
+            swap(order, last, first);
+         }
+         if (isLessUncertain(uncert, order[last], order[mid]))
          {
-            CellBelief itrCB = curBelief.getCellBelief(i, j);
+            swap(order, last, mid);
+         }
+         final int pivot = order[mid];
 
-            if (maxUncertCB == null)
+         int i = first;
+         int j = last;
+         while (i <= j)
+         {
+            while (isLessUncertain(uncert, order[i], pivot))
+            {
+               ++i;
+            }
+            while (isLessUncertain(uncert, pivot, order[j]))
             {
-               maxUncertCB = itrCB;
+               --j;
             }
-            else if (itrCB.getUncertainty() > maxUncertCB.getUncertainty())
+            if (i <= j)
             {
-               maxUncertCB = itrCB;
+               swap(order, i, j);
+               ++i;
+               --j;
             }
          }
-      }
-
-      searchDest = maxUncertCB.getCoordinate();
-   }
 
-   private static class CellBeliefComparator implements Comparator<CellBelief>
-   {
-      public CellBeliefComparator()
-      {
-
-      }
-
-      @Override
-      public int compare(CellBelief o1, CellBelief o2)
-      {
-         if (o1.getUncertainty() < o2.getUncertainty())
+         if (rank <= j)
          {
-            return -1;
+            last = j;
          }
-         else if (o1.getUncertainty() > o2.getUncertainty())
+         else if (rank >= i)
          {
-            return 1;
+            first = i;
          }
          else
          {
-            return 0;
+            return;
          }
       }
+   }
+
+   private static void swap(int[] values, int a, int b)
+   {
+      final int temp = values[a];
+      values[a] = values[b];
+      values[b] = temp;
+   }
 
+   private void selectMostUncertain(WorldBelief curBelief, Pathing pathing, SensorGroup snsrGrp)
+   {
+      // This just finds the most uncertain cell. It would be better by
+      // finding clusters of highly uncertain cells instead of the most
+      // uncertain cell or searching the local area and jumping off to a new
+      // area as in Levy Flights or Levy Walks.
+      final int destIndx = curBelief.getMostUncertainCellIndex();
+      searchDest = new CellCoordinate(destIndx / curBelief.getNumCols(), destIndx % curBelief.getNumCols());
    }
 }
@@ -1,16 +1,13 @@
 package thesis.core.uav.logic;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import thesis.core.belief.TargetBelief;
 import thesis.core.belief.WorldBelief;
-import thesis.core.common.SimTime;
+import thesis.core.common.SimClock;
 import thesis.core.uav.UAV;
 import thesis.core.utilities.LoggerIDs;
 import thesis.core.weapons.Weapon;
@@ -22,6 +19,7 @@ public class TaskAllocator
 
    private final int hostUavId;
    private final WorldGIS gis;
+   private final SimClock clock;
    
    private TaskType curTask;
    private TargetBelief curTgt;
@@ -29,14 +27,25 @@ public class TaskAllocator
    private TargetBelief bestMonitorTgt, bestAttackTgt;
    private int bestMonitorTgtBid, bestAttackTargetBid;
 
-   public TaskAllocator(int hostUavId, WorldGIS gis)
+   /**
+    * Reused bid storage indexed by position in the world belief's list of
+    * target beliefs. Only valid for positions where {@link #hasBid} is true.
+    */
+   private int[] monitorBids, attackBids;
+   private boolean[] hasBid;
+
+   public TaskAllocator(int hostUavId, WorldGIS gis, SimClock clock)
    {
       this.hostUavId = hostUavId;
       this.gis = gis;
+      this.clock = clock;
       curTask = TaskType.Search;
       curTgt = null;
       bestMonitorTgtBid = -1;
       bestAttackTargetBid = -1;
+      monitorBids = new int[0];
+      attackBids = new int[0];
+      hasBid = new boolean[0];
    }
 
    public TargetBelief getTarget()
@@ -77,7 +86,7 @@ public class TaskAllocator
       {
          int myBid = computeAttackBid(curTgt, hostUAV);
          curTgt.getTaskStatus().setAttackUAVScore(myBid);
-         curTgt.setTimestamp(SimTime.getCurrentSimTimeMS());
+         curTgt.setTimestamp(clock.getCurrentSimTimeMS());
          // if(curTgt.getTaskStatus().getInterestedAttackUAVScore() > myBid)
          // {
          // //Someone else can do better than me. Give them some time to get
@@ -107,7 +116,7 @@ public class TaskAllocator
       {
          int myBid = computeMonitorBid(curTgt, hostUAV);
          curTgt.getTaskStatus().setMonitorUAVScore(myBid);
-         curTgt.setTimestamp(SimTime.getCurrentSimTimeMS());
+         curTgt.setTimestamp(clock.getCurrentSimTimeMS());
       }
       else// Someone else has a better monitor score and is within range
       {
@@ -119,49 +128,54 @@ public class TaskAllocator
 
    private void bidOnTasks(WorldBelief curBelief, UAV hostUAV)
    {
-      Map<TargetBelief, Integer> monitorBids = new HashMap<TargetBelief, Integer>();
-      Map<TargetBelief, Integer> attackBids = new HashMap<TargetBelief, Integer>();
-
       // Compute bids for all target tasks. Go do the highest one. Don't edit
       // bids until all have been computed
 
       List<TargetBelief> tgts = curBelief.getTargetBeliefs();
       final int numTgts = tgts.size();
+      if (hasBid.length < numTgts)
+      {
+         monitorBids = new int[numTgts];
+         attackBids = new int[numTgts];
+         hasBid = new boolean[numTgts];
+      }
+
       for (int i = 0; i < numTgts; ++i)
       {
          TargetBelief tb = tgts.get(i);
-         if(!tb.getTaskStatus().isDestroyed())
+         hasBid[i] = !tb.getTaskStatus().isDestroyed();
+         if (hasBid[i])
          {
-            monitorBids.put(tb, computeMonitorBid(tb, hostUAV));
-            attackBids.put(tb, computeAttackBid(tb, hostUAV));
+            monitorBids[i] = computeMonitorBid(tb, hostUAV);
+            attackBids[i] = computeAttackBid(tb, hostUAV);
          }
       }
 
-      findBestAvailableMonitor(monitorBids);
-      findBestAvailableAttack(attackBids);
+      findBestAvailableMonitor(tgts);
+      findBestAvailableAttack(tgts);
 
       if (bestAttackTgt != null)
       {
-         int bid = attackBids.get(bestAttackTgt);
+         int bid = bestAttackTargetBid;
          // My attack bid is better than the stored data (guaranteed by
          // findBestAvailableAttack())
          bestAttackTgt.getTaskStatus().setAttackState(TaskState.Enroute);
          bestAttackTgt.getTaskStatus().setAttackUAV(hostUavId);
          bestAttackTgt.getTaskStatus().setAttackUAVScore(bid);
-         bestAttackTgt.getTaskStatus().setAttackUpdateTimestamp(SimTime.getCurrentSimTimeMS());
+         bestAttackTgt.getTaskStatus().setAttackUpdateTimestamp(clock.getCurrentSimTimeMS());
 
          curTgt = bestAttackTgt;
          curTask = TaskType.Attack;
       }
       else if (bestMonitorTgt != null)
       {
-         int bid = monitorBids.get(bestMonitorTgt);
+         int bid = bestMonitorTgtBid;
          // My monitor bid is better than the stored data (guaranteed by
          // findBestAvailableMonitor())
          bestMonitorTgt.getTaskStatus().setMonitorState(TaskState.Enroute);
          bestMonitorTgt.getTaskStatus().setMonitorUAV(hostUavId);
          bestMonitorTgt.getTaskStatus().setMonitorUAVScore(bid);
-         bestMonitorTgt.getTaskStatus().setMonitorUpdateTimestamp(SimTime.getCurrentSimTimeMS());
+         bestMonitorTgt.getTaskStatus().setMonitorUpdateTimestamp(clock.getCurrentSimTimeMS());
 
          curTgt = bestMonitorTgt;
          curTask = TaskType.Monitor;
@@ -169,15 +183,28 @@ public class TaskAllocator
       // else keep searching
    }
 
-   private void findBestAvailableMonitor(Map<TargetBelief, Integer> bids)
+   /**
+    * Find the target with the best monitor bid from the bids computed for
+    * each target. Targets are visited in order of their ID so ties go to the
+    * lowest target ID.
+    *
+    * @param tgts
+    *           The target beliefs the bids were computed for.
+    */
+   private void findBestAvailableMonitor(List<TargetBelief> tgts)
    {
       int bestBid = -1;
       TargetBelief bestTgt = null;
 
-      Iterator<TargetBelief> itr = bids.keySet().iterator();
-      while (itr.hasNext())
+      final int numTgts = tgts.size();
+      for (int i = 0; i < numTgts; ++i)
       {
-         TargetBelief tb = itr.next();
+         if (!hasBid[i])
+         {
+            continue;
+         }
+
+         TargetBelief tb = tgts.get(i);
 
 //         if (tb.getTaskStatus().getMonitorState() == TaskState.Complete
 //               || tb.getTaskStatus().getMonitorState() == TaskState.Performing)
@@ -194,7 +221,7 @@ public class TaskAllocator
 
          // Task is Open, EnRoute
 
-         int myBid = bids.get(tb);
+         int myBid = monitorBids[i];
          int bidToBeat = tb.getTaskStatus().getMonitorUAVScore();
 
          /*
@@ -222,15 +249,28 @@ public class TaskAllocator
       bestMonitorTgt = bestTgt;
    }
 
-   private void findBestAvailableAttack(Map<TargetBelief, Integer> atkBids)
+   /**
+    * Find the target with the best attack bid from the bids computed for each
+    * target. Targets are visited in order of their ID so ties go to the lowest
+    * target ID.
+    *
+    * @param tgts
+    *           The target beliefs the bids were computed for.
+    */
+   private void findBestAvailableAttack(List<TargetBelief> tgts)
    {
       int bestBid = -1;
       TargetBelief bestTgt = null;
 
-      Iterator<TargetBelief> itr = atkBids.keySet().iterator();
-      while (itr.hasNext())
+      final int numTgts = tgts.size();
+      for (int i = 0; i < numTgts; ++i)
       {
-         TargetBelief tb = itr.next();
+         if (!hasBid[i])
+         {
+            continue;
+         }
+
+         TargetBelief tb = tgts.get(i);
 
          if (tb.getTaskStatus().getAttackState() == TaskState.NO_TASK
                || tb.getTaskStatus().getAttackState() == TaskState.Complete
@@ -242,7 +282,7 @@ public class TaskAllocator
 
          // Task is Open or EnRoute
 
-         int myBid = atkBids.get(tb);
+         int myBid = attackBids[i];
 
          // If myBid > currently attacking uav's bid
          if (myBid > tb.getTaskStatus().getAttackUAVScore())
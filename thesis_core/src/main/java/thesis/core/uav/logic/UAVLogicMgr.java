@@ -1,7 +1,6 @@
 package thesis.core.uav.logic;
 
 import java.util.List;
-import java.util.Random;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +8,8 @@ import org.slf4j.LoggerFactory;
 import thesis.core.belief.TargetBelief;
 import thesis.core.belief.WorldBelief;
 import thesis.core.belief.WorldBeliefMsg;
+import thesis.core.common.RandomStreams;
+import thesis.core.common.SimClock;
 import thesis.core.targets.ITrueTargetStatusProvider;
 import thesis.core.targets.TargetTypeConfigs;
 import thesis.core.uav.UAV;
@@ -36,17 +37,17 @@ public class UAVLogicMgr
 
    private TaskAllocator taskAllocator;
 
-   public UAVLogicMgr(int hostUavId, WorldGIS gis, Random randGen, int numTgtTypes, ITrueTargetStatusProvider trueTgtStatusSvc, TargetTypeConfigs tgtTypeCfgs)
+   public UAVLogicMgr(int hostUavId, WorldGIS gis, RandomStreams randStreams, int numTgtTypes, ITrueTargetStatusProvider trueTgtStatusSvc, TargetTypeConfigs tgtTypeCfgs, SimClock clock)
    {
       this.hostUavId = hostUavId;
       this.numTgtTypes = numTgtTypes;
       curTask = null;
 
-      searchTask = new SearchTask(hostUavId, gis, randGen);
-      monitorTask = new MonitorTask(hostUavId, trueTgtStatusSvc);
-      attackTask = new AttackTask(hostUavId, tgtTypeCfgs, randGen);
+      searchTask = new SearchTask(hostUavId, gis, randStreams.nextStream());
+      monitorTask = new MonitorTask(hostUavId, trueTgtStatusSvc, clock);
+      attackTask = new AttackTask(hostUavId, tgtTypeCfgs, randStreams.nextStream(), clock);
 
-      taskAllocator = new TaskAllocator(hostUavId, gis);
+      taskAllocator = new TaskAllocator(hostUavId, gis, clock);
    }
 
    public TaskType getCurrentTaskType()
@@ -167,7 +168,7 @@ public class UAVLogicMgr
    private void processBeliefStateMsg(WorldBelief curBelief, Message rawMsg)
    {
       WorldBeliefMsg msg = (WorldBeliefMsg) rawMsg;
-      curBelief.mergeBelief(msg.getBelief());
+      curBelief.mergeBelief(msg);
       logger.trace("Merged belief from {} into {}", rawMsg.getOriginatingUAV(), hostUavId);
    }
 
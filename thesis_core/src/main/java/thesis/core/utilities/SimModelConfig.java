@@ -33,6 +33,39 @@ public class SimModelConfig
     */
    private double minWorldClearUncertThreshold;
 
+   /**
+    * The number of threads used to step the UAVs within a single simulation.
+    */
+   private int uavStepThreads;
+
+   /**
+    * If true then sensor probabilities are computed exactly instead of being
+    * read from precomputed tables.
+    */
+   private boolean exactSensorProbs;
+
+   /**
+    * Maximum number of flight paths cached by each UAV. Zero disables caching.
+    */
+   private int pathCacheSize;
+
+   /**
+    * If false then UAVs do not record their flight history trails.
+    */
+   private boolean flightTrails;
+
+   /**
+    * If true then csv files are loaded by staging them in the configuration
+    * databases instead of being parsed directly.
+    */
+   private boolean loadThroughDB;
+
+   /**
+    * If true then a world's binary world file is loaded instead of its csv
+    * files unless one of the csv files is newer.
+    */
+   private boolean loadBinaryWorld;
+
    public SimModelConfig()
    {
       randomSeed = 0;
@@ -41,6 +74,35 @@ public class SimModelConfig
       commsRngPercent = 0;
       beliefDecayRate = 0;
       minWorldClearUncertThreshold = 0;
+      uavStepThreads = 1;
+      exactSensorProbs = false;
+      pathCacheSize = 0;
+      flightTrails = true;
+      loadThroughDB = false;
+      loadBinaryWorld = true;
+   }
+
+   /**
+    * Create a deep copy of another configuration.
+    *
+    * @param copy
+    *           The configuration to copy.
+    */
+   public SimModelConfig(SimModelConfig copy)
+   {
+      randomSeed = copy.randomSeed;
+      worldDir = copy.worldDir;
+      entityTypesDir = copy.entityTypesDir;
+      commsRngPercent = copy.commsRngPercent;
+      probMsgFwd = copy.probMsgFwd;
+      beliefDecayRate = copy.beliefDecayRate;
+      minWorldClearUncertThreshold = copy.minWorldClearUncertThreshold;
+      uavStepThreads = copy.uavStepThreads;
+      exactSensorProbs = copy.exactSensorProbs;
+      pathCacheSize = copy.pathCacheSize;
+      flightTrails = copy.flightTrails;
+      loadThroughDB = copy.loadThroughDB;
+      loadBinaryWorld = copy.loadBinaryWorld;
    }
 
    public int getRandomSeed()
@@ -121,6 +183,66 @@ public class SimModelConfig
       return minWorldClearUncertThreshold;
    }
 
+   public void setUAVStepThreads(int numThreads)
+   {
+      uavStepThreads = numThreads;
+   }
+
+   public int getUAVStepThreads()
+   {
+      return uavStepThreads;
+   }
+
+   public void setExactSensorProbabilities(boolean exact)
+   {
+      exactSensorProbs = exact;
+   }
+
+   public boolean isExactSensorProbabilities()
+   {
+      return exactSensorProbs;
+   }
+
+   public void setPathCacheSize(int size)
+   {
+      pathCacheSize = size;
+   }
+
+   public int getPathCacheSize()
+   {
+      return pathCacheSize;
+   }
+
+   public void setFlightTrailsEnabled(boolean enabled)
+   {
+      flightTrails = enabled;
+   }
+
+   public boolean isFlightTrailsEnabled()
+   {
+      return flightTrails;
+   }
+
+   public void setLoadThroughDB(boolean throughDB)
+   {
+      loadThroughDB = throughDB;
+   }
+
+   public boolean isLoadThroughDB()
+   {
+      return loadThroughDB;
+   }
+
+   public void setLoadBinaryWorld(boolean binary)
+   {
+      loadBinaryWorld = binary;
+   }
+
+   public boolean isLoadBinaryWorld()
+   {
+      return loadBinaryWorld;
+   }
+
    @Override
    public String toString()
    {
@@ -139,6 +261,18 @@ public class SimModelConfig
       sb.append(String.format("%.2f", beliefDecayRate));
       sb.append("\nMinWorldClearUncert: ");
       sb.append(String.format("%.2f", minWorldClearUncertThreshold));
+      sb.append("\nUAVStepThreads: ");
+      sb.append(uavStepThreads);
+      sb.append("\nExactSensorProbs: ");
+      sb.append(exactSensorProbs);
+      sb.append("\nPathCacheSize: ");
+      sb.append(pathCacheSize);
+      sb.append("\nFlightTrails: ");
+      sb.append(flightTrails);
+      sb.append("\nLoadThroughDB: ");
+      sb.append(loadThroughDB);
+      sb.append("\nLoadBinaryWorld: ");
+      sb.append(loadBinaryWorld);
       
 
       return sb.toString();
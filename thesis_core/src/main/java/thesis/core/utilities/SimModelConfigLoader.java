@@ -61,6 +61,12 @@ public class SimModelConfigLoader
          cfg.setCommsRelayProbability(props.getDouble("sim.commsRelayProb"));
          cfg.setBeliefDecayRate(props.getDouble("sim.belief.decayRate"));
          cfg.setMinWorldClearUncert(props.getDouble("sim.belief.minClearUncert"));
+         cfg.setUAVStepThreads(props.getInt("sim.uavStepThreads", 1));
+         cfg.setExactSensorProbabilities(props.getBool("sim.sensor.exactProbabilities", false));
+         cfg.setPathCacheSize(props.getInt("sim.uav.pathCacheSize", 0));
+         cfg.setFlightTrailsEnabled(props.getBool("sim.uav.flightTrails", true));
+         cfg.setLoadThroughDB(props.getBool("sim.loadThroughDB", false));
+         cfg.setLoadBinaryWorld(props.getBool("sim.loadBinaryWorld", true));
       }
       catch (Exception e)
       {
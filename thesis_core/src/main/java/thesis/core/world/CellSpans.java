@@ -0,0 +1,81 @@
+package thesis.core.world;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of horizontal runs of cells. Each span covers every column
+ * from its first column to its last column (inclusive) within a single row.
+ * Spans are stored in primitive arrays that grow as needed and are never
+ * shrunk so that refilling a span list does not allocate memory.
+ */
+public class CellSpans
+{
+   private int[] rows;
+   private int[] firstCols;
+   private int[] lastCols;
+   private int numSpans;
+
+   public CellSpans()
+   {
+      rows = new int[16];
+      firstCols = new int[16];
+      lastCols = new int[16];
+      numSpans = 0;
+   }
+
+   /**
+    * Remove all spans.
+    */
+   public void clear()
+   {
+      numSpans = 0;
+   }
+
+   void add(int row, int firstCol, int lastCol)
+   {
+      if (numSpans == rows.length)
+      {
+         rows = Arrays.copyOf(rows, numSpans * 2);
+         firstCols = Arrays.copyOf(firstCols, numSpans * 2);
+         lastCols = Arrays.copyOf(lastCols, numSpans * 2);
+      }
+
+      rows[numSpans] = row;
+      firstCols[numSpans] = firstCol;
+      lastCols[numSpans] = lastCol;
+      ++numSpans;
+   }
+
+   public int getNumSpans()
+   {
+      return numSpans;
+   }
+
+   public int getRow(int span)
+   {
+      return rows[span];
+   }
+
+   public int getFirstColumn(int span)
+   {
+      return firstCols[span];
+   }
+
+   public int getLastColumn(int span)
+   {
+      return lastCols[span];
+   }
+
+   /**
+    * @return The total number of cells covered by all spans.
+    */
+   public int getNumCells()
+   {
+      int numCells = 0;
+      for (int i = 0; i < numSpans; ++i)
+      {
+         numCells += lastCols[i] - firstCols[i] + 1;
+      }
+      return numCells;
+   }
+}
@@ -8,7 +8,7 @@ public class Havens
 
    public Havens()
    {
-
+      locations = new CellCoordinate[0];
    }
 
    public void reset(int numHavens)
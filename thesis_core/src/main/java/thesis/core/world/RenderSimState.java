@@ -9,7 +9,6 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
 import java.util.List;
 
 import thesis.core.SimModel;
@@ -18,9 +17,9 @@ import thesis.core.common.CellCoordinate;
 import thesis.core.common.Circle;
 import thesis.core.common.RoadNetwork;
 import thesis.core.common.WorldCoordinate;
-import thesis.core.common.WorldPose;
 import thesis.core.sensors.Sensor;
 import thesis.core.targets.Target;
+import thesis.core.uav.FlightTrail;
 import thesis.core.uav.UAV;
 import thesis.core.uav.dubins.DubinsPath;
 import thesis.core.uav.logic.TaskType;
@@ -190,7 +189,9 @@ public class RenderSimState
    }
 
    /**
-    * Render the world to the given graphics device.
+    * Render the world to the given graphics device. The simulation model is
+    * locked while rendering, so threads stepping the model concurrently must
+    * hold its lock while stepping.
     *
     * @param gfx
     *           The world will be rendered into this graphics device.
@@ -746,19 +747,21 @@ public class RenderSimState
       UAV uavs[] = simModel.getUAVManager().getAllUAVs();
       final int numUAVs = uavs.length;
       UAV uav = null;
-      List<WorldPose> trail = new ArrayList<WorldPose>();
+      final WorldCoordinate trailCoord = new WorldCoordinate();
       for (int i = 0; i < numUAVs; ++i)
       {
-         trail.clear();
-
          final Point prevPixels = new Point(-1, -1);
          final Point curPixels = new Point(0, 0);
          uav = uavs[i];
 
-         uav.getPathing().getFlightHistoryTrail(trail);
-         for(WorldPose pose : trail)
+         // Called while holding the model lock so the trail cannot change
+         // while it is drawn. The size is still read on every iteration so a
+         // trail cleared by an unlocked step ends the line instead of throwing.
+         final FlightTrail trail = uav.getPathing().getFlightTrail();
+         for (int j = 0; j < trail.size(); ++j)
          {
-            worldCoordinateToPixels(pose.getCoordinate(), curPixels);
+            trailCoord.setCoordinate(trail.getNorth(j), trail.getEast(j));
+            worldCoordinateToPixels(trailCoord, curPixels);
             if (prevPixels.x != -1 && prevPixels.y != -1)
             {
                g2d.drawLine(prevPixels.x, prevPixels.y, curPixels.x, curPixels.y);
@@ -43,6 +43,12 @@ public class WorldGIS
     */
    private double distPerCol;
 
+   /**
+    * Cell centers within this many meters of the edge of a rasterized region
+    * are considered inside of the region.
+    */
+   private static final double RASTER_TOLERANCE = 0.000001;
+
    public WorldGIS()
    {
 
@@ -291,81 +297,131 @@ public class WorldGIS
 
    public void getCellsInRectangle(Trapezoid rect, List<CellCoordinate> cellsInRect)
    {
-      int ranges[] = new int[4];
-      findRowColExtremes(ranges, rect);
-      final int minRow = ranges[0];
-      final int maxRow = ranges[1];
-      final int minCol = ranges[2];
-      final int maxCol = ranges[3];
-
-      WorldCoordinate tempWC = new WorldCoordinate();
-      CellCoordinate tempCC = new CellCoordinate();
-      for (int i = minRow; i <= maxRow; ++i)
+      CellSpans spans = new CellSpans();
+      getCellSpansInRectangle(rect, spans);
+
+      for (int i = 0; i < spans.getNumSpans(); ++i)
       {
-         for (int j = minCol; j <= maxCol; ++j)
+         final int row = spans.getRow(i);
+         for (int col = spans.getFirstColumn(i); col <= spans.getLastColumn(i); ++col)
          {
-            tempCC.setCoordinate(i, j);
-            convertCellToWorld(tempCC, tempWC);
-            if (rect.isCoordinateInRegion(tempWC))
-            {
-               cellsInRect.add(new CellCoordinate(tempCC));
-            }
+            cellsInRect.add(new CellCoordinate(row, col));
          }
       }
    }
 
-   private int clamp(int val, int min, int max)
+   /**
+    * Find all cells whose centers lie within a convex quadrilateral. Cells
+    * are produced one row at a time by intersecting the horizontal line
+    * through the centers of the row with the edges of the quadrilateral so
+    * the cost is proportional to the number of rows and covered cells.
+    *
+    * @param rect
+    *           The region to rasterize. The corners may be in any
+    *           orientation but the region must be convex.
+    * @param spans
+    *           Cleared and then filled with the covered cells of each row
+    *           from south to north. Cells outside of the world are omitted.
+    */
+   public void getCellSpansInRectangle(Trapezoid rect, CellSpans spans)
    {
-      val = Math.min(val, max);
-      val = Math.max(val, min);
-      return val;
-   }
+      spans.clear();
 
-   private void findRowColExtremes(int[] ranges, Trapezoid rect)
-   {
-      //rect.convertToCanonicalForm();
+      final WorldCoordinate tl = rect.getTopLeft();
+      final WorldCoordinate tr = rect.getTopRight();
+      final WorldCoordinate bl = rect.getBottomLeft();
+      final WorldCoordinate br = rect.getBottomRight();
 
-      CellCoordinate temp1 = new CellCoordinate();
-      CellCoordinate temp2 = new CellCoordinate();
+      final double minNorth = Math.min(Math.min(tl.getNorth(), tr.getNorth()), Math.min(bl.getNorth(), br.getNorth()));
+      final double maxNorth = Math.max(Math.max(tl.getNorth(), tr.getNorth()), Math.max(bl.getNorth(), br.getNorth()));
 
-      convertWorldToCell(rect.getTopLeft(), temp1);
-      convertWorldToCell(rect.getTopRight(), temp2);
-      int maxRow = Math.max(temp1.getRow(), temp2.getRow());
-      maxRow = clamp(maxRow, 0, numRows - 1);
+      // Rows whose centers are within the north-south extent of the region
+      final int minRow = Math.max(0, (int) Math.ceil((minNorth - RASTER_TOLERANCE) / distPerRow - 0.5));
+      final int maxRow = Math.min(numRows - 1, (int) Math.floor((maxNorth + RASTER_TOLERANCE) / distPerRow - 0.5));
 
-      convertWorldToCell(rect.getBottomLeft(), temp1);
-      convertWorldToCell(rect.getBottomRight(), temp2);
-      int minRow = Math.min(temp1.getRow(), temp2.getRow());
-      minRow = clamp(minRow, 0, numRows - 1);
+      for (int row = minRow; row <= maxRow; ++row)
+      {
+         // Keep the scanline within the region so that rows within tolerance
+         // of a corner still intersect the edges
+         double north = row * distPerRow + (distPerRow * 0.5);
+         north = Math.max(minNorth, Math.min(maxNorth, north));
+
+         double west = Double.POSITIVE_INFINITY;
+         double east = Double.NEGATIVE_INFINITY;
+         if (minNorth == maxNorth)
+         {
+            // Degenerate region where every edge lies on the scanline
+            west = Math.min(Math.min(tl.getEast(), tr.getEast()), Math.min(bl.getEast(), br.getEast()));
+            east = Math.max(Math.max(tl.getEast(), tr.getEast()), Math.max(bl.getEast(), br.getEast()));
+         }
+         else
+         {
+            // Horizontal edges are skipped by the intersection test but their
+            // end points are found through the neighboring edges
+            final double x1 = intersectScanline(north, tl, bl);
+            final double x2 = intersectScanline(north, bl, br);
+            final double x3 = intersectScanline(north, br, tr);
+            final double x4 = intersectScanline(north, tr, tl);
+            west = minIgnoreNaN(minIgnoreNaN(x1, x2), minIgnoreNaN(x3, x4));
+            east = maxIgnoreNaN(maxIgnoreNaN(x1, x2), maxIgnoreNaN(x3, x4));
+         }
 
-      convertWorldToCell(rect.getBottomRight(), temp1);
-      convertWorldToCell(rect.getTopRight(), temp2);
-      int maxCol = Math.max(temp1.getColumn(), temp2.getColumn());
-      maxCol = clamp(maxCol, 0, numRows - 1);
+         if (west <= east)
+         {
+            // Columns whose centers are within the scanline's extent
+            final int minCol = Math.max(0, (int) Math.ceil((west - RASTER_TOLERANCE) / distPerCol - 0.5));
+            final int maxCol = Math.min(numCols - 1, (int) Math.floor((east + RASTER_TOLERANCE) / distPerCol - 0.5));
+            if (minCol <= maxCol)
+            {
+               spans.add(row, minCol, maxCol);
+            }
+         }
+      }
+   }
 
-      convertWorldToCell(rect.getBottomLeft(), temp1);
-      convertWorldToCell(rect.getTopLeft(), temp2);
-      int minCol = Math.min(temp1.getColumn(), temp2.getColumn());
-      minCol = clamp(minCol, 0, numRows - 1);
+   /**
+    * Find where a horizontal line crosses an edge.
+    *
+    * @param north
+    *           Northing of the horizontal line.
+    * @param start
+    *           One end of the edge.
+    * @param end
+    *           The other end of the edge.
+    * @return The easting of the intersection or NaN if the line does not
+    *         cross the edge or the edge is horizontal.
+    */
+   private static double intersectScanline(double north, WorldCoordinate start, WorldCoordinate end)
+   {
+      final double n1 = start.getNorth();
+      final double n2 = end.getNorth();
 
-      if(maxRow < minRow)
+      if (n1 == n2 || north < Math.min(n1, n2) || north > Math.max(n1, n2))
       {
-         int temp = minRow;
-         minRow = maxRow;
-         maxRow = temp;
+         return Double.NaN;
       }
-
-      if(maxCol < minCol)
+      else if (north == n1)
       {
-         int temp = minCol;
-         minCol = maxCol;
-         maxCol = temp;
+         return start.getEast();
       }
+      else if (north == n2)
+      {
+         return end.getEast();
+      }
+      else
+      {
+         return start.getEast() + (north - n1) * (end.getEast() - start.getEast()) / (n2 - n1);
+      }
+   }
 
-      ranges[0] = minRow;
-      ranges[1] = maxRow;
-      ranges[2] = minCol;
-      ranges[3] = maxCol;
+   private static double minIgnoreNaN(double a, double b)
+   {
+      return Double.isNaN(a) ? b : (Double.isNaN(b) ? a : Math.min(a, b));
+   }
+
+   private static double maxIgnoreNaN(double a, double b)
+   {
+      return Double.isNaN(a) ? b : (Double.isNaN(b) ? a : Math.max(a, b));
    }
 
    @Override
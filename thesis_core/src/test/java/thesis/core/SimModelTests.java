@@ -0,0 +1,125 @@
+package thesis.core;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Random;
+
+import org.junit.Test;
+
+import thesis.core.serialization.EntityTypeCSVCodec;
+import thesis.core.serialization.WorldConfigCSVCodec;
+import thesis.core.serialization.world.TargetStartCfg;
+import thesis.core.serialization.world.UAVStartCfg;
+import thesis.core.serialization.world.WorldConfig;
+import thesis.core.targets.Target;
+import thesis.core.uav.UAV;
+import thesis.core.world.WorldGIS;
+
+public class SimModelTests
+{
+   @Test
+   public void parallelMatchesSerial()
+   {
+      final int NUM_UAVS = 16;
+      final int NUM_TGTS = 8;
+      final int NUM_FRAMES = 3000;
+      final int BELIEF_CHECK_RATE = 100;
+
+      EntityTypeCfgs entTypes = new EntityTypeCfgs();
+      assertTrue("Failed to load entity types.",
+            new EntityTypeCSVCodec().loadCSV(new File("./testConfigs"), entTypes));
+
+      WorldConfig worldCfg = new WorldConfig();
+      assertTrue("Failed to load world.",
+            new WorldConfigCSVCodec().loadCSV(new File("./testWorlds/test1"), worldCfg));
+
+      // Crowd the world so UAVs communicate and sense each other's targets
+      Random rand = new Random(1234);
+      WorldGIS gis = worldCfg.getWorld().getWorldGIS();
+      for (int i = 0; i < NUM_UAVS; ++i)
+      {
+         UAVStartCfg uavCfg = new UAVStartCfg();
+         uavCfg.setUAVType(rand.nextInt(entTypes.getUAVTypeCfgs().getNumTypes()));
+         uavCfg.setOrientation(rand.nextDouble() * 360);
+         uavCfg.getLocation().setCoordinate(rand.nextDouble() * gis.getHeight(), rand.nextDouble() * gis.getWidth());
+         worldCfg.getUAVCfgs().add(uavCfg);
+      }
+      for (int i = 0; i < NUM_TGTS; ++i)
+      {
+         TargetStartCfg tgtCfg = new TargetStartCfg();
+         tgtCfg.setTargetType(rand.nextInt(entTypes.getTgtTypeCfgs().getNumTypes()));
+         tgtCfg.setOrientation(rand.nextDouble() * 360);
+         tgtCfg.getLocation().setCoordinate(rand.nextDouble() * gis.getHeight(), rand.nextDouble() * gis.getWidth());
+         worldCfg.getTargetCfgs().add(tgtCfg);
+      }
+
+      SimModel serial = new SimModel();
+      serial.reset(42, worldCfg, entTypes, 0.2, 0.3, 0.0005, 0.3);
+      serial.setUAVStepThreads(1);
+
+      SimModel parallel = new SimModel();
+      parallel.reset(42, worldCfg, entTypes, 0.2, 0.3, 0.0005, 0.3);
+      parallel.setUAVStepThreads(4);
+
+      final int numCells = gis.getRowCount() * gis.getColumnCount();
+      final double[] serialUncert = new double[numCells];
+      final double[] parallelUncert = new double[numCells];
+
+      try
+      {
+         boolean finished = false;
+         for (int frame = 0; frame < NUM_FRAMES && !finished; ++frame)
+         {
+            finished = serial.stepSimulation();
+            assertEquals("Finished on a different frame.", finished, parallel.stepSimulation());
+
+            UAV[] serialUAVs = serial.getUAVManager().getAllUAVs();
+            UAV[] parallelUAVs = parallel.getUAVManager().getAllUAVs();
+            assertEquals("Wrong number of UAVs.", serialUAVs.length, parallelUAVs.length);
+            for (int i = 0; i < serialUAVs.length; ++i)
+            {
+               assertEquals("UAV north differs.", serialUAVs[i].getPathing().getCoordinate().getNorth(),
+                     parallelUAVs[i].getPathing().getCoordinate().getNorth(), 0);
+               assertEquals("UAV east differs.", serialUAVs[i].getPathing().getCoordinate().getEast(),
+                     parallelUAVs[i].getPathing().getCoordinate().getEast(), 0);
+               assertEquals("UAV heading differs.", serialUAVs[i].getPathing().getHeading(),
+                     parallelUAVs[i].getPathing().getHeading(), 0);
+
+               if (frame % BELIEF_CHECK_RATE == 0)
+               {
+                  serialUAVs[i].getBelief().getUncertainties(serialUncert);
+                  parallelUAVs[i].getBelief().getUncertainties(parallelUncert);
+                  assertArrayEquals("UAV belief differs.", serialUncert, parallelUncert, 0);
+               }
+            }
+
+            Target[] serialTgts = serial.getTargetManager().getAllTargets();
+            Target[] parallelTgts = parallel.getTargetManager().getAllTargets();
+            for (int i = 0; i < serialTgts.length; ++i)
+            {
+               assertEquals("Target north differs.", serialTgts[i].getCoordinate().getNorth(),
+                     parallelTgts[i].getCoordinate().getNorth(), 0);
+               assertEquals("Target east differs.", serialTgts[i].getCoordinate().getEast(),
+                     parallelTgts[i].getCoordinate().getEast(), 0);
+               assertEquals("Target alive state differs.", serialTgts[i].isAlive(), parallelTgts[i].isAlive());
+            }
+         }
+
+         StatResults serialResults = serial.getResults();
+         StatResults parallelResults = parallel.getResults();
+         assertEquals("Time all targets found differs.", serialResults.getTimeAllTargetsFound(),
+               parallelResults.getTimeAllTargetsFound());
+         assertEquals("Time all targets destroyed differs.", serialResults.getTimeAllTargetsDestroyed(),
+               parallelResults.getTimeAllTargetsDestroyed());
+         assertEquals("Time world known differs.", serialResults.getTimeAllWorldKnown(),
+               parallelResults.getTimeAllWorldKnown());
+      }
+      finally
+      {
+         parallel.shutdown();
+      }
+   }
+}
@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Random;
 
 import thesis.core.common.HavenRouting;
+import thesis.core.common.RandomStreams;
+import thesis.core.common.SimClock;
 import thesis.core.common.WorldCoordinate;
 import thesis.core.sensors.SensorProbs;
 import thesis.core.sensors.SensorTypeConfigs;
@@ -48,7 +50,8 @@ public class TestUtils
          tgtStartCfgs.add(tgtCfg);
       }
 
-      tgtMgr.reset(entTypeCfgs.getTgtTypeCfgs(), tgtStartCfgs, new HavenRouting(world, rand), world.getWorldGIS());
+      tgtMgr.reset(entTypeCfgs.getTgtTypeCfgs(), tgtStartCfgs, new HavenRouting(world), world.getWorldGIS(),
+            new SimClock(), new RandomStreams(rand.nextLong()));
       return tgtMgr;
    }
 
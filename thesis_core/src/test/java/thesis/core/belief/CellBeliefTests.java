@@ -51,4 +51,28 @@ public class CellBeliefTests
       }
       assertEquals("Invalid decay result.", expectedProb, testMe.getProbabilityEmptyCell(), PROB_TOLERANCE);
    }
+
+   @Test
+   public void decayLimitTest()
+   {
+      final double decayRate = 0.5;
+      final double perFrame = (decayRate / 1000) * SimTime.SIM_STEP_RATE_MS;
+      final double PROB_TOLERANCE = perFrame * 0.01;
+
+      CellBelief testMe = new CellBelief(0, 0, 2, decayRate);
+      testMe.updateEmptyBelief(0, 0.9);
+
+      // Reference decay applied one frame at a time
+      double expectedProb = 0.9;
+      for (int i = 0; i < SimTime.SIM_STEP_RATE_HZ * 10; ++i)
+      {
+         testMe.stepSimulation();
+         if (Math.abs(0.5 - expectedProb) > perFrame)
+         {
+            expectedProb -= perFrame;
+         }
+         assertEquals("Invalid decay result.", expectedProb, testMe.getProbabilityEmptyCell(), PROB_TOLERANCE);
+      }
+      assertEquals("Decay overshot complete uncertainty.", 0.5, testMe.getProbabilityEmptyCell(), perFrame);
+   }
 }
@@ -1,10 +1,22 @@
 package thesis.core.belief;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
+import thesis.core.belief.WorldBelief.WorldKnownStrategy;
+import thesis.core.common.CellCoordinate;
+import thesis.core.common.SimClock;
 import thesis.core.common.WorldCoordinate;
+import thesis.core.uav.comms.IMsgTransmitter;
+import thesis.core.uav.comms.Message;
 
 public class WorldBeliefTests
 {
@@ -16,8 +28,8 @@ public class WorldBeliefTests
       final double DISTANCE_TOLERANCE = 0.000000001;
 
       WorldBelief.NEWER_TGT_ALPHA = 0.7;
-      WorldBelief wb1 = new WorldBelief(1, 1, 2, 0, 0.1);
-      WorldBelief wb2 = new WorldBelief(1, 1, 2, 0, 0.1);
+      WorldBelief wb1 = new WorldBelief(1, 1, 2, 0, 0.1, new SimClock());
+      WorldBelief wb2 = new WorldBelief(1, 1, 2, 0, 0.1, new SimClock());
 
       TargetBelief wb1tgt = wb1.getTargetBelief(0);
       TargetBelief wb2tgt = wb2.getTargetBelief(0);
@@ -60,4 +72,319 @@ public class WorldBeliefTests
       assertEquals("Merged old prob data", cb1tgt0Prob, wb1tgt.getTypeProbability(0), PROB_TOLERANCE);
       assertEquals("Merged old time data", cb1tgt0Time, wb1tgt.getTimestamp());
    }
+
+   @Test
+   public void worldKnownTest()
+   {
+      WorldKnownStrategy origStrat = WorldBelief.worldKnownStrat;
+      try
+      {
+         WorldBelief.worldKnownStrat = WorldKnownStrategy.Absolute;
+         WorldBelief absolute = new WorldBelief(2, 2, 2, 0, 0.5, new SimClock());
+         assertFalse("Unscanned world is known.", absolute.believesAllWorldKnown());
+
+         absolute.getCellBelief(0, 0).updateEmptyBelief(1, 0.99);
+         absolute.getCellBelief(0, 1).updateEmptyBelief(1, 0.99);
+         absolute.getCellBelief(1, 0).updateEmptyBelief(1, 0.99);
+         assertFalse("Absolute: World known with an unscanned cell.", absolute.believesAllWorldKnown());
+
+         absolute.getCellBelief(1, 1).updateEmptyBelief(1, 0.99);
+         assertTrue("Absolute: World not known after scanning every cell.", absolute.believesAllWorldKnown());
+
+         // Uncertainty of p=0.5 is ~1, p=0.99 is ~0.27. Two scanned cells
+         // average ~0.64, three average ~0.45.
+         WorldBelief.worldKnownStrat = WorldKnownStrategy.Average;
+         WorldBelief average = new WorldBelief(2, 2, 2, 0, 0.5, new SimClock());
+         average.getCellBelief(0, 0).updateEmptyBelief(1, 0.99);
+         average.getCellBelief(0, 1).updateEmptyBelief(1, 0.99);
+         assertFalse("Average: World known with half the cells scanned.", average.believesAllWorldKnown());
+
+         // Merging a newer belief counts as a change to the cell
+         WorldBelief other = new WorldBelief(2, 2, 2, 0, 0.5, new SimClock());
+         other.getCellBelief(1, 0).updateEmptyBelief(2, 0.99);
+         CellBelief.NEWER_TGT_ALPHA = 1;
+         average.mergeBelief(other);
+         assertTrue("Average: World not known after merging.", average.believesAllWorldKnown());
+      }
+      finally
+      {
+         WorldBelief.worldKnownStrat = origStrat;
+      }
+   }
+
+   @Test
+   public void targetOrderTest()
+   {
+      WorldBelief wb1 = new WorldBelief(1, 1, 2, 0, 0.1, new SimClock());
+      WorldBelief wb2 = new WorldBelief(1, 1, 2, 0, 0.1, new SimClock());
+
+      wb1.getTargetBelief(5);
+      wb1.getTargetBelief(1);
+      wb2.getTargetBelief(3);
+      wb2.getTargetBelief(0);
+      wb1.mergeBelief(wb2);
+
+      final int expectedIDs[] = { 0, 1, 3, 5 };
+      assertEquals("Invalid number of targets after merge.", expectedIDs.length, wb1.getNumTargetBeliefs());
+      for (int i = 0; i < expectedIDs.length; ++i)
+      {
+         assertEquals("Targets not sorted by ID.", expectedIDs[i], wb1.getTargetBeliefs().get(i).getTrueTargetID());
+      }
+
+      wb1.removeTarget(3);
+      assertFalse("Removed target still detected.", wb1.hasDetectedTarget(3));
+      assertEquals("Invalid number of targets after removal.", 3, wb1.getTargetBeliefs().size());
+      assertEquals("Targets not sorted by ID after removal.", 5, wb1.getTargetBeliefs().get(2).getTrueTargetID());
+   }
+
+   @Test
+   public void deltaBroadcastTest()
+   {
+      final List<Message> sent = new ArrayList<Message>();
+      IMsgTransmitter comms = new IMsgTransmitter()
+      {
+         @Override
+         public void transmit(Message msg, int destinationID)
+         {
+            sent.add(msg);
+         }
+      };
+
+      WorldBelief sender = new WorldBelief(3, 3, 2, 0, 0.1, new SimClock());
+      sender.getCellBelief(1, 2).updateEmptyBelief(5, 0.9);
+
+      // The first broadcast is a keyframe containing every cell
+      while (sent.isEmpty())
+      {
+         sender.stepSimulation(comms);
+      }
+      WorldBeliefMsg keyframe = (WorldBeliefMsg) sent.get(0);
+      assertTrue("First broadcast is not a keyframe.", keyframe.isKeyframe());
+      assertEquals("Keyframe does not contain every cell.", 9, keyframe.getNumCells());
+
+      // The next broadcast only contains the cells written since the keyframe
+      sender.getCellBelief(2, 0).updateEmptyBelief(10, 0.8);
+      while (sent.size() < 2)
+      {
+         sender.stepSimulation(comms);
+      }
+      WorldBeliefMsg delta = (WorldBeliefMsg) sent.get(1);
+      assertFalse("Second broadcast is a keyframe.", delta.isKeyframe());
+      assertEquals("Delta contains unchanged cells.", 1, delta.getNumCells());
+
+      // Changes after the broadcast do not alter the message
+      sender.getCellBelief(2, 0).updateEmptyBelief(15, 0.1);
+
+      CellBelief.NEWER_TGT_ALPHA = 1;
+      WorldBelief receiver = new WorldBelief(3, 3, 2, 0, 0.1, new SimClock());
+      receiver.mergeBelief(delta);
+      assertEquals("Delta cell not merged.", 0.8, receiver.getCellBelief(2, 0).getProbabilityEmptyCell(), 0.0001);
+      assertEquals("Cell outside delta merged.", 0.5, receiver.getCellBelief(1, 2).getProbabilityEmptyCell(), 0.0001);
+
+      receiver.mergeBelief(keyframe);
+      assertEquals("Keyframe cell not merged.", 0.9, receiver.getCellBelief(1, 2).getProbabilityEmptyCell(), 0.0001);
+   }
+
+   @Test
+   public void averageUncertaintyTest()
+   {
+      final int NUM_ROWS = 7;
+      final int NUM_COLS = 5;
+
+      WorldBelief wb = new WorldBelief(NUM_ROWS, NUM_COLS, 2, 0.5, 0.1, new SimClock());
+      Random rand = new Random(1234);
+      for (int i = 0; i < 3; ++i)
+      {
+         for (int j = 0; j < 10; ++j)
+         {
+            wb.getCellBelief(rand.nextInt(NUM_ROWS), rand.nextInt(NUM_COLS)).updateEmptyBelief(i,
+                  rand.nextDouble());
+         }
+
+         // Compare every region against a direct average of its cells
+         for (int row = -1; row <= NUM_ROWS; ++row)
+         {
+            for (int col = -1; col <= NUM_COLS; ++col)
+            {
+               final int height = rand.nextInt(4) + 1;
+               final int width = rand.nextInt(4) + 1;
+
+               double sum = 0;
+               int count = 0;
+               for (int r = Math.max(0, row); r < Math.min(NUM_ROWS, row + height); ++r)
+               {
+                  for (int c = Math.max(0, col); c < Math.min(NUM_COLS, col + width); ++c)
+                  {
+                     sum += wb.getCellBelief(r, c).getUncertainty();
+                     ++count;
+                  }
+               }
+
+               final double avg = wb.getAverageUncertainty(row, col, height, width);
+               if (count == 0)
+               {
+                  assertTrue("Region outside of the world has an average.", Double.isNaN(avg));
+               }
+               else
+               {
+                  assertEquals("Average uncertainty mismatch.", sum / count, avg, 0.000001);
+               }
+            }
+         }
+
+         // Decay changes the uncertainty of every cell
+         wb.stepSimulation(new IMsgTransmitter()
+         {
+            @Override
+            public void transmit(Message msg, int destinationID)
+            {
+            }
+         });
+      }
+   }
+
+   @Test
+   public void mostUncertainTest()
+   {
+      final int NUM_ROWS = 9;
+      final int NUM_COLS = 6;
+
+      IMsgTransmitter comms = new IMsgTransmitter()
+      {
+         @Override
+         public void transmit(Message msg, int destinationID)
+         {
+         }
+      };
+
+      // Fast decay so that cells reach full uncertainty during the test
+      WorldBelief wb = new WorldBelief(NUM_ROWS, NUM_COLS, 2, 0.05, 0.1, new SimClock());
+      WorldBelief other = new WorldBelief(NUM_ROWS, NUM_COLS, 2, 0.05, 0.1, new SimClock());
+      Random rand = new Random(1234);
+      for (int step = 0; step < 200; ++step)
+      {
+         for (int j = 0; j < 3; ++j)
+         {
+            wb.getCellBelief(rand.nextInt(NUM_ROWS), rand.nextInt(NUM_COLS)).updateEmptyBelief(step,
+                  rand.nextInt(11) / 10.0);
+            other.getCellBelief(rand.nextInt(NUM_ROWS), rand.nextInt(NUM_COLS)).updateEmptyBelief(step + 1,
+                  rand.nextDouble());
+         }
+         if (step % 10 == 0)
+         {
+            wb.mergeBelief(other);
+         }
+
+         // Compare random regions against a linear scan of their cells
+         for (int i = 0; i < 10; ++i)
+         {
+            // The first region is the whole world
+            final int row = i == 0 ? 0 : rand.nextInt(NUM_ROWS + 2) - 1;
+            final int col = i == 0 ? 0 : rand.nextInt(NUM_COLS + 2) - 1;
+            final int height = i == 0 ? NUM_ROWS : rand.nextInt(NUM_ROWS) + 1;
+            final int width = i == 0 ? NUM_COLS : rand.nextInt(NUM_COLS) + 1;
+
+            CellBelief expected = null;
+            for (int r = Math.max(0, row); r < Math.min(NUM_ROWS, row + height); ++r)
+            {
+               for (int c = Math.max(0, col); c < Math.min(NUM_COLS, col + width); ++c)
+               {
+                  CellBelief cb = wb.getCellBelief(r, c);
+                  if (expected == null || cb.getUncertainty() > expected.getUncertainty())
+                  {
+                     expected = cb;
+                  }
+               }
+            }
+
+            CellBelief actual = i == 0 ? wb.getMostUncertainCell() : wb.getMostUncertainCell(row, col, height,
+                  width);
+            if (expected == null)
+            {
+               assertNull("Region outside of the world has a cell.", actual);
+            }
+            else
+            {
+               assertEquals("Most uncertain cell mismatch.", expected.getCoordinate(), actual.getCoordinate());
+            }
+         }
+
+         wb.stepSimulation(comms);
+         other.stepSimulation(comms);
+      }
+   }
+
+   @Test
+   public void mostUncertainUniformTest()
+   {
+      final int NUM_ROWS = 500;
+      final int NUM_COLS = 500;
+
+      // Every cell starts equally uncertain so the first cell of any region wins
+      WorldBelief wb = new WorldBelief(NUM_ROWS, NUM_COLS, 2, 0.05, 0.1, new SimClock());
+      assertEquals(new CellCoordinate(0, 0), wb.getMostUncertainCell().getCoordinate());
+      assertEquals(new CellCoordinate(120, 37), wb.getMostUncertainCell(120, 37, 50, 80).getCoordinate());
+
+      // Lower every cell to the same uncertainty then raise cells spread across
+      // the quadrants of the pyramid to a tied maximum. Ties go to the lowest
+      // row major index, not to the first cell visited.
+      for (int r = 0; r < NUM_ROWS; ++r)
+      {
+         for (int c = 0; c < NUM_COLS; ++c)
+         {
+            wb.getCellBelief(r, c).updateEmptyBelief(0, 0.9);
+         }
+      }
+      wb.getCellBelief(300, 10).updateEmptyBelief(0, 0.6);
+      wb.getCellBelief(200, 499).updateEmptyBelief(0, 0.6);
+      wb.getCellBelief(240, 3).updateEmptyBelief(0, 0.6);
+      wb.getCellBelief(499, 0).updateEmptyBelief(0, 0.6);
+      assertEquals(new CellCoordinate(200, 499), wb.getMostUncertainCell().getCoordinate());
+      assertEquals(new CellCoordinate(240, 3), wb.getMostUncertainCell(220, 0, 100, 100).getCoordinate());
+   }
+
+   @Test
+   public void trackedUncertaintyTest()
+   {
+      final int NUM_CELLS = 50;
+      final double CELL_THRESH = 0.3;
+
+      // Fast decay so that cells cross the thresholds while the test runs
+      BeliefGrid grid = new BeliefGrid(5, 10, 0.5, CELL_THRESH);
+      Random rand = new Random(1234);
+      for (int i = 0; i < NUM_CELLS; ++i)
+      {
+         grid.updateEmptyBelief(i, 0, rand.nextBoolean() ? 0.001 : 0.999);
+      }
+
+      for (int step = 0; step < 500; ++step)
+      {
+         // Occasionally rescan or individually decay a few cells
+         if (rand.nextInt(4) == 0)
+         {
+            grid.updateEmptyBelief(rand.nextInt(NUM_CELLS), step, rand.nextBoolean() ? 0.001 : 0.999);
+         }
+         if (rand.nextInt(8) == 0)
+         {
+            grid.stepSimulation(rand.nextInt(NUM_CELLS));
+         }
+
+         double sum = 0;
+         boolean anyUncertain = false;
+         for (int i = 0; i < NUM_CELLS; ++i)
+         {
+            sum += grid.getUncertainty(i);
+            anyUncertain |= grid.getUncertainty(i) > CELL_THRESH;
+         }
+
+         assertEquals("Uncertain cell check mismatch at step " + step, anyUncertain, grid.isAnyCellUncertain());
+         for (double avgThresh = 0.05; avgThresh < 1; avgThresh += 0.1)
+         {
+            assertEquals("Average uncertainty check mismatch at step " + step, sum / NUM_CELLS > avgThresh,
+                  grid.isAverageUncertaintyAbove(avgThresh));
+         }
+
+         grid.stepSimulation();
+      }
+   }
 }
@@ -0,0 +1,42 @@
+package thesis.core.common;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class RandomStreamsTests
+{
+   @Test
+   public void reproducibleTest()
+   {
+      RandomStreams root1 = new RandomStreams(42);
+      RandomStreams root2 = new RandomStreams(42);
+
+      RandomStreams branch1A = root1.split();
+      RandomStreams branch1B = root1.split();
+      RandomStreams branch2A = root2.split();
+      RandomStreams branch2B = root2.split();
+
+      Random stream1A = branch1A.nextStream();
+      Random stream1B = branch1B.nextStream();
+      Random stream2B = branch2B.nextStream();
+
+      // Consume numbers from stream B of the second hierarchy in a different
+      // order than the first hierarchy.
+      final int NUM_VALS = 100;
+      double[] vals2B = new double[NUM_VALS];
+      for (int i = 0; i < NUM_VALS; ++i)
+      {
+         vals2B[i] = stream2B.nextDouble();
+      }
+
+      Random stream2A = branch2A.nextStream();
+      for (int i = 0; i < NUM_VALS; ++i)
+      {
+         assertEquals("Stream A differs between hierarchies.", stream1A.nextDouble(), stream2A.nextDouble(), 0);
+         assertEquals("Stream B differs between hierarchies.", stream1B.nextDouble(), vals2B[i], 0);
+      }
+   }
+}
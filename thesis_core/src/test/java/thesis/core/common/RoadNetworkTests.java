@@ -4,10 +4,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
+import thesis.core.world.Havens;
+import thesis.core.world.World;
+
 public class RoadNetworkTests
 {
 
@@ -55,4 +60,149 @@ public class RoadNetworkTests
       assertEquals("Bad cell 4 row", 2, temp.getRow());
       assertEquals("Bad cell 4 col", 2, temp.getColumn());
    }
+
+   @Test
+   public void aStarMatchesBreadthFirst()
+   {
+      final int NUM_ROWS = 60;
+      final int NUM_COLS = 80;
+
+      Random rand = new Random(1234);
+      RoadNetwork testMe = new RoadNetwork();
+      testMe.reset(NUM_ROWS, NUM_COLS);
+      for (int i = 0; i < NUM_ROWS; ++i)
+      {
+         for (int j = 0; j < NUM_COLS; ++j)
+         {
+            testMe.setTraversable(i, j, rand.nextDouble() < 0.7);
+         }
+      }
+
+      List<CellCoordinate> cells = testMe.getTraversableCells();
+      for (int i = 0; i < 200; ++i)
+      {
+         CellCoordinate start = cells.get(rand.nextInt(cells.size()));
+         CellCoordinate end = cells.get(rand.nextInt(cells.size()));
+
+         testMe.setAStarEnabled(false);
+         List<CellCoordinate> bfsPath = testMe.findPath(start, end);
+         testMe.setAStarEnabled(true);
+         List<CellCoordinate> aStarPath = testMe.findPath(start, end);
+
+         assertEquals("Path lengths differ.", bfsPath.size(), aStarPath.size());
+         if (!aStarPath.isEmpty())
+         {
+            assertEquals("Bad first cell.", start, aStarPath.get(0));
+            assertEquals("Bad last cell.", end, aStarPath.get(aStarPath.size() - 1));
+            for (int j = 1; j < aStarPath.size(); ++j)
+            {
+               CellCoordinate prev = aStarPath.get(j - 1);
+               CellCoordinate cur = aStarPath.get(j);
+               assertTrue("Path crosses a non traversable cell.", testMe.isTraversable(cur));
+               assertEquals("Path cells are not adjacent.", 1, Math.abs(prev.getRow() - cur.getRow())
+                     + Math.abs(prev.getColumn() - cur.getColumn()));
+            }
+         }
+      }
+   }
+
+   @Test
+   public void noPathFound()
+   {
+      RoadNetwork testMe = new RoadNetwork();
+      testMe.reset(3, 3);
+      testMe.setTraversable(0, 0, true);
+      testMe.setTraversable(2, 2, true);
+
+      assertTrue("Path found between disconnected cells.", testMe.findPath(0, 0, 2, 2).isEmpty());
+      testMe.setAStarEnabled(true);
+      assertTrue("A* path found between disconnected cells.", testMe.findPath(0, 0, 2, 2).isEmpty());
+      assertTrue("Path found from a non traversable cell.", testMe.findPath(1, 1, 2, 2).isEmpty());
+   }
+
+   @Test
+   public void multipleEndsMatchSinglePaths()
+   {
+      final int NUM_ROWS = 40;
+      final int NUM_COLS = 50;
+      final int NUM_ENDS = 20;
+
+      Random rand = new Random(4321);
+      RoadNetwork testMe = new RoadNetwork();
+      testMe.reset(NUM_ROWS, NUM_COLS);
+      for (int i = 0; i < NUM_ROWS; ++i)
+      {
+         for (int j = 0; j < NUM_COLS; ++j)
+         {
+            testMe.setTraversable(i, j, rand.nextDouble() < 0.6);
+         }
+      }
+
+      List<CellCoordinate> cells = testMe.getTraversableCells();
+      CellCoordinate start = cells.get(rand.nextInt(cells.size()));
+      List<CellCoordinate> ends = new ArrayList<CellCoordinate>();
+      for (int i = 0; i < NUM_ENDS; ++i)
+      {
+         ends.add(cells.get(rand.nextInt(cells.size())));
+      }
+      ends.add(start);
+
+      List<List<CellCoordinate>> paths = testMe.findPaths(start, ends);
+      assertEquals("Wrong number of paths.", ends.size(), paths.size());
+      for (int i = 0; i < ends.size(); ++i)
+      {
+         assertEquals("Path differs from single search.", testMe.findPath(start, ends.get(i)), paths.get(i));
+      }
+   }
+
+   @Test
+   public void havenTreesMatchMultipleEnds()
+   {
+      final int NUM_ROWS = 40;
+      final int NUM_COLS = 50;
+      final int NUM_HAVENS = 15;
+
+      Random rand = new Random(8765);
+      World world = new World();
+      world.getWorldGIS().reset(500, 400, NUM_ROWS, NUM_COLS);
+      RoadNetwork roadNet = world.getRoadNetwork();
+      roadNet.reset(NUM_ROWS, NUM_COLS);
+      for (int i = 0; i < NUM_ROWS; ++i)
+      {
+         for (int j = 0; j < NUM_COLS; ++j)
+         {
+            roadNet.setTraversable(i, j, rand.nextDouble() < 0.6);
+         }
+      }
+
+      // Some havens are off the roads or disconnected from the others
+      Havens havens = world.getHavens();
+      havens.reset(NUM_HAVENS);
+      List<CellCoordinate> havenCells = new ArrayList<CellCoordinate>();
+      for (int i = 0; i < NUM_HAVENS; ++i)
+      {
+         havens.setHavenByIndx(i, rand.nextInt(NUM_ROWS), rand.nextInt(NUM_COLS));
+         havenCells.add(havens.getHavenByIndx(i));
+      }
+
+      HavenRouteTrees testMe = new HavenRouteTrees(world);
+      assertEquals("Wrong number of havens.", NUM_HAVENS, testMe.getNumHavens());
+      for (int i = 0; i < NUM_HAVENS; ++i)
+      {
+         List<List<CellCoordinate>> paths = roadNet.findPaths(havenCells.get(i), havenCells);
+         for (int j = 0; j < NUM_HAVENS; ++j)
+         {
+            List<CellCoordinate> treePath = new ArrayList<CellCoordinate>();
+            int[] cells = testMe.getPath(i, j);
+            if (cells != null)
+            {
+               for (int cell : cells)
+               {
+                  treePath.add(new CellCoordinate(cell / NUM_COLS, cell % NUM_COLS));
+               }
+            }
+            assertEquals("Tree path differs from search.", paths.get(j), treePath);
+         }
+      }
+   }
 }
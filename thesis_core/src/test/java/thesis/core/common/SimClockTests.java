@@ -0,0 +1,35 @@
+package thesis.core.common;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SimClockTests
+{
+   @Test
+   public void independentClocksTest()
+   {
+      SimClock clock1 = new SimClock();
+      SimClock clock2 = new SimClock();
+
+      final int NUM_FRAMES = 10;
+      for (int i = 0; i < NUM_FRAMES; ++i)
+      {
+         clock1.stepSimulation();
+      }
+      clock2.stepSimulation();
+
+      assertEquals("Clock1 has wrong frame count.", NUM_FRAMES, clock1.getFrameCount());
+      assertEquals("Clock2 advanced with clock1.", 1, clock2.getFrameCount());
+      assertEquals("Clock2 has wrong sim time.", (long) SimTime.SIM_STEP_RATE_MS, clock2.getCurrentSimTimeMS());
+
+      clock1.incrementWallTime(5);
+      assertEquals("Clock1 has wrong wall time.", 5, clock1.getWallTime());
+      assertEquals("Clock2 wall time changed.", 0, clock2.getWallTime());
+
+      clock1.reset();
+      assertEquals("Clock1 did not reset sim time.", 0, clock1.getCurrentSimTimeMS());
+      assertEquals("Clock1 did not reset frame count.", 0, clock1.getFrameCount());
+      assertEquals("Clock2 reset with clock1.", 1, clock2.getFrameCount());
+   }
+}
@@ -3,8 +3,12 @@ package thesis.core.common.graph;
 
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -53,4 +57,141 @@ public class GraphTest
       assertEquals("Incorrect v4->v7 start.", v4.getID(), path.get(1).getStartVertex().getID());
       assertEquals("Incorrect v4->v7 end.", v7.getID(), path.get(1).getEndVertex().getID());
    }
+
+   @Test
+   public void dijkstraTest()
+   {
+      final int NUM_VERTS = 200;
+      final int NUM_EDGES = 800;
+      final double COMPARE_THRESH = 0.000001;
+
+      Random rand = new Random(1234);
+      Graph<Object> graph = new Graph<Object>();
+      for (int i = 0; i < NUM_VERTS; ++i)
+      {
+         // Sparse IDs exercise the renumbering to dense indices
+         graph.createVertex(i * 3);
+      }
+      for (int i = 0; i < NUM_EDGES; ++i)
+      {
+         graph.createDirectionalEdge(rand.nextInt(NUM_VERTS) * 3, rand.nextInt(NUM_VERTS) * 3, rand.nextDouble() * 10);
+      }
+
+      CompactGraph compact = graph.compile();
+      assertEquals("Wrong number of vertices.", NUM_VERTS, compact.getNumVertices());
+      assertEquals("Wrong number of edges.", NUM_EDGES, compact.getNumEdges());
+
+      // Brute force cheapest costs by relaxing every edge until nothing changes
+      final int start = compact.getVertexIndex(0);
+      double[] expected = new double[NUM_VERTS];
+      Arrays.fill(expected, Double.POSITIVE_INFINITY);
+      expected[start] = 0;
+      boolean changed = true;
+      while (changed)
+      {
+         changed = false;
+         for (DirectedEdge<Object> edge : graph.getEdges())
+         {
+            final int from = compact.getVertexIndex(edge.getStartVertex().getID());
+            final int to = compact.getVertexIndex(edge.getEndVertex().getID());
+            if (expected[from] + edge.getCost() < expected[to])
+            {
+               expected[to] = expected[from] + edge.getCost();
+               changed = true;
+            }
+         }
+      }
+
+      GraphSearch search = new GraphSearch(compact);
+      GraphSearch singleSearch = new GraphSearch(compact);
+      search.findAllPaths(start);
+      int[] path = new int[NUM_VERTS];
+      for (int v = 0; v < NUM_VERTS; ++v)
+      {
+         if (Double.isInfinite(expected[v]))
+         {
+            assertFalse("Unreachable vertex reached.", search.isReached(v));
+            continue;
+         }
+
+         assertTrue("Reachable vertex not reached.", search.isReached(v));
+         assertEquals("Wrong path cost.", expected[v], search.getCost(v), COMPARE_THRESH);
+
+         // The path cost is the sum of its edges
+         final int numPathVerts = search.getPath(v, path);
+         assertEquals("Path does not begin at the start.", start, path[0]);
+         assertEquals("Path does not finish at the goal.", v, path[numPathVerts - 1]);
+         double pathCost = 0;
+         for (int i = 1; i < numPathVerts; ++i)
+         {
+            final int edge = search.getParentEdge(path[i]);
+            assertEquals("Parent edge does not reach the vertex.", path[i], compact.getEdgeEnd(edge));
+            pathCost += compact.getEdgeCost(edge);
+         }
+         assertEquals("Path cost does not match its edges.", expected[v], pathCost, COMPARE_THRESH);
+
+         // Single goal searches agree with the full search
+         assertTrue("Goal not found.", singleSearch.findPath(start, v));
+         assertEquals("Wrong single goal cost.", expected[v], singleSearch.getCost(v), COMPARE_THRESH);
+      }
+   }
+
+   @Test
+   public void aStarTest()
+   {
+      final int SIZE = 30;
+      final double COMPARE_THRESH = 0.000001;
+
+      // A grid with unit cost edges where some vertices are missing
+      Random rand = new Random(4321);
+      Graph<Object> graph = new Graph<Object>();
+      final boolean[] open = new boolean[SIZE * SIZE];
+      for (int i = 0; i < SIZE * SIZE; ++i)
+      {
+         open[i] = rand.nextDouble() < 0.75;
+         graph.createVertex(i);
+      }
+      for (int row = 0; row < SIZE; ++row)
+      {
+         for (int col = 0; col < SIZE; ++col)
+         {
+            final int id = row * SIZE + col;
+            if (col + 1 < SIZE && open[id] && open[id + 1])
+            {
+               graph.createBidirectionalEdge(id, id + 1, 1);
+            }
+            if (row + 1 < SIZE && open[id] && open[id + SIZE])
+            {
+               graph.createBidirectionalEdge(id, id + SIZE, 1);
+            }
+         }
+      }
+
+      final CompactGraph compact = graph.compile();
+      GraphSearch.Heuristic manhattan = new GraphSearch.Heuristic()
+      {
+         @Override
+         public double estimate(int index, int goal)
+         {
+            final int id = compact.getVertexID(index);
+            final int goalID = compact.getVertexID(goal);
+            return Math.abs(id / SIZE - goalID / SIZE) + Math.abs(id % SIZE - goalID % SIZE);
+         }
+      };
+
+      GraphSearch dijkstra = new GraphSearch(compact);
+      GraphSearch aStar = new GraphSearch(compact);
+      for (int i = 0; i < 200; ++i)
+      {
+         final int start = rand.nextInt(SIZE * SIZE);
+         final int goal = rand.nextInt(SIZE * SIZE);
+
+         final boolean found = dijkstra.findPath(start, goal);
+         assertEquals("Reachability differs.", found, aStar.findPath(start, goal, manhattan));
+         if (found)
+         {
+            assertEquals("A* path is not the cheapest.", dijkstra.getCost(goal), aStar.getCost(goal), COMPARE_THRESH);
+         }
+      }
+   }
 }
@@ -0,0 +1,54 @@
+package thesis.core.sensors;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import thesis.core.EntityTypeCfgs;
+import thesis.core.TestUtils;
+
+public class SensorProbTablesTests
+{
+   @Test
+   public void matchesExactTest()
+   {
+      final int NUM_TGT_TYPES = 3;
+      final int NUM_SNSR_TYPES = 2;
+      // Half a table sample of heading error at the steepest slope
+      final double COMPARE_THRESH = 0.0003;
+
+      EntityTypeCfgs entCfgs = TestUtils.genericEntityCfgs(NUM_TGT_TYPES, NUM_SNSR_TYPES, 1);
+      SensorProbTables exact = new SensorProbTables(entCfgs.getSnsrProbs(), entCfgs.getTgtTypeCfgs(), true);
+      SensorProbTables testMe = new SensorProbTables(entCfgs.getSnsrProbs(), entCfgs.getTgtTypeCfgs(), false);
+
+      Random rand = new Random(1234);
+      for (int i = 0; i < 10000; ++i)
+      {
+         final int snsrType = rand.nextInt(NUM_SNSR_TYPES);
+         final int tgtType = rand.nextInt(NUM_TGT_TYPES);
+         final int detectType = rand.nextInt(NUM_TGT_TYPES);
+         final double snsrHdg = rand.nextDouble() * 360;
+         final double tgtHdg = rand.nextDouble() * 360;
+
+         assertEquals("Detection probability mismatch.", exact.probOfDetect(snsrType, tgtType, snsrHdg, tgtHdg),
+               testMe.probOfDetect(snsrType, tgtType, snsrHdg, tgtHdg), COMPARE_THRESH);
+         assertEquals("Misclassification probability mismatch.",
+               exact.probOfMisclassify(snsrType, tgtType, detectType, snsrHdg, tgtHdg),
+               testMe.probOfMisclassify(snsrType, tgtType, detectType, snsrHdg, tgtHdg), COMPARE_THRESH);
+         assertEquals("Heading coefficient mismatch.",
+               exact.headingConfidenceCoeff(snsrType, tgtType, snsrHdg, tgtHdg),
+               testMe.headingConfidenceCoeff(snsrType, tgtType, snsrHdg, tgtHdg), COMPARE_THRESH);
+      }
+
+      // Relative headings beyond the tables are computed exactly
+      assertEquals("Out of table detection probability mismatch.", exact.probOfDetect(0, 0, 0, 500),
+            testMe.probOfDetect(0, 0, 0, 500), 0);
+
+      // Switching to exact mode bypasses the tables
+      testMe.setExact(true);
+      assertEquals("Exact detection probability mismatch.", exact.probOfDetect(1, 2, 10.04, 137.123),
+            testMe.probOfDetect(1, 2, 10.04, 137.123), 0);
+   }
+}
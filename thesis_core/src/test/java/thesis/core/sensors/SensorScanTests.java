@@ -19,6 +19,8 @@ import thesis.core.belief.TargetBelief;
 import thesis.core.belief.WorldBelief;
 import thesis.core.common.CellCoordinate;
 import thesis.core.common.HavenRouting;
+import thesis.core.common.RandomStreams;
+import thesis.core.common.SimClock;
 import thesis.core.common.WorldPose;
 import thesis.core.serialization.world.TargetStartCfg;
 import thesis.core.targets.TargetMgr;
@@ -128,10 +130,11 @@ public class SensorScanTests
       world.getHavens().reset(1);
 
       // -------------Initialize world sim----------------------
-      WorldBelief wb = new WorldBelief(numRows, numCols, numTgtTypes, 0, 0);
-      HavenRouting havenRouting = new HavenRouting(world, randGen);
+      WorldBelief wb = new WorldBelief(numRows, numCols, numTgtTypes, 0, 0, new SimClock());
+      HavenRouting havenRouting = new HavenRouting(world);
       TargetMgr tgtMgr = new TargetMgr();
-      tgtMgr.reset(entCfgs.getTgtTypeCfgs(), initTargets(world.getWorldGIS()), havenRouting, world.getWorldGIS());
+      tgtMgr.reset(entCfgs.getTgtTypeCfgs(), initTargets(world.getWorldGIS()), havenRouting, world.getWorldGIS(),
+            new SimClock(), new RandomStreams(randGen.nextLong()));
 
       // ----------------Perform tests---------------------
       List<CellCoordinate> allCells = new ArrayList<CellCoordinate>();
@@ -1,5 +1,6 @@
 package thesis.core.serialization;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -25,4 +26,76 @@ public class EntityTypeCSVCodecTests
             testMe.loadCSV(dbConns, new File("./testConfigs"), entCfgs));
       dbConns.closeConfigDB();
    }
+
+   @Test
+   public void directLoadMatchesDB()
+   {
+      final File cfgDir = new File("./testConfigs");
+      final double EPS = 0.000001;
+
+      DBConnections dbConns = new DBConnections();
+      assertTrue("Failed to open configuration db.", dbConns.openConfigDB());
+
+      EntityTypeCfgs dbCfgs = new EntityTypeCfgs();
+      EntityTypeCfgs directCfgs = new EntityTypeCfgs();
+      EntityTypeCSVCodec testMe = new EntityTypeCSVCodec();
+
+      assertTrue("Failed to load entity configurations through db.", testMe.loadCSV(dbConns, cfgDir, dbCfgs));
+      dbConns.closeConfigDB();
+      assertTrue("Failed to load entity configurations directly.", testMe.loadCSV(cfgDir, directCfgs));
+
+      final int numSnsrs = dbCfgs.getSnsrTypeCfgs().getNumTypes();
+      final int numTgts = dbCfgs.getTgtTypeCfgs().getNumTypes();
+      final int numWpns = dbCfgs.getWpnTypeCfgs().getNumTypes();
+      final int numUAVs = dbCfgs.getUAVTypeCfgs().getNumTypes();
+      assertEquals(numSnsrs, directCfgs.getSnsrTypeCfgs().getNumTypes());
+      assertEquals(numTgts, directCfgs.getTgtTypeCfgs().getNumTypes());
+      assertEquals(numWpns, directCfgs.getWpnTypeCfgs().getNumTypes());
+      assertEquals(numUAVs, directCfgs.getUAVTypeCfgs().getNumTypes());
+
+      for (int tgt = 0; tgt < numTgts; ++tgt)
+      {
+         assertEquals(dbCfgs.getTgtTypeCfgs().getSpeed(tgt), directCfgs.getTgtTypeCfgs().getSpeed(tgt), EPS);
+         assertEquals(dbCfgs.getTgtTypeCfgs().getBestAngle(tgt), directCfgs.getTgtTypeCfgs().getBestAngle(tgt), EPS);
+      }
+
+      for (int uav = 0; uav < numUAVs; ++uav)
+      {
+         assertEquals(dbCfgs.getUAVTypeCfgs().getSpeed(uav), directCfgs.getUAVTypeCfgs().getSpeed(uav), EPS);
+         assertEquals(dbCfgs.getUAVTypeCfgs().getTurnRadius(uav), directCfgs.getUAVTypeCfgs().getTurnRadius(uav),
+               EPS);
+         for (int snsr = 0; snsr < numSnsrs; ++snsr)
+         {
+            assertEquals(dbCfgs.getUAVSensorCfgs().uavHasSensor(uav, snsr),
+                  directCfgs.getUAVSensorCfgs().uavHasSensor(uav, snsr));
+         }
+      }
+
+      for (int snsr = 0; snsr < numSnsrs; ++snsr)
+      {
+         assertEquals(dbCfgs.getSnsrProbs().getSensorDetectEmptyProb(snsr),
+               directCfgs.getSnsrProbs().getSensorDetectEmptyProb(snsr), EPS);
+         for (int tgt = 0; tgt < numTgts; ++tgt)
+         {
+            assertEquals(dbCfgs.getSnsrProbs().getSensorDetectTgtProb(snsr, tgt),
+                  directCfgs.getSnsrProbs().getSensorDetectTgtProb(snsr, tgt), EPS);
+            assertEquals(dbCfgs.getSnsrProbs().getSensorHeadingCoeff(snsr, tgt),
+                  directCfgs.getSnsrProbs().getSensorHeadingCoeff(snsr, tgt), EPS);
+            for (int misclass = 0; misclass < numTgts; ++misclass)
+            {
+               assertEquals(dbCfgs.getSnsrProbs().getSensorMisclassifyProb(snsr, tgt, misclass),
+                     directCfgs.getSnsrProbs().getSensorMisclassifyProb(snsr, tgt, misclass), EPS);
+            }
+         }
+      }
+
+      for (int wpn = 0; wpn < numWpns; ++wpn)
+      {
+         for (int tgt = 0; tgt < numTgts; ++tgt)
+         {
+            assertEquals(dbCfgs.getWpnProbs().getWeaponDestroyProb(wpn, tgt),
+                  directCfgs.getWpnProbs().getWeaponDestroyProb(wpn, tgt), EPS);
+         }
+      }
+   }
 }
@@ -1,12 +1,17 @@
 package thesis.core.serialization;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
 
 import org.junit.Test;
 
+import thesis.core.common.RoadNetwork;
+import thesis.core.serialization.world.MappedWorldFile;
 import thesis.core.serialization.world.WorldConfig;
+import thesis.core.world.World;
 
 public class WorldConfigCSVCodecTests
 {
@@ -24,4 +29,89 @@ public class WorldConfigCSVCodecTests
             testMe.loadCSV(dbConns, new File("./testWorlds/test1"), worldCfg));
       dbConns.closeWorldsDB();
    }
+
+   @Test
+   public void directLoadMatchesDB()
+   {
+      final File worldDir = new File("./testWorlds/test1");
+
+      DBConnections dbConns = new DBConnections();
+      assertTrue("Failed to open world db.", dbConns.openWorldsDB());
+
+      WorldConfig dbCfg = new WorldConfig();
+      WorldConfig directCfg = new WorldConfig();
+      WorldConfigCSVCodec testMe = new WorldConfigCSVCodec();
+
+      assertTrue("Failed to load world through db.", testMe.loadCSV(dbConns, worldDir, dbCfg));
+      dbConns.closeWorldsDB();
+      assertTrue("Failed to load world directly.", testMe.loadCSV(worldDir, directCfg));
+
+      assertSameWorld(dbCfg, directCfg);
+   }
+
+   @Test
+   public void binaryMatchesCSV() throws IOException
+   {
+      WorldConfig csvCfg = new WorldConfig();
+      WorldConfig binCfg = new WorldConfig();
+      WorldConfigCSVCodec testMe = new WorldConfigCSVCodec();
+
+      assertTrue("Failed to load world directly.", testMe.loadCSV(new File("./testWorlds/test1"), csvCfg));
+
+      File binFile = File.createTempFile("world", ".bin");
+      binFile.deleteOnExit();
+      assertTrue("Failed to write binary world.", testMe.writeBinary(binFile, csvCfg));
+      assertTrue("Failed to load binary world.", testMe.loadBinary(binFile, binCfg));
+
+      assertSameWorld(csvCfg, binCfg);
+
+      MappedWorldFile mapped = new MappedWorldFile(binFile);
+      RoadNetwork roads = csvCfg.getWorld().getRoadNetwork();
+      for (int row = 0; row < mapped.getRowCount(); ++row)
+      {
+         for (int col = 0; col < mapped.getColumnCount(); ++col)
+         {
+            assertEquals(roads.isTraversable(row, col), mapped.isTraversable(row, col));
+         }
+      }
+   }
+
+   private void assertSameWorld(WorldConfig expected, WorldConfig actual)
+   {
+      final double EPS = 0.000001;
+
+      World expWorld = expected.getWorld();
+      World actWorld = actual.getWorld();
+
+      assertEquals(expWorld.getWorldGIS().getWidth(), actWorld.getWorldGIS().getWidth(), EPS);
+      assertEquals(expWorld.getWorldGIS().getHeight(), actWorld.getWorldGIS().getHeight(), EPS);
+      assertEquals(expWorld.getWorldGIS().getRowCount(), actWorld.getWorldGIS().getRowCount());
+      assertEquals(expWorld.getWorldGIS().getColumnCount(), actWorld.getWorldGIS().getColumnCount());
+
+      assertEquals(expWorld.getHavens().getNumHavens(), actWorld.getHavens().getNumHavens());
+      for (int i = 0; i < expWorld.getHavens().getNumHavens(); ++i)
+      {
+         assertEquals(expWorld.getHavens().getHavenByIndx(i), actWorld.getHavens().getHavenByIndx(i));
+      }
+
+      assertEquals(expWorld.getRoadNetwork().getNumTraversable(), actWorld.getRoadNetwork().getNumTraversable());
+      assertEquals(expWorld.getRoadNetwork().getTraversableCells(), actWorld.getRoadNetwork().getTraversableCells());
+
+      assertEquals(expected.getUAVCfgs().size(), actual.getUAVCfgs().size());
+      for (int i = 0; i < expected.getUAVCfgs().size(); ++i)
+      {
+         assertEquals(expected.getUAVCfgs().get(i).getUAVType(), actual.getUAVCfgs().get(i).getUAVType());
+         assertEquals(expected.getUAVCfgs().get(i).getLocation(), actual.getUAVCfgs().get(i).getLocation());
+         assertEquals(expected.getUAVCfgs().get(i).getOrientation(), actual.getUAVCfgs().get(i).getOrientation(), EPS);
+      }
+
+      assertEquals(expected.getTargetCfgs().size(), actual.getTargetCfgs().size());
+      for (int i = 0; i < expected.getTargetCfgs().size(); ++i)
+      {
+         assertEquals(expected.getTargetCfgs().get(i).getTargetType(), actual.getTargetCfgs().get(i).getTargetType());
+         assertEquals(expected.getTargetCfgs().get(i).getLocation(), actual.getTargetCfgs().get(i).getLocation());
+         assertEquals(expected.getTargetCfgs().get(i).getOrientation(),
+               actual.getTargetCfgs().get(i).getOrientation(), EPS);
+      }
+   }
 }
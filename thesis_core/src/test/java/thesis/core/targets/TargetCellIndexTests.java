@@ -0,0 +1,84 @@
+package thesis.core.targets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import thesis.core.EntityTypeCfgs;
+import thesis.core.TestUtils;
+import thesis.core.common.CellCoordinate;
+import thesis.core.world.World;
+import thesis.core.world.WorldGIS;
+
+public class TargetCellIndexTests
+{
+   @Test
+   public void matchesLinearSearchTest()
+   {
+      final int NUM_TGTS = 300;
+
+      World world = new World();
+      // 10km x 10km world, 10x10 grid so that cells hold multiple targets
+      world.getWorldGIS().reset(10000, 10000, 10, 10);
+      WorldGIS gis = world.getWorldGIS();
+
+      final EntityTypeCfgs entTypes = TestUtils.genericEntityCfgs(3, 1, 1);
+      final TargetMgr testMe = TestUtils.genericTgtMgr(world, entTypes, NUM_TGTS);
+
+      // Kill every third target
+      Target[] targets = testMe.getAllTargets();
+      for (int i = 0; i < targets.length; i += 3)
+      {
+         targets[i].attacked();
+      }
+
+      List<Target> living = new ArrayList<Target>();
+      CellCoordinate tgtCell = new CellCoordinate();
+      for (int row = 0; row < gis.getRowCount(); ++row)
+      {
+         for (int col = 0; col < gis.getColumnCount(); ++col)
+         {
+            CellCoordinate cell = new CellCoordinate(row, col);
+
+            List<Target> expected = new ArrayList<Target>();
+            List<Target> expectedLiving = new ArrayList<Target>();
+            for (Target tgt : targets)
+            {
+               gis.convertWorldToCell(tgt.getCoordinate(), tgtCell);
+               if (tgtCell.equals(cell))
+               {
+                  expected.add(tgt);
+                  if (tgt.isAlive())
+                  {
+                     expectedLiving.add(tgt);
+                  }
+               }
+            }
+
+            assertEquals("Incorrect targets in cell.", expected, testMe.getTargetsInRegion(cell));
+            assertEquals("Incorrect living targets in cell.", expectedLiving, testMe.getLivingTargetsInRegion(cell));
+
+            testMe.getLivingTargetsInRegion(cell, living);
+            assertEquals("Incorrect reused living targets in cell.", expectedLiving, living);
+
+            for (int type = 0; type < 3; ++type)
+            {
+               Target expectedOfType = null;
+               for (Target tgt : expected)
+               {
+                  if (tgt.getType() == type)
+                  {
+                     expectedOfType = tgt;
+                     break;
+                  }
+               }
+               assertSame("Incorrect target of type in cell.", expectedOfType, testMe.getTargetInRegion(cell, type));
+            }
+         }
+      }
+   }
+}
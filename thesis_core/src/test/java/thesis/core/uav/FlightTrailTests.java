@@ -0,0 +1,52 @@
+package thesis.core.uav;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import thesis.core.common.WorldPose;
+
+public class FlightTrailTests
+{
+   @Test
+   public void wrapAroundTest()
+   {
+      final int CAPACITY = 5;
+      final int NUM_POSES = 12;
+
+      FlightTrail trail = new FlightTrail(CAPACITY);
+      WorldPose pose = new WorldPose();
+      for (int i = 0; i < NUM_POSES; ++i)
+      {
+         pose.getCoordinate().setCoordinate(i, i * 10);
+         pose.setHeading(i * 15);
+         trail.add(pose);
+         assertEquals("Wrong trail size.", Math.min(i + 1, CAPACITY), trail.size());
+      }
+
+      // Only the most recent poses remain, oldest first
+      WorldPose result = new WorldPose();
+      for (int i = 0; i < CAPACITY; ++i)
+      {
+         final int expected = NUM_POSES - CAPACITY + i;
+         assertEquals("Wrong north.", expected, trail.getNorth(i), 0);
+         assertEquals("Wrong east.", expected * 10, trail.getEast(i), 0);
+         assertEquals("Wrong heading.", expected * 15, trail.getHeading(i), 0);
+
+         trail.getPose(i, result);
+         assertEquals("Wrong pose north.", expected, result.getNorth(), 0);
+         assertEquals("Wrong pose heading.", expected * 15, result.getHeading(), 0);
+      }
+
+      trail.clear();
+      assertEquals("Trail not cleared.", 0, trail.size());
+   }
+
+   @Test(expected = IndexOutOfBoundsException.class)
+   public void outOfRangeTest()
+   {
+      FlightTrail trail = new FlightTrail(3);
+      trail.add(new WorldPose());
+      trail.getNorth(1);
+   }
+}
@@ -0,0 +1,76 @@
+package thesis.core.uav;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import thesis.core.EntityTypeCfgs;
+import thesis.core.TestUtils;
+import thesis.core.common.Circle;
+import thesis.core.common.RandomStreams;
+import thesis.core.common.SimClock;
+import thesis.core.sensors.SensorProbTables;
+import thesis.core.serialization.world.UAVStartCfg;
+import thesis.core.targets.TargetMgr;
+import thesis.core.uav.comms.CommsConfig;
+import thesis.core.world.World;
+
+public class UAVSpatialIndexTests
+{
+   @Test
+   public void matchesLinearSearchTest()
+   {
+      final int NUM_UAVS = 200;
+      final double COMMS_RNG = 5000;
+
+      World world = new World();
+      // 100km x 100km world, 10x10 grid
+      world.getWorldGIS().reset(100000, 100000, 10, 10);
+
+      final EntityTypeCfgs entTypes = TestUtils.genericEntityCfgs(1, 1, 1);
+      entTypes.getUAVWeaponCfgs().reset(1, 0);
+      final TargetMgr tgtMngr = TestUtils.genericTgtMgr(world, entTypes, 1);
+
+      Random rand = new Random(1234);
+      List<UAVStartCfg> startCfgs = new ArrayList<UAVStartCfg>();
+      for (int i = 0; i < NUM_UAVS; ++i)
+      {
+         UAVStartCfg cfg = new UAVStartCfg();
+         cfg.setUAVType(0);
+         // Place some UAVs outside of the world to exercise the edge buckets
+         cfg.getLocation().setCoordinate(rand.nextDouble() * 110000 - 5000, rand.nextDouble() * 110000 - 5000);
+         startCfgs.add(cfg);
+      }
+
+      CommsConfig commsCfg = new CommsConfig();
+      commsCfg.setMaxCommsRng(COMMS_RNG);
+
+      UAVMgr testMe = new UAVMgr();
+      testMe.reset(entTypes, startCfgs, tgtMngr,
+            new SensorProbTables(entTypes.getSnsrProbs(), entTypes.getTgtTypeCfgs(), false), new RandomStreams(1),
+            commsCfg, world.getWorldGIS(), 0, 0, new SimClock());
+
+      UAV[] results = new UAV[NUM_UAVS];
+      Circle region = new Circle();
+      for (int i = 0; i < 100; ++i)
+      {
+         region.getCenter().setCoordinate(rand.nextDouble() * 100000, rand.nextDouble() * 100000);
+         region.setRadius(rand.nextDouble() * COMMS_RNG * 3);
+         final int exclude = rand.nextInt(NUM_UAVS);
+
+         List<UAV> expected = testMe.getAllUAVsInRegion(region, exclude);
+         final int numFound = testMe.getUAVsInRegion(region, exclude, results);
+
+         assertEquals("Incorrect number of UAVs in query region.", expected.size(), numFound);
+         for (int j = 0; j < numFound; ++j)
+         {
+            assertSame("UAVs not found in ID order.", expected.get(j), results[j]);
+         }
+      }
+   }
+}
@@ -0,0 +1,94 @@
+package thesis.core.uav.dubins;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import thesis.core.common.Angle;
+import thesis.core.common.WorldPose;
+
+public class DubinsPathCacheTests
+{
+   @Test
+   public void relativePoseReuseTest()
+   {
+      final double TURN_RADIUS = 100;
+      final double COMPARE_THRESH = 0.0001;
+
+      DubinsPathCache cache = new DubinsPathCache();
+
+      // The same relative geometry from different start poses
+      final double relNorth = 420;
+      final double relEast = -130;
+      final double relHdg = 75;
+
+      Random rand = new Random(1234);
+      WorldPose pose = new WorldPose();
+      for (int i = 0; i < 10; ++i)
+      {
+         WorldPose start = new WorldPose();
+         start.getCoordinate().setCoordinate(rand.nextDouble() * 2000, rand.nextDouble() * 2000);
+         start.setHeading(rand.nextInt(360));
+
+         // Rotate the relative end pose into the world frame
+         final double hdgRads = Math.toRadians(start.getHeading());
+         final double north = relEast * Math.sin(hdgRads) + relNorth * Math.cos(hdgRads);
+         final double east = relEast * Math.cos(hdgRads) - relNorth * Math.sin(hdgRads);
+         WorldPose end = new WorldPose();
+         end.getCoordinate().setCoordinate(start.getNorth() + north, start.getEast() + east);
+         end.setHeading(start.getHeading() + relHdg);
+
+         DubinsPath cached = cache.generate(TURN_RADIUS, start, end);
+         DubinsPath exact = DubinsPathGenerator.generate(TURN_RADIUS, start, end);
+
+         assertEquals("Wrong path type.", exact.getPathType(), cached.getPathType());
+         assertEquals("Wrong path length.", exact.getPathLength(), cached.getPathLength(), COMPARE_THRESH);
+         assertEquals("Wrong waypoint 1.", 0, exact.getWaypoint1().distanceTo(cached.getWaypoint1()), COMPARE_THRESH);
+         assertEquals("Wrong waypoint 2.", 0, exact.getWaypoint2().distanceTo(cached.getWaypoint2()), COMPARE_THRESH);
+
+         cached.getPose(cached.getPathLength(), pose);
+         assertEquals("Path does not finish at the end.", 0, pose.getCoordinate().distanceTo(end.getCoordinate()),
+               COMPARE_THRESH);
+         assertEquals("Path does not finish at the end heading.", 0,
+               Angle.normalizeNegPiToPi(Math.toRadians(pose.getHeading() - end.getHeading())), COMPARE_THRESH);
+      }
+
+      assertEquals("Wrong number of misses.", 1, cache.getNumMisses());
+      assertEquals("Wrong number of hits.", 9, cache.getNumHits());
+
+      cache.clear();
+      assertEquals("Hit rate not cleared.", 0, cache.getHitRate(), 0);
+   }
+
+   @Test
+   public void evictionTest()
+   {
+      final double TURN_RADIUS = 100;
+
+      DubinsPathCache cache = new DubinsPathCache(2, DubinsPathCache.DEFAULT_POSITION_QUANTUM,
+            DubinsPathCache.DEFAULT_HEADING_QUANTUM);
+
+      WorldPose start = new WorldPose();
+      WorldPose[] ends = new WorldPose[3];
+      for (int i = 0; i < ends.length; ++i)
+      {
+         ends[i] = new WorldPose();
+         ends[i].getCoordinate().setCoordinate(500 * (i + 1), 300);
+         ends[i].setHeading(90);
+      }
+
+      cache.generate(TURN_RADIUS, start, ends[0]);
+      cache.generate(TURN_RADIUS, start, ends[1]);
+      // Touch the first path so the second is the least recently used
+      cache.generate(TURN_RADIUS, start, ends[0]);
+      cache.generate(TURN_RADIUS, start, ends[2]);
+      assertEquals("Wrong number of hits before eviction.", 1, cache.getNumHits());
+
+      cache.generate(TURN_RADIUS, start, ends[0]);
+      assertEquals("Recently used path was evicted.", 2, cache.getNumHits());
+      cache.generate(TURN_RADIUS, start, ends[1]);
+      assertEquals("Least recently used path was not evicted.", 2, cache.getNumHits());
+   }
+}
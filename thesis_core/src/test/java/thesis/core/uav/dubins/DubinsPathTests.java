@@ -0,0 +1,60 @@
+package thesis.core.uav.dubins;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import thesis.core.common.Angle;
+import thesis.core.common.WorldPose;
+
+public class DubinsPathTests
+{
+   @Test
+   public void poseAtArcLengthTest()
+   {
+      final double TURN_RADIUS = 100;
+      final double COMPARE_THRESH = 0.0001;
+
+      Random rand = new Random(1234);
+      WorldPose pose = new WorldPose();
+      for (int i = 0; i < 100; ++i)
+      {
+         WorldPose start = new WorldPose();
+         start.getCoordinate().setCoordinate(rand.nextDouble() * 2000, rand.nextDouble() * 2000);
+         start.setHeading(rand.nextDouble() * 360);
+         WorldPose end = new WorldPose();
+         end.getCoordinate().setCoordinate(rand.nextDouble() * 2000, rand.nextDouble() * 2000);
+         end.setHeading(rand.nextDouble() * 360);
+
+         DubinsPath path = DubinsPathGenerator.generate(TURN_RADIUS, start, end);
+         assertNotEquals("No path generated.", PathType.NO_PATH, path.getPathType());
+
+         path.getPose(0, pose);
+         assertEquals("Path does not begin at the start.", 0, pose.getCoordinate().distanceTo(start.getCoordinate()),
+               COMPARE_THRESH);
+
+         final double seg1 = path.getSegmentLength(PathPhase.Phase1);
+         final double seg2 = path.getSegmentLength(PathPhase.Phase2);
+
+         path.getPose(seg1, pose);
+         assertEquals("Path does not pass through waypoint 1.", 0,
+               pose.getCoordinate().distanceTo(path.getWaypoint1()), COMPARE_THRESH);
+
+         path.getPose(seg1 + seg2, pose);
+         assertEquals("Path does not pass through waypoint 2.", 0,
+               pose.getCoordinate().distanceTo(path.getWaypoint2()), COMPARE_THRESH);
+
+         path.getPose(path.getPathLength(), pose);
+         assertEquals("Path does not finish at the end.", 0, pose.getCoordinate().distanceTo(end.getCoordinate()),
+               COMPARE_THRESH);
+         assertEquals("Path does not finish at the end heading.", 0,
+               Angle.normalizeNegPiToPi(Math.toRadians(pose.getHeading() - end.getHeading())), COMPARE_THRESH);
+
+         assertEquals("Wrong phase at the start.", PathPhase.Phase1, path.getPhase(0));
+         assertEquals("Wrong phase beyond the end.", PathPhase.Phase3, path.getPhase(path.getPathLength() + 1));
+      }
+   }
+}
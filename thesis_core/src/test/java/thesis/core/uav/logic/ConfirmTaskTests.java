@@ -13,6 +13,8 @@ import org.junit.Test;
 import thesis.core.belief.TargetBelief;
 import thesis.core.belief.WorldBelief;
 import thesis.core.common.HavenRouting;
+import thesis.core.common.RandomStreams;
+import thesis.core.common.SimClock;
 import thesis.core.common.WorldCoordinate;
 import thesis.core.sensors.Sensor;
 import thesis.core.sensors.SensorGroup;
@@ -45,7 +47,8 @@ public class ConfirmTaskTests
       tgtStartCfgs.add(startCfg);
 
       // initialize the one and only target
-      tgtMgr.reset(tgtTypeCfgs, tgtStartCfgs, new HavenRouting(world, new Random()), gis);
+      tgtMgr.reset(tgtTypeCfgs, tgtStartCfgs, new HavenRouting(world), gis, new SimClock(),
+            new RandomStreams(0));
 
       // Fake results of searching
       wb.getCellBelief(0, 0).updateEmptyBelief(0, 0);
@@ -82,7 +85,7 @@ public class ConfirmTaskTests
       TargetMgr tgtMgr = new TargetMgr();
 
       Pathing pathing = new Pathing(0, 0, typeCfgs);
-      WorldBelief worldBlf = new WorldBelief(1, 1, 1, 0d, 0);
+      WorldBelief worldBlf = new WorldBelief(1, 1, 1, 0d, 0, new SimClock());
 
       initTarget(worldBlf, tgtMgr, gis, targetCoord);
 
@@ -96,7 +99,7 @@ public class ConfirmTaskTests
       //-----Run test steps-----
       WorldCoordinate sensorLocation = new WorldCoordinate();
       pathing.setHeading(sensorLocation.bearingTo(targetCoord));
-      ConfirmTask testMe = new ConfirmTask(0);
+      ConfirmTask testMe = new ConfirmTask(0, new SimClock());
       testMe.reset(0);
       assertEquals("Should be in the initialization state.", State.Init, testMe.getState());
       testMe.stepSimulation(worldBlf, pathing, snsrGrp);
@@ -2,12 +2,17 @@ package thesis.core.uav.logic;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
 
 import org.junit.Test;
 
 import thesis.core.belief.WorldBelief;
 import thesis.core.common.CellCoordinate;
+import thesis.core.common.SimClock;
 import thesis.core.sensors.SensorGroup;
 import thesis.core.sensors.SensorProbs;
 import thesis.core.sensors.SensorScanLogic;
@@ -30,7 +35,7 @@ public class SearchTaskTests
       typeCfgs.setUAVData(0, 10, 50);
 
       Pathing pathing = new Pathing(0, 0, typeCfgs);
-      WorldBelief worldBlf = new WorldBelief(2, 2, 1, 0d, 0);
+      WorldBelief worldBlf = new WorldBelief(2, 2, 1, 0d, 0, new SimClock());
       // All cells are known to be empty except one that is 50/50 chance.
       worldBlf.getCellBelief(0, 0).updateEmptyBelief(0, 0);
       worldBlf.getCellBelief(0, 1).updateEmptyBelief(0, 0);
@@ -64,4 +69,64 @@ public class SearchTaskTests
       actualDestCoord = gis.convertWorldToCell(pathing.getFlightPath().getEndPose().getCoordinate());
       assertEquals("Search did not switch upon uncertainty threshold reached.", expectedDestCoord, actualDestCoord);
    }
+
+   @Test
+   public void randomTopThirdTest()
+   {
+      final int NUM_ROWS = 20;
+      final int NUM_COLS = 15;
+
+      WorldGIS gis = new WorldGIS();
+      gis.reset(1000, 1000, NUM_ROWS, NUM_COLS);
+
+      UAVTypeConfigs typeCfgs = new UAVTypeConfigs();
+      typeCfgs.reset(1);
+      typeCfgs.setUAVData(0, 10, 50);
+
+      Pathing pathing = new Pathing(0, 0, typeCfgs);
+      SensorGroup snsrGrp = new SensorGroup(new SensorScanLogic(new SensorProbs(), new TargetMgr(), new Random()),
+            gis);
+
+      SearchTask.strategy = SearchTask.Strategy.RandomTopThird;
+      Random beliefRand = new Random(1234);
+      for (int seed = 0; seed < 20; ++seed)
+      {
+         WorldBelief worldBlf = new WorldBelief(NUM_ROWS, NUM_COLS, 1, 0d, 0, new SimClock());
+         for (int i = 0; i < NUM_ROWS; ++i)
+         {
+            for (int j = 0; j < NUM_COLS; ++j)
+            {
+               // Few distinct values to exercise ties
+               worldBlf.getCellBelief(i, j).updateEmptyBelief(0, beliefRand.nextInt(5) / 10.0);
+            }
+         }
+
+         // Reference selection from a stable sort of every cell
+         List<CellCoordinate> sorted = new ArrayList<CellCoordinate>();
+         for (int i = 0; i < NUM_ROWS; ++i)
+         {
+            for (int j = 0; j < NUM_COLS; ++j)
+            {
+               sorted.add(new CellCoordinate(i, j));
+            }
+         }
+         final WorldBelief blf = worldBlf;
+         Collections.sort(sorted, new Comparator<CellCoordinate>()
+         {
+            @Override
+            public int compare(CellCoordinate o1, CellCoordinate o2)
+            {
+               return Double.compare(blf.getCellBelief(o1).getUncertainty(), blf.getCellBelief(o2).getUncertainty());
+            }
+         });
+         CellCoordinate expectedDestCoord = sorted.get(new Random(seed).nextInt(sorted.size() / 3));
+
+         SearchTask testMe = new SearchTask(0, gis, new Random(seed));
+         testMe.reset(worldBlf, pathing, snsrGrp);
+
+         CellCoordinate actualDestCoord = gis.convertWorldToCell(pathing.getFlightPath().getEndPose().getCoordinate());
+         assertEquals("Search selected a different cell than a full sort.", expectedDestCoord, actualDestCoord);
+      }
+      SearchTask.strategy = SearchTask.Strategy.Forage;
+   }
 }
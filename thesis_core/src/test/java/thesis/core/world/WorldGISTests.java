@@ -5,6 +5,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -85,4 +86,76 @@ public class WorldGISTests
       trueCellsInRect.removeAll(cellsInRect);
       assertTrue("Did not find all cells in FOV.", trueCellsInRect.isEmpty());
    }
+
+   @Test
+   public void rotatedFootprintTest()
+   {
+      WorldGIS testMe = new WorldGIS();
+      // 30km x 20km world, 30x40 grid so cells are not square
+      testMe.reset(20000, 30000, 30, 40);
+
+      Random rand = new Random(42);
+      WorldCoordinate center = new WorldCoordinate();
+      CellSpans spans = new CellSpans();
+      for (int trial = 0; trial < 500; ++trial)
+      {
+         // Build a sensor footprint at a random heading
+         WorldCoordinate pos = new WorldCoordinate(rand.nextDouble() * 30000, rand.nextDouble() * 20000);
+         final double hdg = rand.nextDouble() * 360;
+         final double halfFOV = 5 + rand.nextDouble() * 40;
+         final double near = rand.nextDouble() * 500;
+         final double far = near + rand.nextDouble() * 5000;
+
+         Trapezoid rect = new Trapezoid();
+         rect.getTopLeft().setCoordinate(pos);
+         rect.getTopRight().setCoordinate(pos);
+         rect.getBottomLeft().setCoordinate(pos);
+         rect.getBottomRight().setCoordinate(pos);
+         rect.getTopLeft().translatePolar(hdg + halfFOV, far);
+         rect.getTopRight().translatePolar(hdg - halfFOV, far);
+         rect.getBottomLeft().translatePolar(hdg + halfFOV, near);
+         rect.getBottomRight().translatePolar(hdg - halfFOV, near);
+
+         WorldCoordinate[] corners = { rect.getTopLeft(), rect.getBottomLeft(), rect.getBottomRight(),
+               rect.getTopRight() };
+
+         List<CellCoordinate> expected = new ArrayList<CellCoordinate>();
+         for (int row = 0; row < testMe.getRowCount(); ++row)
+         {
+            for (int col = 0; col < testMe.getColumnCount(); ++col)
+            {
+               testMe.convertCellToWorld(row, col, center);
+               if (isInConvexPolygon(center, corners))
+               {
+                  expected.add(new CellCoordinate(row, col));
+               }
+            }
+         }
+
+         assertEquals("Incorrect cells in footprint.", expected, testMe.getCellsInRectangle(rect));
+
+         testMe.getCellSpansInRectangle(rect, spans);
+         assertEquals("Incorrect number of cells in spans.", expected.size(), spans.getNumCells());
+      }
+   }
+
+   /**
+    * Brute force point in convex polygon test. The point is inside if it is on
+    * the same side of every edge.
+    */
+   private boolean isInConvexPolygon(WorldCoordinate pt, WorldCoordinate[] corners)
+   {
+      boolean hasPos = false;
+      boolean hasNeg = false;
+      for (int i = 0; i < corners.length; ++i)
+      {
+         WorldCoordinate a = corners[i];
+         WorldCoordinate b = corners[(i + 1) % corners.length];
+         double cross = (b.getEast() - a.getEast()) * (pt.getNorth() - a.getNorth())
+               - (b.getNorth() - a.getNorth()) * (pt.getEast() - a.getEast());
+         hasPos |= cross > 0;
+         hasNeg |= cross < 0;
+      }
+      return !(hasPos && hasNeg);
+   }
 }
@@ -61,20 +61,52 @@ public class ThesisGUIApp
       return cfg;
    }
 
+   /**
+    * @param dbConns
+    *           The csv files are staged in these databases or parsed directly
+    *           if null. A binary world file in the world directory is loaded
+    *           instead of the world's csv files if binary worlds are enabled
+    *           and none of the csv files is newer than it.
+    */
    private static boolean loadData(Logger logger, DBConnections dbConns, EntityTypeCfgs entityTypes,
          WorldConfig worldCfg, SimModelConfig simCfg)
    {
       boolean success = true;
       EntityTypeCSVCodec entTypesCfgCodec = new EntityTypeCSVCodec();
-      if (!entTypesCfgCodec.loadCSV(dbConns, simCfg.getEntityTypeDir(), entityTypes))
+      WorldConfigCSVCodec worldCfgCodec = new WorldConfigCSVCodec();
+      File binFile = new File(simCfg.getWorldDir(), WorldConfigCSVCodec.BINARY_FILE);
+      boolean entTypesLoaded = false;
+      boolean worldLoaded = false;
+      if (dbConns != null)
+      {
+         entTypesLoaded = entTypesCfgCodec.loadCSV(dbConns, simCfg.getEntityTypeDir(), entityTypes);
+      }
+      else
+      {
+         entTypesLoaded = entTypesCfgCodec.loadCSV(simCfg.getEntityTypeDir(), entityTypes);
+      }
+
+      if (simCfg.isLoadBinaryWorld() && worldCfgCodec.isBinaryCurrent(simCfg.getWorldDir()))
+      {
+         worldLoaded = worldCfgCodec.loadBinary(binFile, worldCfg);
+      }
+      else if (dbConns != null)
+      {
+         worldLoaded = worldCfgCodec.loadCSV(dbConns, simCfg.getWorldDir(), worldCfg);
+      }
+      else
+      {
+         worldLoaded = worldCfgCodec.loadCSV(simCfg.getWorldDir(), worldCfg);
+      }
+
+      if (!entTypesLoaded)
       {
          logger.error("Failed to load entity types configuration data: {}",
                simCfg.getEntityTypeDir().getAbsolutePath());
          success = false;
       }
 
-      WorldConfigCSVCodec worldCfgCodec = new WorldConfigCSVCodec();
-      if (!worldCfgCodec.loadCSV(dbConns, simCfg.getWorldDir(), worldCfg))
+      if (!worldLoaded)
       {
          logger.error("Failed to load world configuration data: {}", simCfg.getWorldDir().getAbsolutePath());
          success = false;
@@ -89,7 +121,7 @@ public class ThesisGUIApp
 
       boolean abort = false;
 
-      DBConnections dbConns = new DBConnections();
+      DBConnections dbConns = null;
       WorldConfig worldCfg = new WorldConfig();
       EntityTypeCfgs entityTypes = new EntityTypeCfgs();
 
@@ -100,8 +132,9 @@ public class ThesisGUIApp
          abort = true;
       }
 
-      if (!abort)
+      if (!abort && simCfg.isLoadThroughDB())
       {
+         dbConns = new DBConnections();
          abort = !(dbConns.openConfigDB() && dbConns.openWorldsDB());
       }
 
@@ -117,6 +150,10 @@ public class ThesisGUIApp
          SimModel simModel = new SimModel();
          simModel.reset(simCfg.getRandomSeed(), worldCfg, entityTypes, simCfg.getCommsRngPercent(),
                simCfg.getCommsRelayProbability(), simCfg.getBeliefDecayRate(), simCfg.getMinWorldClearUncert());
+         simModel.setUAVStepThreads(simCfg.getUAVStepThreads());
+         simModel.setExactSensorProbabilities(simCfg.isExactSensorProbabilities());
+         simModel.setPathCacheSize(simCfg.getPathCacheSize());
+         simModel.setFlightTrailsEnabled(simCfg.isFlightTrailsEnabled());
 
          MainWindow mainWin = new MainWindow();
          abort = !mainWin.init(simModel);
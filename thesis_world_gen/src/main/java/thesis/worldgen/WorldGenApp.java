@@ -165,6 +165,13 @@ public class WorldGenApp
                System.exit(1);
             }
 
+            File binFile = new File(worldDir, WorldConfigCSVCodec.BINARY_FILE);
+            if (!worldCfgCodec.writeBinary(binFile, worldCfg))
+            {
+               logger.error("Failed to save world {} into {}", i, binFile.getAbsolutePath());
+               System.exit(1);
+            }
+
             logger.debug("Saving world {} screenshot into {}", i, screenShotFile.getAbsolutePath());
             SimModel model = new SimModel();
             model.reset(0, worldCfg, entTypes, 0.0f, 0.0f, 0, 0);